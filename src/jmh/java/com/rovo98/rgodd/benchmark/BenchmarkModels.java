@@ -0,0 +1,54 @@
+package com.rovo98.rgodd.benchmark;
+
+import com.rovo98.rgodd.CompiledDFA;
+import com.rovo98.rgodd.ConstructedDFA;
+import com.rovo98.rgodd.DFAConstructor;
+import com.rovo98.rgodd.SimpleDFAConstructor;
+
+/**
+ * Fixed seeded models shared by the benchmarks.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.09
+ */
+final class BenchmarkModels {
+    // the number of the seeds (0 ~ SEEDS - 1) used by the benchmarks.
+    static final int SEEDS = 16;
+    // seed of the diagnosable models.
+    private static final long DIAGNOSABLE_SEED = 20200409L;
+
+    // this class can not be instanced.
+    private BenchmarkModels() {
+    }
+
+    // returns the models of all the seeds with the given state size range ("minXNum-maxXNum").
+    static ConstructedDFA[] construct(String stateRange, boolean extraNormal, boolean multiFaulty) {
+        int[] range = parseRange(stateRange);
+        DFAConstructor constructor = SimpleDFAConstructor.newInstance();
+        ConstructedDFA[] models = new ConstructedDFA[SEEDS];
+        for (int seed = 0; seed < SEEDS; seed++)
+            models[seed] = constructor.construct(seed, range[0], range[1], extraNormal, multiFaulty);
+        return models;
+    }
+
+    // returns the diagnosable model with the given state size range, it is cached after the first run.
+    static ConstructedDFA constructDiagnosable(String stateRange, boolean multiFaulty) {
+        int[] range = parseRange(stateRange);
+        return SimpleDFAConstructor.newInstance().constructWithDiagnosability(DIAGNOSABLE_SEED,
+                range[0], range[1], true, multiFaulty, true);
+    }
+
+    static CompiledDFA[] compile(ConstructedDFA[] models) {
+        CompiledDFA[] compiled = new CompiledDFA[models.length];
+        for (int i = 0; i < models.length; i++)
+            compiled[i] = models[i].compile();
+        return compiled;
+    }
+
+    // returns {minXNum, maxXNum} of the given state size range ("minXNum-maxXNum").
+    static int[] parseRange(String stateRange) {
+        String[] range = stateRange.split("-");
+        return new int[]{Integer.parseInt(range[0]), Integer.parseInt(range[1])};
+    }
+}
@@ -0,0 +1,55 @@
+package com.rovo98.rgodd.benchmark;
+
+import com.rovo98.rgodd.ConstructedDFA;
+import com.rovo98.rgodd.DFAConstructor;
+import com.rovo98.rgodd.SimpleDFAConstructor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of constructing random dfas with {@link SimpleDFAConstructor}.
+ * <br />
+ * Every invocation constructs the dfa of the next seed of a fixed seeds sequence, so different runs
+ * construct the same dfas.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.09
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstructionBenchmark {
+    // state size range of the constructed dfas, "minXNum-maxXNum".
+    @Param({"11-30", "50-80", "100-150"})
+    public String stateRange;
+
+    @Param({"false", "true"})
+    public boolean multiFaulty;
+
+    @Param({"false", "true"})
+    public boolean extraNormal;
+
+    private DFAConstructor constructor;
+    private int minXNum;
+    private int maxXNum;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        constructor = SimpleDFAConstructor.newInstance();
+        int[] range = BenchmarkModels.parseRange(stateRange);
+        minXNum = range[0];
+        maxXNum = range[1];
+        seed = 0;
+    }
+
+    @Benchmark
+    public ConstructedDFA construct() {
+        return constructor.construct(seed++ % BenchmarkModels.SEEDS, minXNum, maxXNum, extraNormal, multiFaulty);
+    }
+}
@@ -0,0 +1,51 @@
+package com.rovo98.rgodd.benchmark;
+
+import com.rovo98.rgodd.CompiledDFA;
+import com.rovo98.rgodd.diagnosability.Diagnoser;
+import com.rovo98.rgodd.diagnosability.NeotypeDiagnoser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of testing diagnosability with {@link NeotypeDiagnoser} of every mode.
+ * <br />
+ * Every invocation tests all the fixed seeded models of the given state size range, see {@link BenchmarkModels}.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.09
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiagnosabilityBenchmark {
+    @Param({"11-30", "50-80"})
+    public String stateRange;
+
+    @Param({"false", "true"})
+    public boolean multiFaulty;
+
+    @Param({"STRING_KEYED", "INT_KEYED", "SYMMETRIC", "LAZY"})
+    public NeotypeDiagnoser.Mode mode;
+
+    private CompiledDFA[] models;
+    private Diagnoser dfaDiagnoser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        models = BenchmarkModels.compile(BenchmarkModels.construct(stateRange, true, multiFaulty));
+        dfaDiagnoser = NeotypeDiagnoser.newInstance(mode);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkModels.SEEDS)
+    public void isDiagnosable(Blackhole bh) {
+        for (CompiledDFA dfa : models)
+            bh.consume(dfaDiagnoser.isDiagnosable(dfa));
+    }
+}
@@ -0,0 +1,48 @@
+package com.rovo98.rgodd.benchmark;
+
+import com.rovo98.rgodd.CompiledDFA;
+import com.rovo98.rgodd.RunningLogsGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of generating running logs with {@link RunningLogsGenerator}, the score is the number of the
+ * generated logs per second.
+ * <br />
+ * Logs are generated from a fixed seeded diagnosable model with a fixed seed.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.09
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogGenerationBenchmark {
+    private static final int LOG_SIZE = 2000;
+
+    @Param({"11-30", "50-80"})
+    public String stateRange;
+
+    @Param({"false", "true"})
+    public boolean multiFaulty;
+
+    private CompiledDFA dfa;
+    private RunningLogsGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dfa = BenchmarkModels.constructDiagnosable(stateRange, multiFaulty).compile();
+        generator = new RunningLogsGenerator(10, 100);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOG_SIZE)
+    public void generate() {
+        generator.generate(LOG_SIZE, dfa, 0L, false);
+    }
+}
@@ -0,0 +1,381 @@
+package com.rovo98.rgodd;
+
+import com.rovo98.rgodd.diagnosability.Diagnoser;
+import com.rovo98.rgodd.diagnosability.NeotypeDiagnoser;
+import com.rovo98.rgodd.exceptions.DFAGenerationFailed;
+import com.rovo98.rgodd.utils.CommonUtils;
+import com.rovo98.rgodd.utils.SeededRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batch generator of model families, i.e. many diagnosable dfas of a grid of {@link GenerationProfile}s.
+ * <br />
+ * Every cell of the grid (a profile) gets the given number of models, and every model is constructed with
+ * its own seed derived from the seed of the batch, the cell and the model number, so the same batch always
+ * gives the same models, no matter how many workers are used, and a larger count only adds models to the
+ * cells.
+ * <br />
+ * <br />
+ * The models are constructed by several workers on the given executor, every one of them takes the next
+ * model to be constructed until all the models are done. Every worker uses its own {@link SimpleDFAConstructor}
+ * and {@link NeotypeDiagnoser} instance. Models are constructed diagnosable by construction (see
+ * {@link DFAConstructor#constructDiagnosable(long, GenerationProfile)}) and then verified, or with rejection
+ * sampling (see {@link DFAConstructor#constructWithDiagnosability(long, GenerationProfile)}).
+ * <br />
+ * <br />
+ * Every model is saved to the output directory once it is verified, see
+ * {@link CommonUtils#saveDFAConfigs(Path, DFANode, DFAConfig)}, and a manifest ({@value #MANIFEST}) listing
+ * all the models is written at last, one tab-separated line per model:
+ * <pre>
+ *     file  cell  profile  seed  states  alphabet  faultTypes  multiFaulty  extraNormal  millis
+ * </pre>
+ * The batch can also be run from the command line, see {@link #main(String[])}.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.17
+ */
+public class BatchModelGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchModelGenerator.class);
+
+    /** Name of the manifest file of the output directory. */
+    public static final String MANIFEST = "manifest.tsv";
+
+    private final ExecutorService executor;
+    private final int workers;
+    private final boolean byConstruction;
+
+    /**
+     * A generated model of the batch.
+     */
+    public static final class Model {
+        private final String file;
+        private final int cell;
+        private final GenerationProfile profile;
+        private final long seed;
+        private final int stateCount;
+        private final int alphabetSize;
+        private final int faultTypeCount;
+        private final long millis;
+
+        Model(String file, int cell, GenerationProfile profile, long seed, CompiledDFA dfa, long millis) {
+            this.file = file;
+            this.cell = cell;
+            this.profile = profile;
+            this.seed = seed;
+            this.stateCount = dfa.getStateCount();
+            this.alphabetSize = dfa.getAlphabetSize();
+            this.faultTypeCount = dfa.getFaultTypeCount();
+            this.millis = millis;
+        }
+
+        // the manifest line of the model.
+        String toManifestLine() {
+            return String.join("\t", file, String.valueOf(cell), profile.getName(), Long.toHexString(seed),
+                    String.valueOf(stateCount), String.valueOf(alphabetSize), String.valueOf(faultTypeCount),
+                    String.valueOf(profile.isMultiFaulty()), String.valueOf(profile.isExtraNormal()),
+                    String.valueOf(millis));
+        }
+
+        // getters.
+        public String getFile() {
+            return file;
+        }
+
+        public int getCell() {
+            return cell;
+        }
+
+        public GenerationProfile getProfile() {
+            return profile;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public int getStateCount() {
+            return stateCount;
+        }
+
+        public int getAlphabetSize() {
+            return alphabetSize;
+        }
+
+        public int getFaultTypeCount() {
+            return faultTypeCount;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+    }
+
+    /**
+     * Creates a generator running the given number of workers on the given executor, models are constructed
+     * diagnosable by construction.
+     *
+     * @param executor the executor to run the workers.
+     * @param workers  the number of the workers.
+     */
+    public BatchModelGenerator(ExecutorService executor, int workers) {
+        this(executor, workers, true);
+    }
+
+    /**
+     * Creates a generator running the given number of workers on the given executor.
+     *
+     * @param executor       the executor to run the workers.
+     * @param workers        the number of the workers.
+     * @param byConstruction control to whether to construct the models diagnosable by construction, or with
+     *                       rejection sampling.
+     */
+    public BatchModelGenerator(ExecutorService executor, int workers, boolean byConstruction) {
+        if (executor == null)
+            throw new IllegalArgumentException("executor must not be null.");
+        if (workers < 1)
+            throw new IllegalArgumentException("workers should be at least 1: " + workers);
+        this.executor = executor;
+        this.workers = workers;
+        this.byConstruction = byConstruction;
+    }
+
+    /**
+     * Returns the grid of the profiles, i.e. all the combinations of the given options, in the order of
+     * states ranges, fault events, multi-faulty and extra normal.
+     *
+     * @param stateRanges the states ranges, {min, max} or {states}.
+     * @param faultEvents the numbers of the fault events, 0 for the randomly chosen one.
+     * @param multiFaulty the multi-faulty options.
+     * @param extraNormal the extra normal options.
+     * @return the profiles of the grid.
+     * @throws IllegalArgumentException if a combination is not a valid profile.
+     */
+    public static List<GenerationProfile> grid(int[][] stateRanges, int[] faultEvents,
+                                               boolean[] multiFaulty, boolean[] extraNormal) {
+        List<GenerationProfile> profiles = new ArrayList<>();
+        for (int[] range : stateRanges)
+            for (int faults : faultEvents)
+                for (boolean mf : multiFaulty)
+                    for (boolean en : extraNormal)
+                        profiles.add(GenerationProfile.builder()
+                                .states(range[0], range[range.length - 1])
+                                .faultEvents(faults).multiFaulty(mf).extraNormal(en).build());
+        return profiles;
+    }
+
+    /**
+     * Returns the seed of the given model of the given cell of the batch.
+     *
+     * @param seed  the seed of the batch.
+     * @param cell  the index of the cell.
+     * @param model the number of the model in the cell.
+     * @return the seed of the model.
+     */
+    public static long modelSeed(long seed, int cell, int model) {
+        return SeededRandom.forStream(SeededRandom.forStream(seed, cell).nextLong(), model).nextLong();
+    }
+
+    /**
+     * Generates {@code count} diagnosable models for every given profile, and saves them with the manifest
+     * into the given directory.
+     *
+     * @param profiles  the profiles (cells) of the batch.
+     * @param count     the number of the models of every profile.
+     * @param seed      the seed of the batch.
+     * @param directory the output directory, created if it does not exist.
+     * @return the generated models, in the order of the cells and the model numbers.
+     * @throws UncheckedIOException if a model or the manifest can not be written.
+     * @throws DFAGenerationFailed  if the workers are interrupted or failed.
+     */
+    public List<Model> generate(List<GenerationProfile> profiles, int count, long seed, Path directory) {
+        if (count < 1)
+            throw new IllegalArgumentException("count should be at least 1: " + count);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create the output directory: " + directory, e);
+        }
+        GenerationProfile[] cells = profiles.toArray(new GenerationProfile[0]);
+        Model[] models = new Model[cells.length * count];
+        AtomicInteger next = new AtomicInteger(0);
+        AtomicInteger done = new AtomicInteger(0);
+        List<Callable<Void>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++)
+            tasks.add(worker(cells, count, seed, directory, models, next, done));
+        try {
+            for (Future<Void> f : executor.invokeAll(tasks))
+                f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DFAGenerationFailed("Interrupted while generating models.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new DFAGenerationFailed("Failed to generate models.", e.getCause());
+        }
+        List<Model> result = Collections.unmodifiableList(Arrays.asList(models));
+        writeManifest(directory.resolve(MANIFEST), result);
+        LOGGER.info("{} models of {} profiles generated into {}", models.length, cells.length, directory);
+        return result;
+    }
+
+    // returns a worker constructing the next models until all the models are done, or any worker fails.
+    private Callable<Void> worker(GenerationProfile[] cells, int count, long seed, Path directory,
+                                  Model[] models, AtomicInteger next, AtomicInteger done) {
+        return () -> {
+            DFAConstructor constructor = SimpleDFAConstructor.newInstance();
+            Diagnoser dfaDiagnoser = NeotypeDiagnoser.newInstance(NeotypeDiagnoser.Mode.INT_KEYED);
+            try {
+                int task;
+                while ((task = next.getAndIncrement()) < models.length) {
+                    if (Thread.currentThread().isInterrupted())
+                        throw new InterruptedException("worker is cancelled.");
+                    int cell = task / count;
+                    long modelSeed = modelSeed(seed, cell, task % count);
+                    long start = System.currentTimeMillis();
+                    ConstructedDFA constructed = byConstruction
+                            ? constructor.constructDiagnosable(modelSeed, cells[cell])
+                            : constructor.constructWithDiagnosability(modelSeed, cells[cell]);
+                    CompiledDFA dfa = constructed.compile();
+                    // models constructed with rejection sampling are already verified.
+                    if (byConstruction && !dfaDiagnoser.isDiagnosable(dfa))
+                        throw new DFAGenerationFailed("Constructed model is not diagnosable: " + dfa.getName());
+                    String file = dfa.getName().concat("_config");
+                    CommonUtils.saveDFAConfigs(directory.resolve(file),
+                            constructed.getRoot(), constructed.getDFAConfig());
+                    models[task] = new Model(file, cell, cells[cell], modelSeed, dfa,
+                            System.currentTimeMillis() - start);
+                    LOGGER.info("Model {} generated ({}/{}).", file, done.incrementAndGet(), models.length);
+                }
+            } catch (Exception | Error e) {
+                // stops the other workers taking the remaining models, the batch fails anyway.
+                next.set(models.length);
+                throw e;
+            }
+            return null;
+        };
+    }
+
+    // writes the manifest of the models, replacing the existing one.
+    private static void writeManifest(Path manifest, List<Model> models) {
+        Path temp = manifest.resolveSibling(manifest.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write("#file\tcell\tprofile\tseed\tstates\talphabet\tfaultTypes\tmultiFaulty\textraNormal\tmillis");
+                writer.newLine();
+                for (Model model : models) {
+                    writer.write(model.toManifestLine());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the manifest: " + manifest, e);
+        }
+    }
+
+    /**
+     * Runs a batch from the command line.
+     * <pre>
+     *     --out DIR              output directory (default: constructed-dfa/batch)
+     *     --count N              models of every cell (default: 10)
+     *     --states R[,R...]      states ranges, e.g. 11-20,50-60 or 100 (default: 11-20)
+     *     --faults N[,N...]      fault events, 0 for the randomly chosen one (default: 0)
+     *     --multi-faulty B[,B]   multi-faulty options (default: false)
+     *     --extra-normal B[,B]   extra normal options (default: false)
+     *     --seed S               seed of the batch (default: 0)
+     *     --workers N            number of the workers (default: available processors)
+     *     --rejection            constructs with rejection sampling instead of diagnosable by construction
+     * </pre>
+     *
+     * @param args command-line arguments.
+     */
+    public static void main(String[] args) {
+        Path out = Paths.get("constructed-dfa", "batch");
+        int count = 10;
+        String states = "11-20";
+        String faults = "0";
+        String multiFaulty = "false";
+        String extraNormal = "false";
+        long seed = 0;
+        int workers = Runtime.getRuntime().availableProcessors();
+        boolean byConstruction = true;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("--rejection".equals(arg)) {
+                byConstruction = false;
+                continue;
+            }
+            if (i + 1 >= args.length)
+                throw new IllegalArgumentException("Missing value of the option: " + arg);
+            String value = args[++i];
+            switch (arg) {
+                case "--out":
+                    out = Paths.get(value);
+                    break;
+                case "--count":
+                    count = Integer.parseInt(value);
+                    break;
+                case "--states":
+                    states = value;
+                    break;
+                case "--faults":
+                    faults = value;
+                    break;
+                case "--multi-faulty":
+                    multiFaulty = value;
+                    break;
+                case "--extra-normal":
+                    extraNormal = value;
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--workers":
+                    workers = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        String[] ranges = states.split(",");
+        int[][] stateRanges = new int[ranges.length][];
+        for (int i = 0; i < ranges.length; i++)
+            stateRanges[i] = Arrays.stream(ranges[i].split("-")).mapToInt(Integer::parseInt).toArray();
+        List<GenerationProfile> profiles = grid(stateRanges,
+                Arrays.stream(faults.split(",")).mapToInt(Integer::parseInt).toArray(),
+                parseBooleans(multiFaulty), parseBooleans(extraNormal));
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            long start = System.currentTimeMillis();
+            new BatchModelGenerator(executor, workers, byConstruction).generate(profiles, count, seed, out);
+            System.out.println("\t==> " + profiles.size() * count + " models generated in "
+                    + (System.currentTimeMillis() - start) + " ms, manifest: " + out.resolve(MANIFEST));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean[] parseBooleans(String values) {
+        String[] split = values.split(",");
+        boolean[] result = new boolean[split.length];
+        for (int i = 0; i < split.length; i++)
+            result[i] = Boolean.parseBoolean(split[i]);
+        return result;
+    }
+}
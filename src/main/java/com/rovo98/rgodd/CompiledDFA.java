@@ -0,0 +1,280 @@
+package com.rovo98.rgodd;
+
+import com.rovo98.rgodd.exceptions.SymbolNotFound;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable, array-backed ("compiled") representation of a constructed DFA.
+ * <br />
+ * States and symbols are renumbered into dense int indices, and all the transitions are kept in
+ * one flat {@code int[stateCount * alphabetSize]} table (-1 means no transition), so that
+ * navigating needs neither hash lookups nor autoboxing. see {@link #next(int, int)}.
+ * <br />
+ * <ul>
+ * <li>state index: position of the state in ascending order of the original states.</li>
+ * <li>symbol index: position of the symbol in {@link DFAConfig#getAlphabet()}.</li>
+ * </ul>
+ * Besides the transition table, the defined symbols of every state are also kept in a compact
+ * (CSR) layout, see {@link #outDegree(int)} and {@link #outSymbol(int, int)}.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.02
+ */
+public final class CompiledDFA implements Serializable {
+    private static final long serialVersionUID = 4105437723021651853L;
+
+    private final int stateCount;
+    private final int alphabetSize;
+    private final int rootIndex;
+    private final int[] table;          // next state index of (state, symbol), -1 if not defined.
+    private final int[] stateIds;       // state index -> original state.
+    private final int[] indexOfState;   // original state -> state index (-1 if not a state).
+    private final char[] alphabet;
+    private final int[] faultTypes;     // symbol index -> faulty type (1..n), 0 if observable.
+    private final int[] symbolIndices;  // symbol (char) -> symbol index (-1 if not in alphabet).
+    private final int[] outOffsets;     // CSR offsets of the defined symbols of every state.
+    private final int[] outSymbols;     // CSR values, defined symbol indices of every state.
+
+    // configuration of the constructed dfa.
+    private final int stateSize;
+    private final int faultyStateSize;
+    private final int[] faultyEvents;
+    private final char[] observableEvents;
+    private final char[] unobservableEvents;
+    private final boolean extraNormal;
+    private final boolean multiFaulty;
+    private final String name;          // name of the seeded dfa, null if not seeded.
+
+    /**
+     * Compiles the given constructed dfa.
+     *
+     * @param root      the root node of the constructed dfa.
+     * @param dfaConfig the configuration of the constructed dfa (containing overall nodes in dfa).
+     * @throws SymbolNotFound if a transition with a symbol out of the alphabet is found.
+     */
+    public CompiledDFA(DFANode root, DFAConfig dfaConfig) {
+        Map<Integer, DFANode> statesMap = dfaConfig.statesMap;
+        this.stateCount = statesMap.size();
+        this.alphabet = dfaConfig.alphabet.clone();
+        this.alphabetSize = alphabet.length;
+
+        // renumbering states.
+        this.stateIds = new int[stateCount];
+        int i = 0;
+        int maxState = 0;
+        for (int state : statesMap.keySet()) {
+            stateIds[i++] = state;
+            maxState = Math.max(maxState, state);
+        }
+        Arrays.sort(stateIds);
+        this.indexOfState = new int[maxState + 1];
+        Arrays.fill(indexOfState, -1);
+        for (i = 0; i < stateCount; i++)
+            indexOfState[stateIds[i]] = i;
+
+        // renumbering symbols.
+        char maxSymbol = 0;
+        for (char c : alphabet)
+            maxSymbol = (char) Math.max(maxSymbol, c);
+        this.symbolIndices = new int[maxSymbol + 1];
+        Arrays.fill(symbolIndices, -1);
+        for (i = 0; i < alphabetSize; i++)
+            symbolIndices[alphabet[i]] = i;
+        this.faultTypes = new int[alphabetSize];
+        for (i = 0; i < dfaConfig.unobservableEvents.length; i++)
+            faultTypes[symbolIndices[dfaConfig.unobservableEvents[i]]] = i + 1;
+
+        // filling the transition table.
+        this.table = new int[stateCount * alphabetSize];
+        Arrays.fill(table, -1);
+        int transitionCount = 0;
+        for (i = 0; i < stateCount; i++) {
+            DFANode node = statesMap.get(stateIds[i]);
+            for (Map.Entry<Character, Integer> t : node.transitions.entrySet()) {
+                int symbolIndex = symbolIndexOf(t.getKey());
+                if (symbolIndex < 0)
+                    throw new SymbolNotFound("symbol of specified transition not found in alphabet: " + t.getKey());
+                table[i * alphabetSize + symbolIndex] = indexOfState[t.getValue()];
+                transitionCount++;
+            }
+        }
+        this.outOffsets = new int[stateCount + 1];
+        this.outSymbols = new int[transitionCount];
+        int k = 0;
+        for (i = 0; i < stateCount; i++) {
+            outOffsets[i] = k;
+            for (int s = 0; s < alphabetSize; s++)
+                if (table[i * alphabetSize + s] >= 0)
+                    outSymbols[k++] = s;
+        }
+        outOffsets[stateCount] = k;
+        this.rootIndex = stateIndexOf(root.state);
+
+        this.stateSize = dfaConfig.stateSize;
+        this.faultyStateSize = dfaConfig.faultyStateSize;
+        this.faultyEvents = dfaConfig.faultyEvents.clone();
+        this.observableEvents = dfaConfig.observableEvents.clone();
+        this.unobservableEvents = dfaConfig.unobservableEvents.clone();
+        this.extraNormal = dfaConfig.extraNormal;
+        this.multiFaulty = dfaConfig.multiFaulty;
+        this.name = dfaConfig.name;
+    }
+
+    /**
+     * Returns the constructed (linked) form of the compiled dfa, i.e. the reverse of
+     * {@link #CompiledDFA(DFANode, DFAConfig)}, with new nodes of all the states.
+     * <br />
+     * NOTICE: the seed of a seeded dfa is not kept in the compiled form, so the returned configuration
+     * is not seeded.
+     *
+     * @return the constructed dfa of the compiled dfa.
+     */
+    public ConstructedDFA toConstructedDFA() {
+        DFAConfig dfaConfig = new DFAConfig();
+        dfaConfig.stateSize = stateSize;
+        dfaConfig.faultyStateSize = faultyStateSize;
+        dfaConfig.states = stateIds.clone();
+        dfaConfig.alphabet = alphabet.clone();
+        dfaConfig.faultyEvents = faultyEvents.clone();
+        dfaConfig.observableEvents = observableEvents.clone();
+        dfaConfig.unobservableEvents = unobservableEvents.clone();
+        dfaConfig.extraNormal = extraNormal;
+        dfaConfig.multiFaulty = multiFaulty;
+        for (int i = 0; i < stateCount; i++) {
+            DFANode node = new DFANode(stateIds[i]);
+            for (int k = outOffsets[i]; k < outOffsets[i + 1]; k++)
+                node.addTransition(alphabet[outSymbols[k]], stateIds[table[i * alphabetSize + outSymbols[k]]]);
+            dfaConfig.statesMap.put(stateIds[i], node);
+        }
+        return new ConstructedDFA(dfaConfig.statesMap.get(stateIds[rootIndex]), dfaConfig);
+    }
+
+    /**
+     * Returns the next state index of the transition labeled with the given symbol.
+     *
+     * @param state       the index of the current state.
+     * @param symbolIndex the index of the symbol.
+     * @return the index of the next state, or -1 if the transition is not defined.
+     */
+    public int next(int state, int symbolIndex) {
+        return table[state * alphabetSize + symbolIndex];
+    }
+
+    /**
+     * Returns the number of the transitions defined on the given state.
+     *
+     * @param state the index of the state.
+     * @return the number of the transitions defined on the given state.
+     */
+    public int outDegree(int state) {
+        return outOffsets[state + 1] - outOffsets[state];
+    }
+
+    /**
+     * Returns the symbol index of the i-th transition defined on the given state.
+     * <br />
+     * Transitions of one state are ordered by ascending symbol index.
+     *
+     * @param state the index of the state.
+     * @param i     the position of the transition, in range [0, outDegree(state)).
+     * @return the symbol index of the i-th transition defined on the given state.
+     */
+    public int outSymbol(int state, int i) {
+        return outSymbols[outOffsets[state] + i];
+    }
+
+    /**
+     * Returns the index of the given original state.
+     *
+     * @param state the original state.
+     * @return the index of the given state, or -1 if it is not a state of this dfa.
+     */
+    public int stateIndexOf(int state) {
+        return state >= 0 && state < indexOfState.length ? indexOfState[state] : -1;
+    }
+
+    /**
+     * Returns the index of the given symbol.
+     *
+     * @param symbol the symbol (event label).
+     * @return the index of the given symbol, or -1 if it is not in the alphabet.
+     */
+    public int symbolIndexOf(char symbol) {
+        return symbol < symbolIndices.length ? symbolIndices[symbol] : -1;
+    }
+
+    /**
+     * Returns the faulty type of the given symbol.
+     *
+     * @param symbolIndex the index of the symbol.
+     * @return faulty type (1 ~ number of faulty events) if the symbol is faulty; otherwise 0.
+     */
+    public int faultTypeOf(int symbolIndex) {
+        return faultTypes[symbolIndex];
+    }
+
+    // getters.
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    public int getAlphabetSize() {
+        return alphabetSize;
+    }
+
+    public int getRootIndex() {
+        return rootIndex;
+    }
+
+    public int getFaultTypeCount() {
+        return unobservableEvents.length;
+    }
+
+    public int stateIdOf(int stateIndex) {
+        return stateIds[stateIndex];
+    }
+
+    public char symbolOf(int symbolIndex) {
+        return alphabet[symbolIndex];
+    }
+
+    public int getStateSize() {
+        return stateSize;
+    }
+
+    public int getFaultyStateSize() {
+        return faultyStateSize;
+    }
+
+    public char[] getAlphabet() {
+        return alphabet.clone();
+    }
+
+    public int[] getFaultyEvents() {
+        return faultyEvents.clone();
+    }
+
+    public char[] getObservableEvents() {
+        return observableEvents.clone();
+    }
+
+    public char[] getUnobservableEvents() {
+        return unobservableEvents.clone();
+    }
+
+    public boolean isExtraNormal() {
+        return extraNormal;
+    }
+
+    public boolean isMultiFaulty() {
+        return multiFaulty;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
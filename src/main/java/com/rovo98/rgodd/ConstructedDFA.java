@@ -0,0 +1,41 @@
+package com.rovo98.rgodd;
+
+/**
+ * A constructed DFA, bundling the root node with the configuration it is constructed with.
+ * <br />
+ * Unlike {@link DFAConstructor#getDFAConfig()}, which returns the configuration written by the last
+ * construction of the constructor, the configuration here always belongs to the root node.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.07
+ */
+public final class ConstructedDFA {
+    private final DFANode root;
+    private final DFAConfig dfaConfig;
+
+    public ConstructedDFA(DFANode root, DFAConfig dfaConfig) {
+        if (root == null || dfaConfig == null)
+            throw new IllegalArgumentException("root and dfaConfig must not be null.");
+        this.root = root;
+        this.dfaConfig = dfaConfig;
+    }
+
+    /**
+     * Returns the compiled representation of the constructed DFA.
+     *
+     * @return a new {@link CompiledDFA} of the constructed DFA.
+     */
+    public CompiledDFA compile() {
+        return new CompiledDFA(root, dfaConfig);
+    }
+
+    // getters.
+    public DFANode getRoot() {
+        return root;
+    }
+
+    public DFAConfig getDFAConfig() {
+        return dfaConfig;
+    }
+}
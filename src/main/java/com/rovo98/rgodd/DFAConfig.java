@@ -34,6 +34,10 @@ public class DFAConfig implements Serializable {
     // Flag to show whether the constructed dfa is multi-faulty or not.
     boolean multiFaulty = false;
 
+    // Name of the dfa derived from the seed it is constructed with. (null if it is not seeded)
+    String name;
+    long seed;
+
     // getters and setters.
     public int getStateSize() {
         return stateSize;
@@ -122,4 +126,29 @@ public class DFAConfig implements Serializable {
     public void setMultiFaulty(boolean multiFaulty) {
         this.multiFaulty = multiFaulty;
     }
+
+    /**
+     * Returns the name of the dfa derived from its seed.
+     *
+     * @return the name of the seeded dfa, or null if the dfa is not constructed with a seed.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public boolean isSeeded() {
+        return name != null;
+    }
 }
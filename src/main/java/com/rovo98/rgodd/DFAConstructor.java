@@ -101,8 +101,142 @@ public interface DFAConstructor {
     DFANode constructRandomDFAExtraNormalWithDiagnosability(int minXNum, int maxXNum,
                                                             boolean multiFaulty, boolean saveConfig);
 
+    /**
+     * Returns a constructed random DFA bundled with its configuration.
+     *
+     * @param minXNum     the minimum number of the states in DFA (without extra component).
+     * @param maxXNum     the maximum number of the states in DFA (without extra component).
+     * @param extraNormal control to whether to add extra normal component or not.
+     * @param multiFaulty control to whether to apply multiply faulty mode or not.
+     * @return A constructed random DFA with its configuration.
+     */
+    ConstructedDFA construct(int minXNum, int maxXNum, boolean extraNormal, boolean multiFaulty);
+
+    /**
+     * Returns a constructed random DFA with diagnosability bundled with its configuration.
+     *
+     * @param minXNum     the minimum number of the states in DFA (without extra component).
+     * @param maxXNum     the maximum number of the states in DFA (without extra component).
+     * @param extraNormal control to whether to add extra normal component or not.
+     * @param multiFaulty control to whether to apply multiply faulty mode or not.
+     * @return A constructed random DFA with diagnosability and its configuration.
+     */
+    ConstructedDFA constructWithDiagnosability(int minXNum, int maxXNum, boolean extraNormal, boolean multiFaulty);
+
+    /**
+     * Seeded version of the {@link #construct(int, int, boolean, boolean)} method, the same seed and options
+     * always give the same DFA. The DFA is named after the seed, see {@link DFAConfig#getName()}.
+     *
+     * @param seed        the seed of the construction.
+     * @param minXNum     the minimum number of the states in DFA (without extra component).
+     * @param maxXNum     the maximum number of the states in DFA (without extra component).
+     * @param extraNormal control to whether to add extra normal component or not.
+     * @param multiFaulty control to whether to apply multiply faulty mode or not.
+     * @return A constructed random DFA with its configuration.
+     */
+    ConstructedDFA construct(long seed, int minXNum, int maxXNum, boolean extraNormal, boolean multiFaulty);
+
+    /**
+     * Seeded version of the {@link #constructWithDiagnosability(int, int, boolean, boolean)} method, the same
+     * seed and options always give the same DFA. The DFA is named after the seed, see {@link DFAConfig#getName()}.
+     *
+     * @param seed        the seed of the construction.
+     * @param minXNum     the minimum number of the states in DFA (without extra component).
+     * @param maxXNum     the maximum number of the states in DFA (without extra component).
+     * @param extraNormal control to whether to add extra normal component or not.
+     * @param multiFaulty control to whether to apply multiply faulty mode or not.
+     * @return A constructed random DFA with diagnosability and its configuration.
+     */
+    ConstructedDFA constructWithDiagnosability(long seed, int minXNum, int maxXNum,
+                                               boolean extraNormal, boolean multiFaulty);
+
+    /**
+     * Seeded version of the {@link #constructWithDiagnosability(int, int, boolean, boolean)} method, and
+     * the constructed DFA can be cached: the DFA saved with the same seed and options is loaded instead
+     * of constructing it again, otherwise the constructed one is saved.
+     *
+     * @param seed        the seed of the construction.
+     * @param minXNum     the minimum number of the states in DFA (without extra component).
+     * @param maxXNum     the maximum number of the states in DFA (without extra component).
+     * @param extraNormal control to whether to add extra normal component or not.
+     * @param multiFaulty control to whether to apply multiply faulty mode or not.
+     * @param cached      control to whether to load (or save) the DFA of the seed or not.
+     * @return A constructed random DFA with diagnosability and its configuration.
+     */
+    ConstructedDFA constructWithDiagnosability(long seed, int minXNum, int maxXNum,
+                                               boolean extraNormal, boolean multiFaulty, boolean cached);
+
+    /**
+     * Returns a constructed random DFA which is diagnosable by construction, bundled with its configuration.
+     * <br />
+     * Unlike {@link #constructWithDiagnosability(long, int, int, boolean, boolean)}, which constructs random
+     * DFAs until a diagnosable one is found, the diagnosability is checked every time a faulty or
+     * inter-component transition is added while constructing, and a transition breaking the diagnosability
+     * is undone and chosen again, so usually the first constructed DFA is diagnosable.
+     * <br />
+     * NOTICE: the checks are not incremental, every check compiles the whole DFA being constructed and
+     * tests it from scratch, so the cost is about the number of the checked transitions (a few for every
+     * faulty component, more in multi-faulty mode) times the size of the DFA. e.g. with the default options,
+     * a DFA of 10,000 states takes about 1.5s (3s multi-faulty), and 50,000 states about 3.7s (15s
+     * multi-faulty), 10 ~ 45 times the construction without the checks.
+     * <br />
+     * The same seed and options always give the same DFA (but not the same one of the
+     * {@code constructWithDiagnosability} method).
+     * @param seed        the seed of the construction.
+     * @param minXNum     the minimum number of the states in DFA (without extra component).
+     * @param maxXNum     the maximum number of the states in DFA (without extra component).
+     * @param extraNormal control to whether to add extra normal component or not.
+     * @param multiFaulty control to whether to apply multiply faulty mode or not.
+     * @return A constructed random DFA with diagnosability and its configuration.
+     */
+    ConstructedDFA constructDiagnosable(long seed, int minXNum, int maxXNum,
+                                        boolean extraNormal, boolean multiFaulty);
+
+    /**
+     * Seeded construction of a random DFA of the given profile, the same seed and profile always give the
+     * same DFA. The options not set in the profile are chosen randomly the same as
+     * {@link #construct(long, int, int, boolean, boolean)}.
+     *
+     * @param seed    the seed of the construction.
+     * @param profile the profile of the constructed DFA.
+     * @return A constructed random DFA with its configuration.
+     */
+    ConstructedDFA construct(long seed, GenerationProfile profile);
+
+    /**
+     * Profile version of the {@link #constructWithDiagnosability(long, int, int, boolean, boolean)} method.
+     *
+     * @param seed    the seed of the construction.
+     * @param profile the profile of the constructed DFA.
+     * @return A constructed random DFA with diagnosability and its configuration.
+     */
+    ConstructedDFA constructWithDiagnosability(long seed, GenerationProfile profile);
+
+    /**
+     * Profile version of the {@link #constructWithDiagnosability(long, int, int, boolean, boolean, boolean)}
+     * method.
+     *
+     * @param seed    the seed of the construction.
+     * @param profile the profile of the constructed DFA.
+     * @param cached  control to whether to load (or save) the DFA of the seed or not.
+     * @return A constructed random DFA with diagnosability and its configuration.
+     */
+    ConstructedDFA constructWithDiagnosability(long seed, GenerationProfile profile, boolean cached);
+
+    /**
+     * Profile version of the {@link #constructDiagnosable(long, int, int, boolean, boolean)} method.
+     *
+     * @param seed    the seed of the construction.
+     * @param profile the profile of the constructed DFA.
+     * @return A constructed random DFA with diagnosability and its configuration.
+     */
+    ConstructedDFA constructDiagnosable(long seed, GenerationProfile profile);
+
     /**
      * Returns the configuration of the DFA constructor.
+     * <br />
+     * NOTICE: this is the configuration of the last constructed DFA, use {@link #construct} to get
+     * the DFA together with its own configuration.
      *
      * @return configuration of current DFA constructor, an object of  {@code Config}.
      */
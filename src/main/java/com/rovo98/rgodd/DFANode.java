@@ -39,6 +39,16 @@ public class DFANode implements Serializable {
         this.transitions.put(symbol, nextState);
     }
 
+    /**
+     * Removes the transition labeled with the given symbol from current node.
+     *
+     * @param symbol the label of the transition.
+     * @return the next state of the removed transition, or null if no such transition.
+     */
+    public Integer removeTransition(char symbol) {
+        return this.transitions.remove(symbol);
+    }
+
     /**
      * Navigates to the next state according the given {@code symbol}
      *
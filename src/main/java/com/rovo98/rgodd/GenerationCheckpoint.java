@@ -0,0 +1,126 @@
+package com.rovo98.rgodd;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Checkpoint of a checkpointed running logs generation, see
+ * {@link RunningLogsGenerator#generateCheckpointed(int, CompiledDFA, long, Path, int)}.
+ * <br />
+ * A checkpoint keeps everything needed to resume the generation exactly where it stopped: the fingerprint
+ * of the dfa and the options of the generation (to reject resuming a different generation), the state
+ * of the random generator, the length of the synced body, and the state of the {@link StreamingLogsWriter}.
+ * <br />
+ * Checkpoint files are written to a temporary file first and then moved, so an interrupted checkpointing
+ * keeps the previous checkpoint.
+ * <br />
+ * <br />
+ * Checkpoint file layout: "RCKP" magic (int), version (int), dfa fingerprint (long), minSteps (int),
+ * maxSteps (int), random generator state (long), body length (long), and then the state of the writer.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.14
+ */
+final class GenerationCheckpoint {
+    private static final int MAGIC = 0x52434b50;   // "RCKP"
+    private static final int VERSION = 1;
+
+    final long dfaFingerprint;
+    final int minSteps;
+    final int maxSteps;
+    final long randomState;
+    final StreamingLogsWriter writer;   // resumed from the checkpoint.
+
+    private GenerationCheckpoint(long dfaFingerprint, int minSteps, int maxSteps, long randomState,
+                                 StreamingLogsWriter writer) {
+        this.dfaFingerprint = dfaFingerprint;
+        this.minSteps = minSteps;
+        this.maxSteps = maxSteps;
+        this.randomState = randomState;
+        this.writer = writer;
+    }
+
+    /**
+     * Syncs the body of the given writer, and saves the checkpoint to the given file.
+     *
+     * @param file           the checkpoint file.
+     * @param dfaFingerprint the fingerprint of the dfa, see {@link #fingerprint(CompiledDFA)}.
+     * @param minSteps       the minimum steps of the walks.
+     * @param maxSteps       the maximum steps of the walks.
+     * @param randomState    the state of the random generator.
+     * @param writer         the writer of the generated logs.
+     * @throws IOException if the checkpoint can not be saved.
+     */
+    static void save(Path file, long dfaFingerprint, int minSteps, int maxSteps, long randomState,
+                     StreamingLogsWriter writer) throws IOException {
+        long bodyLength = writer.sync();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(dfaFingerprint);
+            out.writeInt(minSteps);
+            out.writeInt(maxSteps);
+            out.writeLong(randomState);
+            out.writeLong(bodyLength);
+            writer.writeState(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads the checkpoint from the given file, and resumes the writer of the given body from it.
+     *
+     * @param file     the checkpoint file.
+     * @param bodyPath the body of the checkpointed writer.
+     * @return the loaded checkpoint.
+     * @throws IOException if the checkpoint can not be loaded.
+     */
+    static GenerationCheckpoint load(Path file, Path bodyPath) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC)
+                throw new IOException("Not a checkpoint file: " + file);
+            int version = in.readInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported checkpoint version: " + version);
+            long dfaFingerprint = in.readLong();
+            int minSteps = in.readInt();
+            int maxSteps = in.readInt();
+            long randomState = in.readLong();
+            long bodyLength = in.readLong();
+            return new GenerationCheckpoint(dfaFingerprint, minSteps, maxSteps, randomState,
+                    StreamingLogsWriter.resume(bodyPath, bodyLength, in));
+        }
+    }
+
+    /**
+     * Returns the 64-bit fingerprint of the given dfa, covering its alphabet, faulty events, root and
+     * transitions.
+     *
+     * @param dfa the compiled dfa.
+     * @return the fingerprint of the dfa.
+     */
+    static long fingerprint(CompiledDFA dfa) {
+        long h = 0xcbf29ce484222325L;
+        h = mix(h, dfa.getStateCount());
+        h = mix(h, dfa.getRootIndex());
+        h = mix(h, dfa.isMultiFaulty() ? 1 : 0);
+        for (int s = 0; s < dfa.getAlphabetSize(); s++)
+            h = mix(mix(h, dfa.symbolOf(s)), dfa.faultTypeOf(s));
+        for (int state = 0; state < dfa.getStateCount(); state++)
+            for (int s = 0; s < dfa.getAlphabetSize(); s++)
+                h = mix(h, dfa.next(state, s));
+        return h;
+    }
+
+    // FNV-1a step of an int value.
+    private static long mix(long h, int value) {
+        h ^= value;
+        return h * 0x100000001b3L;
+    }
+}
@@ -0,0 +1,364 @@
+package com.rovo98.rgodd;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Profile of the random DFA construction, controlling the shape of the constructed DFA.
+ * <br />
+ * Every option of the profile is either fixed, or left unset (the default) to be chosen randomly by the
+ * constructor the same as {@link DFAConstructor#construct(long, int, int, boolean, boolean)}:
+ * <ul>
+ *     <li>states: the number of the states (without extra normal component), exact or in a range.</li>
+ *     <li>faulty states: the number of the faulty states, {@code max(states / 10, 4)} by default.</li>
+ *     <li>alphabet size: the number of all the events, [6, 16] or [10, 20] by default. Alphabets larger
+ *     than 26 symbols are supported, see {@link #symbolOf(int)}.</li>
+ *     <li>fault events: the number of the unobservable (faulty) events, 2 ~ 6 by default, at most
+ *     {@value #MAX_MULTI_FAULTY_FAULT_EVENTS} for multi-faulty profiles.</li>
+ *     <li>out-degree: the number of the extra random transitions added to every visited state when
+ *     constructing the components, [1, 3] by default.</li>
+ *     <li>component sizing: the sizes of the faulty components (equally divided by default), and the
+ *     size of the extra normal component ({@code states / 2} by default).</li>
+ * </ul>
+ * A profile with all the options unset constructs the same DFA as the {@code construct} method of the
+ * same seed and states range.
+ * <br />
+ * Profiles are immutable, use {@link #builder()} to create one. e.g.
+ * <pre>
+ *     GenerationProfile profile = GenerationProfile.builder()
+ *             .states(1000).alphabetSize(40).faultEvents(3).multiFaulty(true).build();
+ * </pre>
+ * NOTICE: the binary running logs (see {@link RunningLogsGenerator#saveBinary}) support at most 256
+ * observable symbols, the logs of the dfas with larger alphabets should be saved in the text formats.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.17
+ */
+public final class GenerationProfile implements Serializable {
+    private static final long serialVersionUID = 4619278437620932175L;
+
+    /** Maximum alphabet size of the profiles. */
+    public static final int MAX_ALPHABET_SIZE = 1024;
+    /** Maximum number of the fault events (faulty types) of the profiles. */
+    public static final int MAX_FAULT_EVENTS = 31;
+    /**
+     * Maximum number of the fault events of the multi-faulty profiles, the logs of a multi-faulty dfa are
+     * labeled by the sets of the failure types ({@code 2^faultEvents} labels), and its nd-observer grows
+     * with the reachable sets. e.g. the int-keyed diagnoser tests a multi-faulty dfa of 1000 states and 8
+     * fault events in less than a second, but 200 states and 10 fault events exceed 1 GB heap.
+     */
+    public static final int MAX_MULTI_FAULTY_FAULT_EVENTS = 8;
+
+    // number of the symbols of the latin letters ('a' ~ 'z', 'A' ~ 'Z' except 'T').
+    private static final int LETTER_SYMBOLS = 51;
+    // the first symbol following the latin letters (latin extended-A).
+    private static final char EXTENDED_SYMBOL_START = '\u0100';
+
+    private final int minStates;
+    private final int maxStates;
+    private final int faultyStates;         // 0 if unset.
+    private final int alphabetSize;         // 0 if unset.
+    private final int faultEvents;          // 0 if unset.
+    private final int minOutDegree;
+    private final int maxOutDegree;
+    private final int[] faultyComponentSizes; // null if unset.
+    private final int extraNormalStates;    // 0 if unset.
+    private final boolean extraNormal;
+    private final boolean multiFaulty;
+
+    private GenerationProfile(Builder builder) {
+        this.minStates = builder.minStates;
+        this.maxStates = builder.maxStates;
+        this.faultyStates = builder.faultyStates;
+        this.alphabetSize = builder.alphabetSize;
+        this.faultEvents = builder.faultEvents;
+        this.minOutDegree = builder.minOutDegree;
+        this.maxOutDegree = builder.maxOutDegree;
+        this.faultyComponentSizes = builder.faultyComponentSizes;
+        this.extraNormalStates = builder.extraNormalStates;
+        this.extraNormal = builder.extraNormal;
+        this.multiFaulty = builder.multiFaulty;
+    }
+
+    /**
+     * Returns a new builder of the profile.
+     *
+     * @return a new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the symbol of the given symbol id.
+     * <br />
+     * Symbol ids 0 ~ 25 are 'a' ~ 'z', 26 ~ 50 are 'A' ~ 'Z' except 'T' (the label separator of the
+     * running logs), and the following ones are the characters starting from U+0100.
+     *
+     * @param id the symbol id, in range [0, MAX_ALPHABET_SIZE).
+     * @return the symbol of the id.
+     * @throws IllegalArgumentException if the id is out of range.
+     */
+    public static char symbolOf(int id) {
+        if (id < 0 || id >= MAX_ALPHABET_SIZE)
+            throw new IllegalArgumentException("Invalid symbol id: " + id);
+        if (id < 26)
+            return (char) ('a' + id);
+        if (id < LETTER_SYMBOLS) {
+            char c = (char) ('A' + id - 26);
+            return c < 'T' ? c : (char) (c + 1);
+        }
+        return (char) (EXTENDED_SYMBOL_START + id - LETTER_SYMBOLS);
+    }
+
+    /**
+     * Returns the space of the symbols which the alphabet of the given size is chosen from.
+     * <br />
+     * The space is the 26 lowercase letters for alphabets not larger than 26 symbols (the same as
+     * {@link DFAConfig#getAlphabetSpace()}), otherwise the symbols of the ids [0, alphabetSize).
+     *
+     * @param alphabetSize the alphabet size.
+     * @return the symbols space.
+     */
+    static String symbolSpace(int alphabetSize) {
+        int size = Math.max(alphabetSize, 26);
+        char[] space = new char[size];
+        for (int i = 0; i < size; i++)
+            space[i] = symbolOf(i);
+        return new String(space);
+    }
+
+    /**
+     * Returns the name of the profile, only the options which are set are included.
+     * e.g. {@code x11-20_en0_mf0}, or {@code x1000-1000_a40_e3_en0_mf1}.
+     *
+     * @return the name of the profile.
+     */
+    public String getName() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('x').append(minStates).append('-').append(maxStates);
+        if (faultyStates > 0)
+            sb.append("_f").append(faultyStates);
+        if (alphabetSize > 0)
+            sb.append("_a").append(alphabetSize);
+        if (faultEvents > 0)
+            sb.append("_e").append(faultEvents);
+        if (minOutDegree != Builder.DEFAULT_MIN_OUT_DEGREE || maxOutDegree != Builder.DEFAULT_MAX_OUT_DEGREE)
+            sb.append("_o").append(minOutDegree).append('-').append(maxOutDegree);
+        if (faultyComponentSizes != null) {
+            sb.append("_c");
+            for (int i = 0; i < faultyComponentSizes.length; i++)
+                sb.append(i == 0 ? "" : "-").append(faultyComponentSizes[i]);
+        }
+        if (extraNormalStates > 0)
+            sb.append("_n").append(extraNormalStates);
+        sb.append("_en").append(extraNormal ? 1 : 0).append("_mf").append(multiFaulty ? 1 : 0);
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    // getters.
+    public int getMinStates() {
+        return minStates;
+    }
+
+    public int getMaxStates() {
+        return maxStates;
+    }
+
+    public int getFaultyStates() {
+        return faultyStates;
+    }
+
+    public int getAlphabetSize() {
+        return alphabetSize;
+    }
+
+    public int getFaultEvents() {
+        return faultEvents;
+    }
+
+    public int getMinOutDegree() {
+        return minOutDegree;
+    }
+
+    public int getMaxOutDegree() {
+        return maxOutDegree;
+    }
+
+    public int[] getFaultyComponentSizes() {
+        return faultyComponentSizes == null ? null : faultyComponentSizes.clone();
+    }
+
+    public int getExtraNormalStates() {
+        return extraNormalStates;
+    }
+
+    public boolean isExtraNormal() {
+        return extraNormal;
+    }
+
+    public boolean isMultiFaulty() {
+        return multiFaulty;
+    }
+
+    /**
+     * Builder of the {@link GenerationProfile}.
+     */
+    public static final class Builder {
+        static final int DEFAULT_MIN_OUT_DEGREE = 1;
+        static final int DEFAULT_MAX_OUT_DEGREE = 3;
+
+        private int minStates;
+        private int maxStates;
+        private int faultyStates;
+        private int alphabetSize;
+        private int faultEvents;
+        private int minOutDegree = DEFAULT_MIN_OUT_DEGREE;
+        private int maxOutDegree = DEFAULT_MAX_OUT_DEGREE;
+        private int[] faultyComponentSizes;
+        private int extraNormalStates;
+        private boolean extraNormal;
+        private boolean multiFaulty;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the exact number of the states (without extra normal component).
+         *
+         * @param states the number of the states.
+         * @return this builder.
+         */
+        public Builder states(int states) {
+            return states(states, states);
+        }
+
+        /**
+         * Sets the range of the number of the states (without extra normal component).
+         *
+         * @param minStates the minimum number of the states.
+         * @param maxStates the maximum number of the states.
+         * @return this builder.
+         */
+        public Builder states(int minStates, int maxStates) {
+            this.minStates = minStates;
+            this.maxStates = maxStates;
+            return this;
+        }
+
+        public Builder faultyStates(int faultyStates) {
+            this.faultyStates = faultyStates;
+            return this;
+        }
+
+        public Builder alphabetSize(int alphabetSize) {
+            this.alphabetSize = alphabetSize;
+            return this;
+        }
+
+        public Builder faultEvents(int faultEvents) {
+            this.faultEvents = faultEvents;
+            return this;
+        }
+
+        /**
+         * Sets the range of the number of the extra random transitions added to every visited state when
+         * constructing the components, i.e. the out-degree of the states is about 1 more than it.
+         *
+         * @param minOutDegree the minimum number of the extra transitions.
+         * @param maxOutDegree the maximum number of the extra transitions.
+         * @return this builder.
+         */
+        public Builder outDegree(int minOutDegree, int maxOutDegree) {
+            this.minOutDegree = minOutDegree;
+            this.maxOutDegree = maxOutDegree;
+            return this;
+        }
+
+        /**
+         * Sets the sizes of the faulty components, one component for every fault event, which also fixes
+         * the number of the faulty states (the sum of the sizes) and the fault events (the number of the
+         * sizes).
+         *
+         * @param sizes the sizes of the faulty components.
+         * @return this builder.
+         */
+        public Builder faultyComponentSizes(int... sizes) {
+            this.faultyComponentSizes = sizes == null ? null : sizes.clone();
+            return this;
+        }
+
+        public Builder extraNormalStates(int extraNormalStates) {
+            this.extraNormalStates = extraNormalStates;
+            return this;
+        }
+
+        public Builder extraNormal(boolean extraNormal) {
+            this.extraNormal = extraNormal;
+            return this;
+        }
+
+        public Builder multiFaulty(boolean multiFaulty) {
+            this.multiFaulty = multiFaulty;
+            return this;
+        }
+
+        /**
+         * Builds the profile.
+         *
+         * @return the profile.
+         * @throws IllegalArgumentException if the options can not give a valid DFA.
+         */
+        public GenerationProfile build() {
+            if (minStates < 3 || minStates > maxStates)
+                throw new IllegalArgumentException("Invalid states range: [" + minStates + ", " + maxStates + "]");
+            if (faultyComponentSizes != null) {
+                int sum = 0;
+                for (int size : faultyComponentSizes) {
+                    if (size < 2)
+                        throw new IllegalArgumentException("Every faulty component needs at least 2 states: "
+                                + Arrays.toString(faultyComponentSizes));
+                    sum += size;
+                }
+                if (faultyStates > 0 && faultyStates != sum)
+                    throw new IllegalArgumentException("Faulty states do not match the faulty component sizes.");
+                if (faultEvents > 0 && faultEvents != faultyComponentSizes.length)
+                    throw new IllegalArgumentException("Fault events do not match the faulty component sizes.");
+                faultyStates = sum;
+                faultEvents = faultyComponentSizes.length;
+            }
+            if (faultEvents < 0 || faultEvents > MAX_FAULT_EVENTS)
+                throw new IllegalArgumentException("Invalid fault events: " + faultEvents);
+            if (multiFaulty && faultEvents > MAX_MULTI_FAULTY_FAULT_EVENTS)
+                throw new IllegalArgumentException("Multi-faulty profiles support at most "
+                        + MAX_MULTI_FAULTY_FAULT_EVENTS + " fault events: " + faultEvents);
+            // the faulty states of the smallest dfa of the profile, see SimpleDFAConstructor.
+            int minFaultyStates = faultyStates > 0 ? faultyStates
+                    : Math.max(Math.max(minStates / 10, 4), 2 * faultEvents);
+            if (faultyStates < 0 || minFaultyStates > minStates - 2)
+                throw new IllegalArgumentException("Invalid faulty states: " + minFaultyStates
+                        + ", at least 2 normal states are needed.");
+            if (minFaultyStates < 2 * Math.max(faultEvents, 1))
+                throw new IllegalArgumentException("Every faulty component needs at least 2 states, faulty states: "
+                        + minFaultyStates + ", fault events: " + faultEvents);
+            if (alphabetSize < 0 || alphabetSize > MAX_ALPHABET_SIZE)
+                throw new IllegalArgumentException("Invalid alphabet size: " + alphabetSize);
+            // at least 1 fault event and 2 observable events are needed.
+            if (alphabetSize > 0 && alphabetSize - Math.max(faultEvents, 1) < 2)
+                throw new IllegalArgumentException("Alphabet size " + alphabetSize
+                        + " is too small, at least 2 observable events are needed.");
+            if (minOutDegree < 0 || minOutDegree > maxOutDegree)
+                throw new IllegalArgumentException("Invalid out-degree range: [" + minOutDegree + ", "
+                        + maxOutDegree + "]");
+            if (extraNormalStates < 0 || extraNormalStates == 1)
+                throw new IllegalArgumentException("Invalid extra normal states: " + extraNormalStates);
+            return new GenerationProfile(this);
+        }
+    }
+}
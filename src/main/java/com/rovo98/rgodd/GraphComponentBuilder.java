@@ -0,0 +1,230 @@
+package com.rovo98.rgodd;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builder of the random directed graph components of the DFA being constructed by
+ * {@link SimpleDFAConstructor}.
+ * <br />
+ * A component is built by a random walk visiting all of its states, see {@link #build(int[], int, int, int)}.
+ * The builder makes the same random choices as the original list-based implementation (the same seed
+ * always gives the same DFA), but every step takes at most O(log n + alphabet size) time:
+ * <ul>
+ *     <li>unvisited states are kept in a Fenwick tree over their positions, so the k-th unvisited state
+ *     is selected and removed in O(log n), instead of removing it from a list in O(n).</li>
+ *     <li>attached symbols of a node are collected into a bitset mask of the observable events, instead of
+ *     streaming over the alphabet.</li>
+ *     <li>the visited flags and symbol buffers are scratch arrays reused by all the components.</li>
+ * </ul>
+ * NOTICE: one builder is bound to the configuration of one DFA being constructed.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.16
+ */
+final class GraphComponentBuilder {
+    private final DFAConfig dfaConfig;
+    private final Random random;
+    private final Map<Integer, DFANode> statesMap;
+    // range of the number of the extra random transitions added to every visited state.
+    private final int minOutDegree;
+    private final int maxOutDegree;
+
+    // observable events, and the index of every observable event (-1 for other symbols).
+    private final char[] observableEvents;
+    private final int[] observableIndexOf;
+    // scratch: attached observable events of a node, and candidate symbols.
+    private final long[] attached;
+    private final char[] symbols;
+
+    // scratch: visited flags, and the fenwick tree (1-based) of the unvisited positions.
+    private boolean[] visited = new boolean[0];
+    private int[] tree = new int[1];
+    private int treeSize;
+    private int[] positionOf = new int[0];
+
+    GraphComponentBuilder(DFAConfig dfaConfig, Random random, int minOutDegree, int maxOutDegree) {
+        this.dfaConfig = dfaConfig;
+        this.random = random;
+        this.statesMap = dfaConfig.statesMap;
+        this.minOutDegree = minOutDegree;
+        this.maxOutDegree = maxOutDegree;
+        this.observableEvents = dfaConfig.observableEvents.clone();
+        char maxSymbol = 0;
+        for (char c : dfaConfig.alphabet)
+            maxSymbol = (char) Math.max(maxSymbol, c);
+        this.observableIndexOf = new int[maxSymbol + 1];
+        Arrays.fill(observableIndexOf, -1);
+        for (int i = 0; i < observableEvents.length; i++)
+            observableIndexOf[observableEvents[i]] = i;
+        this.attached = new long[(observableEvents.length + 63) >>> 6];
+        this.symbols = new char[dfaConfig.alphabet.length];
+    }
+
+    /**
+     * Constructing a direct graph component over {@code states} with range of
+     * {@code start} to {@code end}.
+     *
+     * @param states      the given states to constructs dfa graph component.
+     * @param start       starting index of the range
+     * @param end         ending index of the range.
+     * @param mapKeyStart the start index bias of the key in dfaConfig.statesMap.
+     * @return Constructed direct graph dfa component.
+     */
+    DFANode build(int[] states, int start, int end, int mapKeyStart) {
+        int size = end - start;
+        int steps = 0;
+        if (visited.length < states.length)
+            visited = new boolean[states.length];
+        Arrays.fill(visited, start, end, false);
+        int rootState = states[start] + mapKeyStart;
+        DFANode root = new DFANode(rootState);
+        statesMap.put(rootState, root);
+
+        visited[start] = true;
+        steps++;
+        // tracking unvisited states, states[start + 1 + position].
+        int unvisited = size - 1;
+        initUnvisited(states, start + 1, end);
+
+        DFANode pNode = root;
+        while (steps < size) {
+            // randomly choose another state from unvisited states set.
+            int nextState = states[start + 1 + select(random.nextInt(unvisited))];
+            // add new state to Config.statesMap.
+            int tempNextState = nextState + mapKeyStart;
+            if (!statesMap.containsKey(tempNextState))
+                statesMap.put(tempNextState, new DFANode(tempNextState));
+            addRandomTransition(pNode, tempNextState);
+            // for every node, attaching it with 2 ~ 4 nodes (by default).
+            // including itself. adding more nodes.
+            int connections = random.nextInt(maxOutDegree - minOutDegree + 1) + minOutDegree;
+            for (int i = 0; i < connections; i++) {
+                // randomly choose one state (can be visited, btw, itself is adapted)
+                int ns = random.nextInt(size) + start;
+                int tnState = states[ns] + mapKeyStart;
+                if (!statesMap.containsKey(tnState))
+                    statesMap.put(tnState, new DFANode(tnState));
+                addRandomTransition(pNode, tnState);
+            }
+            // navigating to one unvisited node.
+            int count = unvisitedTransitionSymbols(pNode, mapKeyStart);
+            pNode = pNode.navigate(symbols[random.nextInt(count)], dfaConfig);
+            // mark new income state as visited.
+            int state = pNode.state - mapKeyStart;
+            if (!visited[state]) {
+                visited[state] = true;
+                if (state < positionOf.length && positionOf[state] >= 0) {
+                    remove(positionOf[state]);
+                    unvisited--;
+                }
+                steps++;
+            }
+            // for last visited node. add 1~2 more transitions.
+            if (steps == size) {
+                int c = random.nextInt(2) + 1;
+                for (int i = 0; i < c; i++) {
+                    int ns = random.nextInt(size) + start;
+                    addRandomTransition(pNode, states[ns] + mapKeyStart);
+                }
+            }
+        }
+        // reset the positions of the states for the next component.
+        for (int i = start + 1; i < end; i++)
+            positionOf[states[i]] = -1;
+        return root;
+    }
+
+    /**
+     * Randomly add transition for the given dfa node, choosing a symbol from the observable events
+     * not attached to the node yet.
+     *
+     * @param curr      the dfa node.
+     * @param nextState the next state of the transition.
+     * @return the symbol of the added transition, or 0 if all the symbols are attached already.
+     */
+    char addRandomTransition(DFANode curr, int nextState) {
+        Arrays.fill(attached, 0L);
+        int attachedCount = 0;
+        for (char c : curr.transitions.keySet()) {
+            int i = c < observableIndexOf.length ? observableIndexOf[c] : -1;
+            if (i >= 0) {
+                attached[i >>> 6] |= 1L << i;
+                attachedCount++;
+            }
+        }
+        int unattachedCount = observableEvents.length - attachedCount;
+        // if all symbols are attached to current node, skipping it.
+        if (unattachedCount == 0)
+            return 0;
+
+        // the chosen one of the unattached symbols, in the order of the observable events.
+        int chosen = random.nextInt(unattachedCount);
+        for (int i = 0; ; i++) {
+            if ((attached[i >>> 6] & 1L << i) != 0)
+                continue;
+            if (chosen-- == 0) {
+                curr.addTransition(observableEvents[i], nextState);
+                return observableEvents[i];
+            }
+        }
+    }
+
+    // collects the symbols (non leading to current node or visited nodes) into the symbols buffer,
+    // in the iteration order of the transitions. returns the number of the symbols.
+    private int unvisitedTransitionSymbols(DFANode curr, int mapKeyStart) {
+        int count = 0;
+        for (Map.Entry<Character, Integer> t : curr.transitions.entrySet()) {
+            int next = t.getValue();
+            if (next != curr.state && !visited[next - mapKeyStart])
+                symbols[count++] = t.getKey();
+        }
+        return count;
+    }
+
+    // marks all the states in range [from, to) unvisited, at positions 0, 1, ...
+    private void initUnvisited(int[] states, int from, int to) {
+        int n = to - from;
+        int maxState = 0;
+        for (int i = from; i < to; i++)
+            maxState = Math.max(maxState, states[i]);
+        if (positionOf.length <= maxState) {
+            positionOf = new int[maxState + 1];
+            Arrays.fill(positionOf, -1);
+        }
+        for (int i = from; i < to; i++)
+            positionOf[states[i]] = i - from;
+        if (tree.length < n + 1)
+            tree = new int[n + 1];
+        // linear construction of the fenwick tree with all the counts 1.
+        for (int i = 1; i <= n; i++)
+            tree[i] = 1;
+        for (int i = 1; i <= n; i++) {
+            int parent = i + (i & -i);
+            if (parent <= n)
+                tree[parent] += tree[i];
+        }
+        treeSize = n;
+    }
+
+    // returns the position of the k-th (0-based) unvisited state.
+    private int select(int k) {
+        int pos = 0;
+        for (int step = Integer.highestOneBit(Math.max(treeSize, 1)); step > 0; step >>>= 1) {
+            int next = pos + step;
+            if (next <= treeSize && tree[next] <= k) {
+                pos = next;
+                k -= tree[next];
+            }
+        }
+        return pos;
+    }
+
+    // marks the state of the given position visited.
+    private void remove(int position) {
+        for (int i = position + 1; i <= treeSize; i += i & -i)
+            tree[i]--;
+    }
+}
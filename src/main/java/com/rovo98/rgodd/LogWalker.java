@@ -0,0 +1,290 @@
+package com.rovo98.rgodd;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Random walk engine generating the running logs of a compiled dfa.
+ * <br />
+ * Every walk starts from the root, and takes a uniformly chosen defined transition each step (or a transition
+ * sampled from the given {@link TransitionWeights}). Observable
+ * symbols are written to a reusable buffer directly, and the occurred faulty events are tracked as a
+ * bitmask (bit i for the faulty event of type i + 1), so no objects are allocated per walk.
+ * <br />
+ * The label of a walk is computed from the bitmask:
+ * <ul>
+ *     <li>single faulty mode: 0 for normal logs, otherwise the lowest occurred faulty type.</li>
+ *     <li>multi-faulty mode: sum of {@code 2^(n-i)} of every occurred faulty type i (n faulty types).</li>
+ * </ul>
+ * <br />
+ * Walks can also be steered towards a given label, see {@link #walkTowards(int, int, Random)}.
+ * <br />
+ * NOTICE: instances of this class are not thread-safe, every generating thread should use its own walker.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.12
+ */
+final class LogWalker {
+    private final CompiledDFA dfa;
+    private final TransitionWeights weights;    // null for uniform walks.
+    private final int[] faultBits;      // symbol index -> bit of the faulty type, 0 if observable.
+    private final char[] buffer;
+    private int length;
+
+    // for steered walks: predecessors (CSR) of every state, distances of every faulty set (lazily computed),
+    // and scratch arrays of the candidate transitions.
+    private int[] predecessorOffsets;
+    private int[] predecessors;
+    private int[] predecessorSymbols;
+    private final Map<Integer, int[][]> distances = new HashMap<>();
+    private final int[] allowed;
+    private final int[] progressing;
+
+    /**
+     * Creates a walker of the given dfa.
+     *
+     * @param dfa      the compiled dfa.
+     * @param maxSteps the maximum steps of a walk.
+     */
+    LogWalker(CompiledDFA dfa, int maxSteps) {
+        this(dfa, maxSteps, null);
+    }
+
+    /**
+     * Creates a walker of the given dfa, taking the transitions with the given weights.
+     *
+     * @param dfa      the compiled dfa.
+     * @param maxSteps the maximum steps of a walk.
+     * @param weights  the transition weights of the dfa, or null for uniform walks.
+     */
+    LogWalker(CompiledDFA dfa, int maxSteps, TransitionWeights weights) {
+        if (weights != null && weights.getDfa() != dfa)
+            throw new IllegalArgumentException("The transition weights are not of the given dfa.");
+        this.dfa = dfa;
+        this.weights = weights;
+        this.faultBits = new int[dfa.getAlphabetSize()];
+        for (int s = 0; s < faultBits.length; s++) {
+            int type = dfa.faultTypeOf(s);
+            faultBits[s] = type == 0 ? 0 : 1 << (type - 1);
+        }
+        this.buffer = new char[maxSteps];
+        this.allowed = new int[dfa.getAlphabetSize()];
+        this.progressing = new int[dfa.getAlphabetSize()];
+    }
+
+    /**
+     * Walks the dfa from the root for the given steps (or until a state without transitions is reached).
+     * The observation of the walk is kept in {@link #buffer()} until the next walk.
+     *
+     * @param steps the steps of the walk.
+     * @param r     the random generator choosing the transitions.
+     * @return the label of the walk.
+     */
+    int walk(int steps, Random r) {
+        int state = dfa.getRootIndex();
+        int faults = 0;
+        length = 0;
+        while (steps > 0) {
+            int degree = dfa.outDegree(state);
+            // if no transitions for current state. stop traversing.
+            if (degree == 0)
+                break;
+            int i = weights == null ? r.nextInt(degree) : weights.sample(state, r);
+            int symbolIndex = dfa.outSymbol(state, i);
+            state = dfa.next(state, symbolIndex);
+            if (faultBits[symbolIndex] == 0)
+                buffer[length++] = dfa.symbolOf(symbolIndex);
+            else
+                faults |= faultBits[symbolIndex];
+            steps--;
+        }
+        return labelOf(faults);
+    }
+
+    /**
+     * Walks the dfa from the root for the given steps, steering the walk towards the given label.
+     * <br />
+     * The faulty transitions not of the label are never taken. While some faulty events of the label have
+     * not occurred yet, a transition getting closer to them is taken with probability 1/2, or certainly
+     * if the rest steps are not enough otherwise; the other transitions are chosen uniformly (the transition
+     * weights are not used by steered walks).
+     * The returned label may still differ from the given one, e.g. the walk ends at a state without
+     * transitions.
+     *
+     * @param steps the steps of the walk.
+     * @param label the label to be steered towards.
+     * @param r     the random generator choosing the transitions.
+     * @return the label of the walk.
+     */
+    int walkTowards(int steps, int label, Random r) {
+        int target = faultsOf(label);
+        int[][] distance = distancesOf(target);
+        int state = dfa.getRootIndex();
+        int faults = 0;
+        length = 0;
+        while (steps > 0) {
+            int missing = target & ~faults;
+            int need = distanceOf(distance, missing, state);
+            int allowedCount = 0;
+            int progressingCount = 0;
+            int degree = dfa.outDegree(state);
+            for (int i = 0; i < degree; i++) {
+                int symbolIndex = dfa.outSymbol(state, i);
+                int bit = faultBits[symbolIndex];
+                if ((bit & ~target) != 0)
+                    continue;
+                allowed[allowedCount++] = symbolIndex;
+                if ((bit & missing) != 0
+                        || distanceOf(distance, missing, dfa.next(state, symbolIndex)) < need)
+                    progressing[progressingCount++] = symbolIndex;
+            }
+            if (allowedCount == 0)
+                break;
+            int symbolIndex;
+            if (progressingCount > 0 && (steps <= need || r.nextBoolean()))
+                symbolIndex = progressing[r.nextInt(progressingCount)];
+            else
+                symbolIndex = allowed[r.nextInt(allowedCount)];
+            state = dfa.next(state, symbolIndex);
+            if (faultBits[symbolIndex] == 0)
+                buffer[length++] = dfa.symbolOf(symbolIndex);
+            else
+                faults |= faultBits[symbolIndex];
+            steps--;
+        }
+        return labelOf(faults);
+    }
+
+    /**
+     * Returns true if every faulty event of the given label can occur within the given steps from the root,
+     * without the faulty events not of the label.
+     * <br />
+     * NOTICE: for the labels of several faulty events, it is a necessary condition only, they may not all
+     * occur in one walk.
+     *
+     * @param label    the label.
+     * @param maxSteps the maximum steps of a walk.
+     * @return true if the faulty events of the label are reachable.
+     */
+    boolean isReachable(int label, int maxSteps) {
+        int target = faultsOf(label);
+        int[][] distance = distancesOf(target);
+        for (int f = 0; f < distance.length; f++)
+            if ((target & 1 << f) != 0 && distance[f][dfa.getRootIndex()] > maxSteps)
+                return false;
+        return true;
+    }
+
+    /**
+     * Returns the buffer containing the observation of the last walk, in {@code [0, length())}.
+     *
+     * @return the observation buffer.
+     */
+    char[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Returns the length of the observation of the last walk.
+     *
+     * @return the length of the observation.
+     */
+    int length() {
+        return length;
+    }
+
+    // returns the occurred faulty types of the given label.
+    private int faultsOf(int label) {
+        if (label == 0)
+            return 0;
+        if (!dfa.isMultiFaulty())
+            return 1 << (label - 1);
+        return Integer.reverse(label) >>> (Integer.SIZE - dfa.getFaultTypeCount());
+    }
+
+    // returns the minimum distance to an occurrence of the given missing faulty types.
+    private static int distanceOf(int[][] distance, int missing, int state) {
+        int min = Integer.MAX_VALUE;
+        for (int f = 0; missing != 0; f++, missing >>>= 1)
+            if ((missing & 1) != 0)
+                min = Math.min(min, distance[f][state]);
+        return min;
+    }
+
+    // returns the distances (number of the steps until the faulty event occurs) of every faulty type,
+    // taking only observable transitions and the faulty transitions of the given faulty types.
+    private int[][] distancesOf(int target) {
+        int[][] distance = distances.get(target);
+        if (distance != null)
+            return distance;
+        if (predecessors == null)
+            computePredecessors();
+        int stateCount = dfa.getStateCount();
+        distance = new int[dfa.getFaultTypeCount()][];
+        int[] queue = new int[stateCount];
+        for (int f = 0; f < distance.length; f++) {
+            int[] d = distance[f] = new int[stateCount];
+            Arrays.fill(d, Integer.MAX_VALUE);
+            if ((target & 1 << f) == 0)
+                continue;
+            // backward bfs from the states with a transition of the faulty type.
+            int head = 0;
+            int tail = 0;
+            for (int state = 0; state < stateCount; state++) {
+                for (int i = 0; i < dfa.outDegree(state); i++) {
+                    if (faultBits[dfa.outSymbol(state, i)] == 1 << f) {
+                        d[state] = 1;
+                        queue[tail++] = state;
+                        break;
+                    }
+                }
+            }
+            while (head < tail) {
+                int state = queue[head++];
+                for (int i = predecessorOffsets[state]; i < predecessorOffsets[state + 1]; i++) {
+                    int predecessor = predecessors[i];
+                    if ((faultBits[predecessorSymbols[i]] & ~target) != 0 || d[predecessor] != Integer.MAX_VALUE)
+                        continue;
+                    d[predecessor] = d[state] + 1;
+                    queue[tail++] = predecessor;
+                }
+            }
+        }
+        distances.put(target, distance);
+        return distance;
+    }
+
+    private void computePredecessors() {
+        int stateCount = dfa.getStateCount();
+        predecessorOffsets = new int[stateCount + 1];
+        for (int state = 0; state < stateCount; state++)
+            for (int i = 0; i < dfa.outDegree(state); i++)
+                predecessorOffsets[dfa.next(state, dfa.outSymbol(state, i)) + 1]++;
+        for (int state = 0; state < stateCount; state++)
+            predecessorOffsets[state + 1] += predecessorOffsets[state];
+        predecessors = new int[predecessorOffsets[stateCount]];
+        predecessorSymbols = new int[predecessors.length];
+        int[] next = Arrays.copyOf(predecessorOffsets, stateCount);
+        for (int state = 0; state < stateCount; state++) {
+            for (int i = 0; i < dfa.outDegree(state); i++) {
+                int symbolIndex = dfa.outSymbol(state, i);
+                int k = next[dfa.next(state, symbolIndex)]++;
+                predecessors[k] = state;
+                predecessorSymbols[k] = symbolIndex;
+            }
+        }
+    }
+
+    // returns the label of the given occurred faulty types.
+    private int labelOf(int faults) {
+        if (faults == 0)
+            return 0;
+        if (!dfa.isMultiFaulty())
+            return Integer.numberOfTrailingZeros(faults) + 1;
+        // the flag of faulty type 1 is the highest bit.
+        return Integer.reverse(faults) >>> (Integer.SIZE - dfa.getFaultTypeCount());
+    }
+}
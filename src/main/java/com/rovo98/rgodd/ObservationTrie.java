@@ -0,0 +1,291 @@
+package com.rovo98.rgodd;
+
+import java.util.Arrays;
+
+/**
+ * Conflict tracking of the generated running logs, keyed by their observations in an array-based trie.
+ * <br />
+ * Every node of the trie is an observation (the path of symbols from the root), the children of a node are
+ * kept as a first-child / next-sibling list, and all the node fields are kept in parallel primitive arrays,
+ * so the shared prefixes of the observations are stored only once, and no objects are allocated per log.
+ * <br />
+ * Logs are added the same as {@link RunningLogsGenerator#generate(int, CompiledDFA, boolean)}: a log whose
+ * observation is already added with the same label is ignored, and a log with a different label removes
+ * the added observation (it can be added again later).
+ * <br />
+ * Besides, every node keeps the set of all the labels its observation is ever added with, so the
+ * observations which are ambiguous for a faulty type (added with labels both containing and not containing
+ * the faulty type) can be queried directly, see {@link #isAmbiguous(char[], int, int)} and
+ * {@link #forEachAmbiguous(int, LogVisitor)}.
+ * <br />
+ * NOTICE: at most 64 labels are supported, i.e. 63 faulty types in single faulty mode, and 6 faulty types
+ * in multi-faulty mode.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.15
+ */
+public final class ObservationTrie {
+    private static final int NONE = -1;
+    private static final int ROOT = 0;
+
+    /**
+     * Visitor of the observations of the trie.
+     */
+    @FunctionalInterface
+    public interface LogVisitor {
+        /**
+         * Visits an observation.
+         *
+         * @param observation the buffer containing the observation, only valid during the call.
+         * @param length      the length of the observation.
+         * @param label       the label of the observation, or -1 if the observation is removed.
+         */
+        void visit(char[] observation, int length, int label);
+    }
+
+    private final int faultTypeCount;
+    private final boolean multiFaulty;
+    // labelsOf[f - 1]: the set of the labels containing the faulty type f.
+    private final long[] labelsOf;
+    private final int[] statistics;
+
+    private int[] firstChild;
+    private int[] nextSibling;
+    private char[] symbols;
+    private int[] labels;       // current label of the node, NONE if not added (or removed).
+    private long[] labelSets;   // all the labels the node is ever added with.
+    private int nodeCount;
+    private int maxDepth;
+    private int size;
+
+    /**
+     * Creates an empty trie of the logs with the given faulty types.
+     *
+     * @param faultTypeCount the number of the faulty types.
+     * @param multiFaulty    whether the logs are labeled in multi-faulty mode.
+     * @throws IllegalArgumentException if more than 64 labels are needed.
+     */
+    public ObservationTrie(int faultTypeCount, boolean multiFaulty) {
+        int labelCount = multiFaulty ? 1 << Math.min(faultTypeCount, 31) : faultTypeCount + 1;
+        if (faultTypeCount < 0 || labelCount > Long.SIZE)
+            throw new IllegalArgumentException("At most 64 labels are supported, faulty types: " + faultTypeCount);
+        this.faultTypeCount = faultTypeCount;
+        this.multiFaulty = multiFaulty;
+        this.statistics = new int[labelCount];
+        this.labelsOf = new long[faultTypeCount];
+        for (int f = 1; f <= faultTypeCount; f++)
+            for (int label = 1; label < labelCount; label++)
+                if (multiFaulty ? (label & 1 << (faultTypeCount - f)) != 0 : label == f)
+                    labelsOf[f - 1] |= 1L << label;
+
+        int capacity = 1024;
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        symbols = new char[capacity];
+        labels = new int[capacity];
+        labelSets = new long[capacity];
+        newNode(ROOT, '\0');
+    }
+
+    /**
+     * Adds the given log, conflicted logs are handled the same as the in-memory generation.
+     *
+     * @param observation the buffer containing the observation of the log.
+     * @param length      the length of the observation.
+     * @param label       the label of the log.
+     * @return true if the log is added; otherwise false.
+     * @throws IllegalArgumentException if the label is invalid.
+     */
+    public boolean add(char[] observation, int length, int label) {
+        if (label < 0 || label >= statistics.length)
+            throw new IllegalArgumentException("Invalid label: " + label);
+        int node = ROOT;
+        for (int i = 0; i < length; i++) {
+            char symbol = observation[i];
+            int child = firstChild[node];
+            while (child != NONE && symbols[child] != symbol)
+                child = nextSibling[child];
+            if (child == NONE) {
+                child = newNode(node, symbol);
+                maxDepth = Math.max(maxDepth, i + 1);
+            }
+            node = child;
+        }
+        labelSets[node] |= 1L << label;
+        int current = labels[node];
+        if (current == NONE) {
+            labels[node] = label;
+            statistics[label]++;
+            size++;
+            return true;
+        }
+        if (current != label) {
+            // remove the conflicted logs.
+            labels[node] = NONE;
+            statistics[current]--;
+            size--;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the label of the given observation.
+     *
+     * @param observation the buffer containing the observation.
+     * @param length      the length of the observation.
+     * @return the label of the observation, or -1 if the observation is not added (or removed).
+     */
+    public int labelOf(char[] observation, int length) {
+        int node = find(observation, length);
+        return node == NONE ? NONE : labels[node];
+    }
+
+    /**
+     * Returns true if the given observation is ambiguous for the given faulty type, i.e. it is added with
+     * both labels containing and not containing the faulty type.
+     *
+     * @param observation the buffer containing the observation.
+     * @param length      the length of the observation.
+     * @param faultType   the faulty type, in range [1, faultTypeCount].
+     * @return true if the observation is ambiguous for the faulty type.
+     */
+    public boolean isAmbiguous(char[] observation, int length, int faultType) {
+        long faulty = labelsOf(faultType);
+        int node = find(observation, length);
+        return node != NONE && isAmbiguous(labelSets[node], faulty);
+    }
+
+    /**
+     * Visits all the observations ambiguous for the given faulty type, in depth-first order.
+     *
+     * @param faultType the faulty type, in range [1, faultTypeCount].
+     * @param visitor   the visitor of the ambiguous observations.
+     */
+    public void forEachAmbiguous(int faultType, LogVisitor visitor) {
+        long faulty = labelsOf(faultType);
+        traverse(visitor, faulty);
+    }
+
+    /**
+     * Visits all the added (not removed) logs, in depth-first order.
+     *
+     * @param visitor the visitor of the logs.
+     */
+    public void forEach(LogVisitor visitor) {
+        traverse(visitor, 0);
+    }
+
+    /**
+     * Returns the number of the added logs (conflicted logs are removed).
+     *
+     * @return the number of the added logs.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of the nodes of the trie, including the root.
+     *
+     * @return the number of the nodes.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the number of the added logs of every label.
+     *
+     * @return the statistics of the added logs.
+     */
+    public int[] getStatistics() {
+        return statistics.clone();
+    }
+
+    public int getFaultTypeCount() {
+        return faultTypeCount;
+    }
+
+    public boolean isMultiFaulty() {
+        return multiFaulty;
+    }
+
+    private long labelsOf(int faultType) {
+        if (faultType < 1 || faultType > faultTypeCount)
+            throw new IllegalArgumentException("Invalid faulty type: " + faultType);
+        return labelsOf[faultType - 1];
+    }
+
+    private static boolean isAmbiguous(long labelSet, long faulty) {
+        return (labelSet & faulty) != 0 && (labelSet & ~faulty) != 0;
+    }
+
+    // returns the node of the given observation, or NONE if not existed.
+    private int find(char[] observation, int length) {
+        int node = ROOT;
+        for (int i = 0; i < length && node != NONE; i++) {
+            int child = firstChild[node];
+            while (child != NONE && symbols[child] != observation[i])
+                child = nextSibling[child];
+            node = child;
+        }
+        return node;
+    }
+
+    // iterative depth-first traversal, visiting the added logs if faulty is 0, or the ambiguous
+    // observations otherwise.
+    private void traverse(LogVisitor visitor, long faulty) {
+        char[] buffer = new char[maxDepth];
+        int[] stack = new int[maxDepth + 1];    // stack[d]: the current node of depth d.
+        if (matches(ROOT, faulty))
+            visitor.visit(buffer, 0, labels[ROOT]);
+        int depth = 1;
+        int node = firstChild[ROOT];
+        while (depth > 0) {
+            if (node == NONE) {
+                // no more siblings, back to the next sibling of the parent.
+                if (--depth > 0)
+                    node = nextSibling[stack[depth]];
+                continue;
+            }
+            stack[depth] = node;
+            buffer[depth - 1] = symbols[node];
+            if (matches(node, faulty))
+                visitor.visit(buffer, depth, labels[node]);
+            if (firstChild[node] != NONE) {
+                node = firstChild[node];
+                depth++;
+            } else {
+                node = nextSibling[node];
+            }
+        }
+    }
+
+    private boolean matches(int node, long faulty) {
+        return faulty == 0 ? labels[node] != NONE : isAmbiguous(labelSets[node], faulty);
+    }
+
+    private int newNode(int parent, char symbol) {
+        if (nodeCount == symbols.length) {
+            int capacity = symbols.length << 1;
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            symbols = Arrays.copyOf(symbols, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+            labelSets = Arrays.copyOf(labelSets, capacity);
+        }
+        int node = nodeCount++;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        symbols[node] = symbol;
+        labels[node] = NONE;
+        labelSets[node] = 0;
+        if (node != ROOT) {
+            // prepended to the children of the parent.
+            nextSibling[node] = firstChild[parent];
+            firstChild[parent] = node;
+        }
+        return node;
+    }
+}
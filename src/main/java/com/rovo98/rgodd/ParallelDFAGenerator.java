@@ -0,0 +1,272 @@
+package com.rovo98.rgodd;
+
+import com.rovo98.rgodd.diagnosability.Diagnoser;
+import com.rovo98.rgodd.diagnosability.NeotypeDiagnoser;
+import com.rovo98.rgodd.exceptions.DFAGenerationFailed;
+import com.rovo98.rgodd.utils.CommonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parallel version of {@link DFAConstructor#constructRandomDFAWithDiagnosability(int, int, boolean)}.
+ * <br />
+ * Random dfas are constructed and dropped until a diagnosable one is found. Since most of the constructed
+ * dfas (especially with multi-faulty mode) are not diagnosable, several workers are run on the given executor,
+ * every one of them runs the construct-and-check loop independently. The first found diagnosable dfa is
+ * returned, and the remaining workers are cancelled.
+ * <br />
+ * <br />
+ * Every worker uses its own {@link SimpleDFAConstructor} and {@link NeotypeDiagnoser} instance, so no state is
+ * shared between the workers.
+ * <br />
+ * <br />
+ * With a seed given, the attempts are numbered, and every attempt gets its own random generator derived
+ * from the seed (see {@link com.rovo98.rgodd.utils.SeededRandom#forStream(long, long)}). The diagnosable dfa
+ * of the lowest attempt number is returned, which is the same dfa as
+ * {@link DFAConstructor#constructWithDiagnosability(long, int, int, boolean, boolean)} gives, no matter
+ * how many workers are used.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.07
+ */
+public class ParallelDFAGenerator {
+    private final Logger LOGGER = LoggerFactory.getLogger(ParallelDFAGenerator.class);
+
+    private final ExecutorService executor;
+    private final int workers;
+    private final NeotypeDiagnoser.Mode mode;
+
+    /**
+     * Creates a generator running the given number of workers on the given executor, the diagnosability
+     * of the constructed dfas is tested with {@link NeotypeDiagnoser.Mode#LAZY} mode, which rejects the
+     * non-diagnosable dfas early.
+     *
+     * @param executor the executor to run the workers.
+     * @param workers  the number of the workers.
+     */
+    public ParallelDFAGenerator(ExecutorService executor, int workers) {
+        this(executor, workers, NeotypeDiagnoser.Mode.LAZY);
+    }
+
+    /**
+     * Creates a generator running the given number of workers on the given executor.
+     *
+     * @param executor the executor to run the workers.
+     * @param workers  the number of the workers.
+     * @param mode     the mode of the diagnosers used by the workers.
+     */
+    public ParallelDFAGenerator(ExecutorService executor, int workers, NeotypeDiagnoser.Mode mode) {
+        if (executor == null || mode == null)
+            throw new IllegalArgumentException("executor and mode must not be null.");
+        if (workers < 1)
+            throw new IllegalArgumentException("workers should be at least 1: " + workers);
+        this.executor = executor;
+        this.workers = workers;
+        this.mode = mode;
+    }
+
+    /**
+     * Returns a constructed random DFA with diagnosability.
+     *
+     * @param minXNum     the minimum number of the states in DFA.
+     * @param maxXNum     the maximum number of the states in DFA.
+     * @param multiFaulty control to whether to apply multiply faulty mode or not.
+     * @return A constructed random DFA with diagnosability and its configuration.
+     */
+    public ConstructedDFA constructRandomDFAWithDiagnosability(int minXNum, int maxXNum, boolean multiFaulty) {
+        return generate(minXNum, maxXNum, false, multiFaulty, false);
+    }
+
+    /**
+     * Returns a constructed random DFA with diagnosability, and also saves its configurations
+     * to specified file.
+     *
+     * @param minXNum     the minimum number of the states in DFA.
+     * @param maxXNum     the maximum number of the states in DFA.
+     * @param multiFaulty control to whether to apply multiply faulty mode or not.
+     * @param saveConfig  control to whether to save the configurations or not.
+     * @return A constructed random DFA with diagnosability and its configuration.
+     */
+    public ConstructedDFA constructRandomDFAWithDiagnosability(int minXNum, int maxXNum,
+                                                               boolean multiFaulty, boolean saveConfig) {
+        return generate(minXNum, maxXNum, false, multiFaulty, saveConfig);
+    }
+
+    /**
+     * Modification of the {@code constructRandomDFAWithDiagnosability} method, which adds an extra
+     * normal component for the faulty components.
+     *
+     * @param minXNum     the minimum number of the states in DFA (without the extra normal component).
+     * @param maxXNum     the maximum number of the states in DFA (without the extra normal component).
+     * @param multiFaulty control to whether to apply multiply faulty mode or not.
+     * @return A constructed random DFA with diagnosability and its configuration.
+     */
+    public ConstructedDFA constructRandomDFAExtraNormalWithDiagnosability(int minXNum, int maxXNum,
+                                                                          boolean multiFaulty) {
+        return generate(minXNum, maxXNum, true, multiFaulty, false);
+    }
+
+    /**
+     * Modification of the {@code constructRandomDFAWithDiagnosability} method, which adds an extra
+     * normal component for the faulty components.
+     *
+     * @param minXNum     the minimum number of the states in DFA (without the extra normal component).
+     * @param maxXNum     the maximum number of the states in DFA (without the extra normal component).
+     * @param multiFaulty control to whether to apply multiply faulty mode or not.
+     * @param saveConfig  control to whether to save the configurations of the constructed dfa or not.
+     * @return A constructed random DFA with diagnosability and its configuration.
+     */
+    public ConstructedDFA constructRandomDFAExtraNormalWithDiagnosability(int minXNum, int maxXNum,
+                                                                          boolean multiFaulty,
+                                                                          boolean saveConfig) {
+        return generate(minXNum, maxXNum, true, multiFaulty, saveConfig);
+    }
+
+    /**
+     * Returns a constructed random DFA with diagnosability of the given seed.
+     *
+     * @param seed        the seed of the construction.
+     * @param minXNum     the minimum number of the states in DFA (without extra component).
+     * @param maxXNum     the maximum number of the states in DFA (without extra component).
+     * @param extraNormal control to whether to add extra normal component or not.
+     * @param multiFaulty control to whether to apply multiply faulty mode or not.
+     * @return A constructed random DFA with diagnosability and its configuration.
+     */
+    public ConstructedDFA constructWithDiagnosability(long seed, int minXNum, int maxXNum,
+                                                      boolean extraNormal, boolean multiFaulty) {
+        AtomicLong nextAttempt = new AtomicLong(0);
+        // the lowest diagnosable attempt found so far.
+        AtomicLong best = new AtomicLong(Long.MAX_VALUE);
+        AtomicReference<ConstructedDFA> result = new AtomicReference<>();
+        List<Callable<Void>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++)
+            tasks.add(seededWorker(i, seed, minXNum, maxXNum, extraNormal, multiFaulty,
+                    nextAttempt, best, result));
+        try {
+            // all the workers are waited, attempts lower than the found one may still be running.
+            for (Future<Void> f : executor.invokeAll(tasks))
+                f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DFAGenerationFailed("Interrupted while generating dfa.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new DFAGenerationFailed("Failed to generate dfa.", e.getCause());
+        }
+        LOGGER.info("\t==> No of the diagnosable generated dfa : {}", best.get() + 1);
+        return result.get();
+    }
+
+    // runs the workers, and returns the first found diagnosable dfa.
+    private ConstructedDFA generate(int minXNum, int maxXNum, boolean extraNormal,
+                                    boolean multiFaulty, boolean saveConfig) {
+        AtomicBoolean found = new AtomicBoolean(false);
+        AtomicInteger attempts = new AtomicInteger(0);
+        List<Callable<ConstructedDFA>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++)
+            tasks.add(worker(i, minXNum, maxXNum, extraNormal, multiFaulty, found, attempts));
+
+        ConstructedDFA result;
+        try {
+            // the remaining workers are cancelled once one of them returns.
+            result = executor.invokeAny(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DFAGenerationFailed("Interrupted while generating dfa.", e);
+        } catch (ExecutionException e) {
+            // all the workers failed, e.g. invalid arguments are given.
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new DFAGenerationFailed("Failed to generate dfa.", e.getCause());
+        } finally {
+            // stops the workers which do not respond to the cancellation yet.
+            found.set(true);
+        }
+        LOGGER.info("\t==> No of the diagnosable generated dfa : {}", attempts.get());
+        if (saveConfig) {
+            DFAConfig dfaConfig = result.getDFAConfig();
+            CommonUtils.saveDFAConfigs(CommonUtils.generateDefaultDFAName(dfaConfig).concat("_config"),
+                    result.getRoot(), dfaConfig);
+        }
+        return result;
+    }
+
+    // returns a worker constructing random dfas until a diagnosable one is found (by any worker).
+    private Callable<ConstructedDFA> worker(int id, int minXNum, int maxXNum, boolean extraNormal,
+                                            boolean multiFaulty, AtomicBoolean found, AtomicInteger attempts) {
+        return () -> {
+            DFAConstructor constructor = SimpleDFAConstructor.newInstance();
+            Diagnoser dfaDiagnoser = NeotypeDiagnoser.newInstance(mode);
+            while (!found.get()) {
+                if (Thread.currentThread().isInterrupted())
+                    throw new InterruptedException("worker " + id + " is cancelled.");
+                DFANode constructed = extraNormal
+                        ? constructor.constructRandomDFAExtraNormal(minXNum, maxXNum, multiFaulty)
+                        : constructor.constructRandomDFA(minXNum, maxXNum, multiFaulty);
+                int count = attempts.incrementAndGet();
+                DFAConfig dfaConfig = constructor.getDFAConfig();
+                if (dfaDiagnoser.isDiagnosable(new CompiledDFA(constructed, dfaConfig))) {
+                    found.set(true);
+                    LOGGER.info("Worker {} found a diagnosable dfa, No of the generated dfa: {}", id, count);
+                    return new ConstructedDFA(constructed, dfaConfig);
+                }
+                LOGGER.debug("Worker {}: constructed DFA does have diagnosability! dropped.", id);
+            }
+            throw new CancellationException("worker " + id + " is stopped, diagnosable dfa is found.");
+        };
+    }
+
+    // returns a worker running the numbered attempts of the given seed, until an attempt lower than the
+    // next attempt is found diagnosable.
+    private Callable<Void> seededWorker(int id, long seed, int minXNum, int maxXNum, boolean extraNormal,
+                                        boolean multiFaulty, AtomicLong nextAttempt, AtomicLong best,
+                                        AtomicReference<ConstructedDFA> result) {
+        return () -> {
+            SimpleDFAConstructor constructor = (SimpleDFAConstructor) SimpleDFAConstructor.newInstance();
+            Diagnoser dfaDiagnoser = NeotypeDiagnoser.newInstance(mode);
+            long attempt;
+            while ((attempt = nextAttempt.getAndIncrement()) < best.get()) {
+                if (Thread.currentThread().isInterrupted())
+                    throw new InterruptedException("worker " + id + " is cancelled.");
+                ConstructedDFA constructed = constructor.constructAttempt(seed, attempt,
+                        minXNum, maxXNum, extraNormal, multiFaulty);
+                if (!dfaDiagnoser.isDiagnosable(constructed.compile()))
+                    continue;
+                LOGGER.info("Worker {} found a diagnosable dfa, attempt: {}", id, attempt);
+                synchronized (result) {
+                    if (attempt < best.get()) {
+                        best.set(attempt);
+                        result.set(constructed);
+                    }
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Driver the program to test the method above.
+     *
+     * @param args command-line arguments.
+     */
+    public static void main(String[] args) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            ParallelDFAGenerator generator = new ParallelDFAGenerator(executor, workers);
+            generator.constructRandomDFAExtraNormalWithDiagnosability(80, 100, true, true);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,20 +1,23 @@
 package com.rovo98.rgodd;
 
+import com.rovo98.rgodd.exceptions.LogsGenerationFailed;
+import com.rovo98.rgodd.io.BinaryLogsReader;
+import com.rovo98.rgodd.io.BinaryLogsWriter;
+import com.rovo98.rgodd.io.ChunkedLogsWriter;
 import com.rovo98.rgodd.utils.CommonUtils;
+import com.rovo98.rgodd.utils.SeededRandom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Properties;
-import java.util.Random;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Utils for generating running logs using the given DFA.
@@ -28,6 +31,7 @@ import java.util.Random;
      * <li>minSteps: default 10</li>
      * <li>maxSteps: default 100</li>
      * <li>verbose : default false.</li>
+     * <li>transition weights: default null (uniform walks), see {@link #setTransitionWeights(TransitionWeights)}.</li>
  * </ul>
  *
  * @author rovo98
@@ -38,10 +42,19 @@ public class RunningLogsGenerator {
 
     private final Logger LOGGER = LoggerFactory.getLogger(RunningLogsGenerator.class);
 
+    /** Maximum consecutive attempts generating no new log of a label in the label-balanced generation. */
+    public static final int MAX_FAILED_ATTEMPTS = 100_000;
+
     private Map<String, String> runningLogs;
 
     private int[] statistics;
 
+    // label strings of the logs, labels[i] is the string of label i.
+    private String[] labels;
+
+    // observable events of the dfa of the generated logs.
+    private char[] observableEvents;
+
     //Whether to show every generated logs as debug infos in console.
     private final boolean showGeneratedLogs;
 
@@ -51,6 +64,9 @@ public class RunningLogsGenerator {
     /** Determine the maximum length of the log to be generated */
     private final int maxSteps;
 
+    // probabilities of the transitions taken by the walks, null for uniform walks.
+    private TransitionWeights transitionWeights;
+
     public RunningLogsGenerator() {
         this(10, 100, false);
     }
@@ -69,6 +85,19 @@ public class RunningLogsGenerator {
         this.showGeneratedLogs = showGeneratedLogs;
     }
 
+    /**
+     * Sets the transition weights used by the following generations, the walks take the transitions with
+     * the given probabilities instead of uniformly.
+     * <br />
+     * NOTICE: the label-balanced generation steers the walks, and does not use the weights.
+     *
+     * @param transitionWeights the transition weights, or null for uniform walks (default).
+     * @see TransitionWeights
+     */
+    public void setTransitionWeights(TransitionWeights transitionWeights) {
+        this.transitionWeights = transitionWeights;
+    }
+
     /**
      * Generates running logs of the given {@code dfa}
      *
@@ -91,27 +120,541 @@ public class RunningLogsGenerator {
     public void generate(int logSize, DFANode dfaRoot, DFAConfig dfaConfig, boolean saveToFile) {
         // TODO: dfa validation may be needed, dfa should be constructed and Config should well prepared.
         // FIXME: code refactoring may be needed here, the constructed dfa should be diagnosable before
+        generate(logSize, new CompiledDFA(dfaRoot, dfaConfig), saveToFile);
+    }
+
+    /**
+     * Generates running logs of the given compiled {@code dfa}
+     *
+     * @param logSize the number of the running logs to be generated.
+     * @param dfa     the compiled dfa.
+     */
+    public void generate(int logSize, CompiledDFA dfa) {
+        generate(logSize, dfa, false);
+    }
+
+    /**
+     * Generates running logs of the given compiled {@code dfa}
+     *
+     * @param logSize    the number of the running logs to be generated.
+     * @param dfa        the compiled dfa.
+     * @param saveToFile whether to save the generated logs to file.
+     */
+    public void generate(int logSize, CompiledDFA dfa, boolean saveToFile) {
+        generate(logSize, dfa, new Random(), saveToFile);
+    }
+
+    /**
+     * Generates running logs of the given compiled {@code dfa} with the given seed, the same
+     * seed always gives the same running logs.
+     *
+     * @param logSize    the number of the running logs to be generated.
+     * @param dfa        the compiled dfa.
+     * @param seed       the seed of the generation.
+     * @param saveToFile whether to save the generated logs to file.
+     */
+    public void generate(int logSize, CompiledDFA dfa, long seed, boolean saveToFile) {
+        generate(logSize, dfa, new SeededRandom(seed), saveToFile);
+    }
+
+    // generates running logs of the given compiled dfa using the given random generator.
+    private void generate(int logSize, CompiledDFA dfa, Random r, boolean saveToFile) {
+        prepare(logSize, dfa.isMultiFaulty(), dfa.getFaultTypeCount());
+
+        LogWalker walker = new LogWalker(dfa, maxSteps, transitionWeights);
+        while (runningLogs.size() < logSize) {
+            int label = walk(walker, r);
+            removeConflictedAdd(runningLogs, new String(walker.buffer(), 0, walker.length()), labels[label]);
+        }
+        finish(CommonUtils.generateDefaultDFAName(dfa), dfa.getObservableEvents(), saveToFile);
+    }
+
+    /**
+     * Generates running logs of the given compiled {@code dfa} with the given seed into an
+     * {@link ObservationTrie}, instead of the logs map.
+     * <br />
+     * The added logs of the returned trie are the same as the logs generated by
+     * {@link #generate(int, CompiledDFA, long, boolean)} with the same seed, and the trie also answers
+     * which observations are ambiguous for a faulty type.
+     * <br />
+     * NOTICE: no logs are kept by this generator ({@link #getRunningLogs()} is empty).
+     *
+     * @param logSize the number of the running logs to be generated.
+     * @param dfa     the compiled dfa.
+     * @param seed    the seed of the generation.
+     * @return the trie of the generated logs.
+     * @throws IllegalArgumentException if the dfa has more than 64 labels.
+     */
+    public ObservationTrie generateTrie(int logSize, CompiledDFA dfa, long seed) {
+        prepare(logSize, dfa.isMultiFaulty(), dfa.getFaultTypeCount());
+        runningLogs = null;
+        observableEvents = dfa.getObservableEvents();
+
+        ObservationTrie trie = new ObservationTrie(dfa.getFaultTypeCount(), dfa.isMultiFaulty());
+        LogWalker walker = new LogWalker(dfa, maxSteps, transitionWeights);
+        Random r = new SeededRandom(seed);
+        while (trie.size() < logSize) {
+            int label = walk(walker, r);
+            trie.add(walker.buffer(), walker.length(), label);
+        }
+        statistics = trie.getStatistics();
+        LOGGER.info("Running logs generated.All (duplicates removed): {} Normal logs: {}, trie nodes: {}",
+                trie.size(), statistics[0], trie.getNodeCount());
+        for (int i = 1; i < statistics.length; i++)
+            LOGGER.info("====>\t faulty logs, T{}: {}", i, statistics[i]);
+        return trie;
+    }
+
+    /**
+     * Generates running logs of the given compiled {@code dfa} with the given number of logs of every label
+     * (label-balanced generation).
+     * <br />
+     * Every walk is steered towards a label whose quota is not met yet (see
+     * {@link LogWalker#walkTowards(int, int, Random)}), instead of generating logs until enough logs
+     * of the rare labels happen to be generated. Logs of the labels whose quotas are met are discarded, but
+     * their observations are still remembered, so a later log of the same observation with another label
+     * is a conflict as well. Conflicted logs are handled the same as
+     * {@link #generate(int, CompiledDFA, boolean)}, i.e. the log is removed, and the observation may be
+     * added again by a later walk.
+     * <br />
+     * NOTICE: if no new log of a label can be generated in {@value #MAX_FAILED_ATTEMPTS} consecutive
+     * attempts, e.g. all the distinct logs of the label are generated, the generation of the label stops
+     * with a warning, and fewer logs of the label are generated.
+     *
+     * @param quotas     the number of the logs of every label (labels are the indices).
+     * @param dfa        the compiled dfa.
+     * @param saveToFile whether to save the generated logs to file.
+     * @throws IllegalArgumentException if the number of the quotas is not the number of the labels, or
+     *                                  a label with positive quota can not be generated.
+     */
+    public void generateBalanced(int[] quotas, CompiledDFA dfa, boolean saveToFile) {
+        generateBalanced(quotas, dfa, new Random(), saveToFile);
+    }
+
+    /**
+     * Generates label-balanced running logs of the given compiled {@code dfa} with the given seed, the same
+     * seed always gives the same running logs.
+     *
+     * @param quotas     the number of the logs of every label (labels are the indices).
+     * @param dfa        the compiled dfa.
+     * @param seed       the seed of the generation.
+     * @param saveToFile whether to save the generated logs to file.
+     * @see #generateBalanced(int[], CompiledDFA, boolean)
+     */
+    public void generateBalanced(int[] quotas, CompiledDFA dfa, long seed, boolean saveToFile) {
+        generateBalanced(quotas, dfa, new SeededRandom(seed), saveToFile);
+    }
+
+    // generates label-balanced running logs of the given compiled dfa using the given random generator.
+    private void generateBalanced(int[] quotas, CompiledDFA dfa, Random r, boolean saveToFile) {
+        int logSize = 0;
+        for (int quota : quotas) {
+            if (quota < 0)
+                throw new IllegalArgumentException("quotas should not be negative: " + Arrays.toString(quotas));
+            logSize += quota;
+        }
+        int labelCount = dfa.isMultiFaulty() ? 1 << dfa.getFaultTypeCount() : dfa.getFaultTypeCount() + 1;
+        if (quotas.length != labelCount)
+            throw new IllegalArgumentException("Expected quotas of " + labelCount + " labels, but got "
+                    + quotas.length);
+        prepare(logSize, dfa.isMultiFaulty(), dfa.getFaultTypeCount());
+        LogWalker walker = new LogWalker(dfa, maxSteps, transitionWeights);
+        for (int label = 0; label < quotas.length; label++)
+            if (quotas[label] > 0 && !walker.isReachable(label, maxSteps))
+                throw new IllegalArgumentException("Logs of label T" + label + " can not be generated within "
+                        + maxSteps + " steps.");
+
+        int[] counts = new int[quotas.length];
+        int[] failures = new int[quotas.length];
+        boolean[] stopped = new boolean[quotas.length];
+        // the first label of every walked observation (even if its quota is met), forgotten if conflicted.
+        Map<String, Integer> seen = new HashMap<>(logSize);
+        int target = -1;
+        while ((target = nextTarget(quotas, counts, stopped, target)) >= 0) {
+            int label = walker.walkTowards(r.nextInt(maxSteps - minSteps + 1) + minSteps, target, r);
+            String observation = new String(walker.buffer(), 0, walker.length());
+            Integer first = seen.putIfAbsent(observation, label);
+            boolean added = false;
+            if (first == null) {
+                if (counts[label] < quotas[label]) {
+                    runningLogs.put(observation, labels[label]);
+                    counts[label]++;
+                    added = label == target;
+                }
+            } else if (first == label) {
+                // seen when the quota is met, the quota may be freed by removed conflicted logs.
+                if (counts[label] < quotas[label] && runningLogs.putIfAbsent(observation, labels[label]) == null) {
+                    counts[label]++;
+                    added = label == target;
+                }
+            } else {
+                // remove the conflicted logs.
+                seen.remove(observation);
+                if (runningLogs.remove(observation) != null)
+                    counts[first]--;
+            }
+            if (added) {
+                failures[target] = 0;
+            } else if (++failures[target] >= MAX_FAILED_ATTEMPTS) {
+                stopped[target] = true;
+                LOGGER.warn("No more logs of label T{} can be generated, generated: {}, expected: {}",
+                        target, counts[target], quotas[target]);
+            }
+        }
+        finish(CommonUtils.generateDefaultDFAName(dfa), dfa.getObservableEvents(), saveToFile);
+    }
+
+    // returns the next label (after the given one) whose quota is not met, or -1 if all the quotas are met.
+    private static int nextTarget(int[] quotas, int[] counts, boolean[] stopped, int previous) {
+        for (int i = 1; i <= quotas.length; i++) {
+            int label = (previous + i) % quotas.length;
+            if (!stopped[label] && counts[label] < quotas[label])
+                return label;
+        }
+        return -1;
+    }
+
+    /**
+     * Generates running logs of the given compiled {@code dfa} using the given number of workers of the
+     * given {@code executor}.
+     * <br />
+     * Every worker traverses the dfa independently with its own random generator, and the generated
+     * logs are merged into a concurrent map, conflicted logs are handled the same as
+     * {@link #generate(int, CompiledDFA, boolean)}, so the generated logs are the same as the sequential
+     * generation, except that they are not reproducible.
+     *
+     * @param logSize    the number of the running logs to be generated.
+     * @param dfa        the compiled dfa.
+     * @param executor   the executor running the workers.
+     * @param workers    the number of the workers.
+     * @param saveToFile whether to save the generated logs to file.
+     * @throws LogsGenerationFailed if the workers are interrupted or failed.
+     */
+    public void generateParallel(int logSize, CompiledDFA dfa, ExecutorService executor, int workers,
+                                 boolean saveToFile) {
+        if (executor == null)
+            throw new IllegalArgumentException("executor must not be null.");
+        if (workers < 1)
+            throw new IllegalArgumentException("workers should be at least 1: " + workers);
+        prepare(logSize, dfa.isMultiFaulty(), dfa.getFaultTypeCount());
+
+        ConcurrentHashMap<String, String> logs = new ConcurrentHashMap<>(logSize);
+        AtomicInteger size = new AtomicInteger();
+        long seed = new Random().nextLong();
+        List<Callable<Void>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            Random r = SeededRandom.forStream(seed, i);
+            tasks.add(() -> {
+                LogWalker walker = new LogWalker(dfa, maxSteps, transitionWeights);
+                while (size.get() < logSize) {
+                    if (Thread.currentThread().isInterrupted())
+                        throw new InterruptedException("logs generation is cancelled.");
+                    int label = walk(walker, r);
+                    removeConflictedAdd(logs, size, logSize,
+                            new String(walker.buffer(), 0, walker.length()), labels[label]);
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> f : executor.invokeAll(tasks))
+                f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LogsGenerationFailed("Interrupted while generating logs.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new LogsGenerationFailed("Failed to generate logs.", e.getCause());
+        }
+        runningLogs = logs;
+        finish(CommonUtils.generateDefaultDFAName(dfa), dfa.getObservableEvents(), saveToFile);
+    }
+
+    /**
+     * Generates running logs of the given compiled {@code dfa}, and saves them to the logs storage location.
+     * <br />
+     * Unlike {@link #generate(int, CompiledDFA, boolean)}, the logs are written to disk while they are
+     * generated, only a 64-bit fingerprint of every observation is kept in memory (see
+     * {@link StreamingLogsWriter}), so much more logs can be generated.
+     *
+     * @param logSize the number of the running logs to be generated.
+     * @param dfa     the compiled dfa.
+     * @return the path of the saved logs file.
+     * @throws UncheckedIOException if the logs can not be saved.
+     */
+    public Path generateStreaming(int logSize, CompiledDFA dfa) {
+        try {
+            Path target = storageLocation()
+                    .resolve(CommonUtils.generateDefaultDFAName(dfa).concat("_running-logs.txt"));
+            return generateStreaming(logSize, dfa, new Random(), target);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Generates running logs of the given compiled {@code dfa}, and saves them to the given {@code target} file.
+     *
+     * @param logSize the number of the running logs to be generated.
+     * @param dfa     the compiled dfa.
+     * @param target  the file to save the logs.
+     * @return the path of the saved logs file.
+     * @throws UncheckedIOException if the logs can not be saved.
+     * @see #generateStreaming(int, CompiledDFA)
+     */
+    public Path generateStreaming(int logSize, CompiledDFA dfa, Path target) {
+        return generateStreaming(logSize, dfa, new Random(), target);
+    }
 
-        // basic checking
+    /**
+     * Generates running logs of the given compiled {@code dfa} with the given seed, and saves them to the
+     * given {@code target} file. The same seed always gives the same logs file, which also equals the logs
+     * generated by {@link #generate(int, CompiledDFA, long, boolean)} with the same seed (but in the
+     * order of the generation).
+     *
+     * @param logSize the number of the running logs to be generated.
+     * @param dfa     the compiled dfa.
+     * @param seed    the seed of the generation.
+     * @param target  the file to save the logs.
+     * @return the path of the saved logs file.
+     * @throws UncheckedIOException if the logs can not be saved.
+     * @see #generateStreaming(int, CompiledDFA)
+     */
+    public Path generateStreaming(int logSize, CompiledDFA dfa, long seed, Path target) {
+        return generateStreaming(logSize, dfa, new SeededRandom(seed), target);
+    }
+
+    // generates running logs of the given compiled dfa using the given random generator, writing them
+    // to the given target file while generating.
+    private Path generateStreaming(int logSize, CompiledDFA dfa, Random r, Path target) {
+        prepare(logSize, dfa.isMultiFaulty(), dfa.getFaultTypeCount());
+        runningLogs = null;
+
+        LOGGER.info("Saving the generated logs to file : {}", target.getFileName());
+        LogWalker walker = new LogWalker(dfa, maxSteps, transitionWeights);
+        Path body = target.resolveSibling(target.getFileName() + ".body");
+        try (StreamingLogsWriter writer = new StreamingLogsWriter(body, statistics.length, logSize)) {
+            while (writer.size() < logSize) {
+                int label = walk(walker, r);
+                writer.add(walker.buffer(), walker.length(), label);
+            }
+            statistics = writer.getStatistics();
+            LOGGER.info("Running logs generated.All (duplicates removed): {} Normal logs: {}",
+                    writer.size(), statistics[0]);
+            for (int i = 1; i < statistics.length; i++)
+                LOGGER.info("====>\t faulty logs, T{}: {}", i, statistics[i]);
+
+            writer.finish(target, statisticInfo(writer.size(), dfa.getObservableEvents()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        LOGGER.debug("==>\t File location: {}", target);
+        LOGGER.info("==>\t Done.");
+        return target;
+    }
+
+    /**
+     * Generates running logs of the given compiled {@code dfa} with checkpoints, and saves them to the given
+     * {@code target} file.
+     *
+     * @param logSize            the number of the running logs to be generated.
+     * @param dfa                the compiled dfa.
+     * @param target             the file to save the logs.
+     * @param checkpointInterval the number of the generated logs between two checkpoints.
+     * @return the path of the saved logs file.
+     * @throws UncheckedIOException if the logs or the checkpoints can not be saved.
+     * @see #generateCheckpointed(int, CompiledDFA, long, Path, int)
+     */
+    public Path generateCheckpointed(int logSize, CompiledDFA dfa, Path target, int checkpointInterval) {
+        return generateCheckpointed(logSize, dfa, new Random().nextLong(), target, checkpointInterval);
+    }
+
+    /**
+     * Generates running logs of the given compiled {@code dfa} with the given seed and checkpoints, and saves
+     * them to the given {@code target} file.
+     * <br />
+     * The same as {@link #generateStreaming(int, CompiledDFA, long, Path)}, except that a checkpoint is saved
+     * every {@code checkpointInterval} generated logs: the generated logs are synced to the body file
+     * ({@code target + ".body"}), and the fingerprints of the logs, the statistics and the state of the random
+     * generator are saved to the checkpoint file ({@code target + ".ckpt"}), see {@link GenerationCheckpoint}.
+     * <br />
+     * If the checkpoint file of the target exists, the generation is resumed from the checkpoint instead
+     * (the given seed is ignored), so:
+     * <ul>
+     *     <li>an interrupted generation resumes exactly where the last checkpoint is saved, and the saved
+     *     logs file is the same as an uninterrupted generation.</li>
+     *     <li>a finished generation (the body and the checkpoint are kept) can be extended with more logs,
+     *     by calling this method again with a larger {@code logSize}, only the new logs are generated.</li>
+     * </ul>
+     * NOTICE: the body and the checkpoint files are kept after generating, until they are deleted by
+     * {@link #deleteCheckpoint(Path)}. The same transition weights (if any) should be set when resuming.
+     *
+     * @param logSize            the number of the running logs to be generated.
+     * @param dfa                the compiled dfa.
+     * @param seed               the seed of the generation, ignored when resuming.
+     * @param target             the file to save the logs.
+     * @param checkpointInterval the number of the generated logs between two checkpoints.
+     * @return the path of the saved logs file.
+     * @throws IllegalArgumentException if the checkpoint is not of the given dfa or generation options.
+     * @throws UncheckedIOException     if the logs or the checkpoints can not be saved.
+     */
+    public Path generateCheckpointed(int logSize, CompiledDFA dfa, long seed, Path target,
+                                     int checkpointInterval) {
+        if (checkpointInterval < 1)
+            throw new IllegalArgumentException("checkpointInterval should be at least 1: " + checkpointInterval);
+        prepare(logSize, dfa.isMultiFaulty(), dfa.getFaultTypeCount());
+        runningLogs = null;
+
+        Path body = target.resolveSibling(target.getFileName() + ".body");
+        Path checkpointFile = target.resolveSibling(target.getFileName() + ".ckpt");
+        long dfaFingerprint = GenerationCheckpoint.fingerprint(dfa);
+        SeededRandom r = new SeededRandom(seed);
+        StreamingLogsWriter resumed = null;
+        try {
+            if (Files.exists(checkpointFile)) {
+                GenerationCheckpoint checkpoint = GenerationCheckpoint.load(checkpointFile, body);
+                resumed = checkpoint.writer;
+                if (checkpoint.dfaFingerprint != dfaFingerprint || checkpoint.minSteps != minSteps
+                        || checkpoint.maxSteps != maxSteps) {
+                    resumed.close();
+                    throw new IllegalArgumentException("The checkpoint " + checkpointFile
+                            + " is not of the given dfa or steps range.");
+                }
+                r.setState(checkpoint.randomState);
+                LOGGER.info("Resuming from checkpoint : {}, generated: {}", checkpointFile.getFileName(),
+                        resumed.size());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        LOGGER.info("Saving the generated logs to file : {}", target.getFileName());
+        LogWalker walker = new LogWalker(dfa, maxSteps, transitionWeights);
+        try (StreamingLogsWriter writer = resumed != null ? resumed
+                : new StreamingLogsWriter(body, statistics.length, logSize)) {
+            int uncheckpointed = 0;
+            while (writer.size() < logSize) {
+                int label = walk(walker, r);
+                if (writer.add(walker.buffer(), walker.length(), label) && ++uncheckpointed >= checkpointInterval) {
+                    GenerationCheckpoint.save(checkpointFile, dfaFingerprint, minSteps, maxSteps, r.getState(),
+                            writer);
+                    uncheckpointed = 0;
+                    LOGGER.debug("Checkpoint saved, generated: {}", writer.size());
+                }
+            }
+            GenerationCheckpoint.save(checkpointFile, dfaFingerprint, minSteps, maxSteps, r.getState(), writer);
+            statistics = writer.getStatistics();
+            LOGGER.info("Running logs generated.All (duplicates removed): {} Normal logs: {}",
+                    writer.size(), statistics[0]);
+            for (int i = 1; i < statistics.length; i++)
+                LOGGER.info("====>\t faulty logs, T{}: {}", i, statistics[i]);
+
+            writer.finish(target, statisticInfo(writer.size(), dfa.getObservableEvents()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        LOGGER.debug("==>\t File location: {}", target);
+        LOGGER.info("==>\t Done.");
+        return target;
+    }
+
+    /**
+     * Deletes the body and the checkpoint files of the checkpointed generation of the given target, see
+     * {@link #generateCheckpointed(int, CompiledDFA, long, Path, int)}.
+     *
+     * @param target the file of the saved logs.
+     * @return true if the checkpoint files are deleted, false if they do not exist.
+     * @throws UncheckedIOException if the files can not be deleted.
+     */
+    public static boolean deleteCheckpoint(Path target) {
+        try {
+            boolean deleted = Files.deleteIfExists(target.resolveSibling(target.getFileName() + ".ckpt"));
+            return Files.deleteIfExists(target.resolveSibling(target.getFileName() + ".body")) || deleted;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the running logs generated by the last {@code generate} call, observations mapping to
+     * their labels (streaming generation keeps no logs in memory).
+     *
+     * @return an unmodifiable view of the generated logs, or an empty map if no logs are generated.
+     */
+    public Map<String, String> getRunningLogs() {
+        return runningLogs == null ? Collections.emptyMap() : Collections.unmodifiableMap(runningLogs);
+    }
+
+    /**
+     * Saves the running logs generated by the last {@code generate} call to the given file in the binary
+     * format, which can be memory-mapped and read without parsing, see {@link BinaryLogsReader}.
+     *
+     * @param target the file to save the logs.
+     * @throws IllegalStateException    if no logs are generated in memory.
+     * @throws IllegalArgumentException if the dfa has more than 256 observable symbols.
+     * @throws UncheckedIOException     if the logs can not be saved.
+     */
+    public void saveBinary(Path target) {
+        if (runningLogs == null)
+            throw new IllegalStateException("No running logs generated in memory.");
+        LOGGER.info("Saving the generated logs to binary file : {}", target.getFileName());
+        try (BinaryLogsWriter writer = new BinaryLogsWriter(target, observableEvents, statistics.length,
+                minSteps, maxSteps)) {
+            for (Map.Entry<String, String> log : runningLogs.entrySet())
+                writer.write(log.getKey(), Integer.parseInt(log.getValue()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        LOGGER.debug("==>\t File location: {}", target);
+        LOGGER.info("==>\t Done.");
+    }
+
+    /**
+     * Saves the running logs generated by the last {@code generate} call to the given file as gzip-compressed
+     * chunks, which are compressed in parallel on the given executor, see {@link ChunkedLogsWriter}.
+     *
+     * @param target   the file to save the logs.
+     * @param executor the executor compressing the chunks.
+     * @param threads  the number of the threads of the executor.
+     * @throws IllegalStateException if no logs are generated in memory.
+     * @throws UncheckedIOException  if the logs can not be saved.
+     */
+    public void saveChunked(Path target, ExecutorService executor, int threads) {
+        if (runningLogs == null)
+            throw new IllegalStateException("No running logs generated in memory.");
+        LOGGER.info("Saving the generated logs to chunked file : {}", target.getFileName());
+        try (ChunkedLogsWriter writer = new ChunkedLogsWriter(target, statistics.length,
+                ChunkedLogsWriter.DEFAULT_CHUNK_SIZE, executor, threads)) {
+            writer.setHeader(statisticInfo(runningLogs.size(), observableEvents));
+            for (Map.Entry<String, String> log : runningLogs.entrySet())
+                writer.write(log.getKey(), Integer.parseInt(log.getValue()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        LOGGER.debug("==>\t File location: {}", target);
+        LOGGER.info("==>\t Done.");
+    }
+
+    // basic checking and allocating the logs map and statistics before generating.
+    private void prepare(int logSize, boolean multiFaulty, int faultyEventSize) {
         if (minSteps >= maxSteps)
             throw new IllegalArgumentException("Given minSteps and maxSteps is invalided!");
         LOGGER.info("Generating running logs..., size: {}, steps range: [{}, {}]", logSize, minSteps, maxSteps);
 
         runningLogs = new HashMap<>(logSize);
-        if (dfaConfig.multiFaulty)
-            statistics = new int[(int) Math.pow(2, dfaConfig.faultyEvents.length)];
+        if (multiFaulty)
+            statistics = new int[(int) Math.pow(2, faultyEventSize)];
         else
-            statistics = new int[dfaConfig.faultyEvents.length + 1];
-
-        // generating and adding running logs to the map.
-        while (runningLogs.size() < logSize) {
-            Random r = new Random();
-            removeConflictedAdd(
-                    runningLogs,
-                    containsVisitedTraversal(r.nextInt(maxSteps - minSteps + 1) + minSteps,
-                            dfaRoot, dfaConfig));
-        }
+            statistics = new int[faultyEventSize + 1];
+        labels = new String[statistics.length];
+        for (int i = 0; i < labels.length; i++)
+            labels[i] = Integer.toString(i);
+    }
 
+    // counting statistic infos of the generated logs, and saving them to file if needed.
+    private void finish(String dfaName, char[] observableEvents, boolean saveToFile) {
+        this.observableEvents = observableEvents;
         // statistic infos
         for (String k : runningLogs.keySet()) {
             int index = Integer.parseInt(runningLogs.get(k));
@@ -124,18 +667,14 @@ public class RunningLogsGenerator {
 
         // Saving the logs to file.
         if (saveToFile) {
-            String filename = CommonUtils.generateDefaultDFAName(dfaConfig).concat("_running-logs.txt");
-            save(filename, dfaConfig);
+            String filename = dfaName.concat("_running-logs.txt");
+            save(filename, observableEvents);
         }
     }
 
-    // returns true if the logs already contains a log with the same observation
-    // to new come log.
-    private void removeConflictedAdd(Map<String, String> logs, String newComeLog) {
-        // if logs set already contains the newComeLog.
-        String[] splitNewComeLog = newComeLog.split("T");
-        String newComeObservation = splitNewComeLog[0];
-        String newComeLabel = splitNewComeLog[1];
+    // adds the new come log, if the logs already contains a log with the same observation,
+    // the new come log is ignored, and the conflicted log is removed if the labels differ.
+    private void removeConflictedAdd(Map<String, String> logs, String newComeObservation, String newComeLabel) {
         // ignoring added logs.
         if (logs.containsKey(newComeObservation)) {
             if (logs.get(newComeObservation).equals(newComeLabel)) return;
@@ -144,116 +683,53 @@ public class RunningLogsGenerator {
         } else {
             logs.put(newComeObservation, newComeLabel);
         }
-
-    }
-
-    // Attaching the log type. Only single faulty mode is considered.
-    private String attachingLabel(StringBuilder log, DFAConfig dfaConfig) {
-        for (int i = 0; i < dfaConfig.unobservableEvents.length; i++) {
-            if (log.toString().indexOf(dfaConfig.unobservableEvents[i]) >= 0) {
-                log = new StringBuilder(log.toString()
-                        .replaceAll(dfaConfig.unobservableEvents[i] + "", ""));
-                log.append("T").append(i + 1);
-                break;
-            }
-        }
-        if (log.toString().indexOf('T') < 0)
-            log.append("T0");
-
-        if (showGeneratedLogs)
-            LOGGER.debug("Generated log: {}", log.toString());
-
-        return log.toString();
     }
 
-    // Attaching the log types. multi-faulty mode is considered.
-    private String attachingLabelMultiFaulty(StringBuilder log, DFAConfig dfaConfig) {
-        int faultyTypes = dfaConfig.faultyEvents.length;
-        byte[] faultyFlags = new byte[faultyTypes];
-        for (int i = 0; i < dfaConfig.unobservableEvents.length; i++) {
-            if (log.toString().indexOf(dfaConfig.unobservableEvents[i]) >= 0) {
-                log = new StringBuilder(log.toString()
-                        .replaceAll(dfaConfig.unobservableEvents[i] + "", ""));
-                faultyFlags[i] = 1;
+    // the concurrent version of removeConflictedAdd(), the given size counts the logs, and no more new
+    // observations are added once the logSize is reached (conflicted logs can still be removed).
+    private void removeConflictedAdd(ConcurrentHashMap<String, String> logs, AtomicInteger size,
+                                     int logSize, String newComeObservation, String newComeLabel) {
+        logs.compute(newComeObservation, (observation, label) -> {
+            if (label != null) {
+                // ignoring added logs.
+                if (label.equals(newComeLabel)) return label;
+                // remove the conflicted logs.
+                size.decrementAndGet();
+                return null;
             }
-        }
-        int type = 0;
-        for (int i = 0; i < faultyTypes; i++) {
-            type += faultyFlags[i] * Math.pow(2, (faultyTypes) - i - 1);
-        }
-        log.append("T").append(type);
-        if (showGeneratedLogs)
-            LOGGER.debug("Generated log: {}", log.toString());
-        return log.toString();
+            int current;
+            do {
+                current = size.get();
+                if (current >= logSize) return null;
+            } while (!size.compareAndSet(current, current + 1));
+            return newComeLabel;
+        });
     }
 
-    // returns a running log of the random stopSteps length.
-    private String containsVisitedTraversal(int stopSteps, DFANode root, DFAConfig dfaConfig) {
-        if (showGeneratedLogs)
-            LOGGER.debug("constructing a log using visited approach, expected len->{}", stopSteps);
-        DFANode pNode = root;
-        StringBuilder log = new StringBuilder();
-        while (stopSteps > 0) {
-            Random r = new Random();
-            Character[] symbols = pNode.transitions.keySet().toArray(new Character[0]);
-            // if no transitions for current node. stop traversing.
-            // Since dfa may exists terminal states.
-            if (symbols.length == 0)
-                break;
-            // navigating to the next unvisited node.
-            char symbol = symbols[r.nextInt(symbols.length)];
-
-            pNode = pNode.navigate(symbol, dfaConfig);
-            log.append(symbol);
-            stopSteps--;
-        }
+    // walks the dfa for a random length in [minSteps, maxSteps], returns the label of the generated log.
+    private int walk(LogWalker walker, Random r) {
+        int label = walker.walk(r.nextInt(maxSteps - minSteps + 1) + minSteps, r);
         if (showGeneratedLogs)
-            LOGGER.debug("Generated observation({}): {}", log.toString().length(), log.toString());
-        if (dfaConfig.multiFaulty)
-            return attachingLabelMultiFaulty(log, dfaConfig);
-        return attachingLabel(log, dfaConfig);
+            LOGGER.debug("Generated log: {}T{}", new String(walker.buffer(), 0, walker.length()), label);
+        return label;
     }
 
     /**
      * Saving the generated running logs into the given file with the name {@code filename} *
      *
-     * @param filename the name of the file to save logs.
+     * @param filename         the name of the file to save logs.
+     * @param observableEvents the observable events of the dfa.
      */
     @SuppressWarnings("DuplicatedCode")
-    private void save(String filename, DFAConfig dfaConfig) {
+    private void save(String filename, char[] observableEvents) {
 
         LOGGER.info("Saving the generated logs to file : {}", filename);
-        // loads storage location config.
-        Properties config = new Properties();
         try {
-            config.load(RunningLogsGenerator.class.getClassLoader()
-                    .getResourceAsStream("AppConfigs.properties"));
-            String location = config.getProperty("logs.storageLocation");
-
-
-            Path folder = Paths.get(location);
-            String path = location + File.separator + filename;
-            // create the folder if not existed.
-            if (!Files.exists(folder)) {
-                Files.createDirectories(folder);
-            }
-            BufferedWriter bfw = new BufferedWriter(new FileWriter(path));
+            Path path = storageLocation().resolve(filename);
+            BufferedWriter bfw = Files.newBufferedWriter(path);
 
             // writes statics info as the first line.
-            String statisticInfo = "";
-            statisticInfo = statisticInfo.concat("Logs size: " + runningLogs.size())
-                    .concat(", Normal logs: " + statistics[0]);
-            for (int i = 1; i < statistics.length; i++) {
-                statisticInfo = statisticInfo.concat(", T" + i + " logs: " + statistics[i]);
-            }
-            // add observable event set info
-            String obsInfo = "[";
-            for (char c : dfaConfig.observableEvents)
-                obsInfo = obsInfo.concat(c + ",");
-            obsInfo = obsInfo.substring(0, obsInfo.length() - 1).concat("]");
-            statisticInfo = statisticInfo.concat(",minLen:" + minSteps).concat(",maxLen:" + maxSteps);
-            statisticInfo = statisticInfo.concat(" observable events:").concat(obsInfo);
-            bfw.write(statisticInfo);
+            bfw.write(statisticInfo(runningLogs.size(), observableEvents));
             bfw.newLine();
 
             for (String observation : runningLogs.keySet()) {
@@ -269,6 +745,36 @@ public class RunningLogsGenerator {
         }
     }
 
+    // returns the logs storage location configured in AppConfigs.properties, creating it if not existed.
+    private static Path storageLocation() throws IOException {
+        Properties config = new Properties();
+        config.load(RunningLogsGenerator.class.getClassLoader()
+                .getResourceAsStream("AppConfigs.properties"));
+        Path folder = Paths.get(config.getProperty("logs.storageLocation"));
+        // create the folder if not existed.
+        if (!Files.exists(folder)) {
+            Files.createDirectories(folder);
+        }
+        return folder;
+    }
+
+    // returns the statistics info of the generated logs, written as the first line of the logs file.
+    private String statisticInfo(int logSize, char[] observableEvents) {
+        String statisticInfo = "";
+        statisticInfo = statisticInfo.concat("Logs size: " + logSize)
+                .concat(", Normal logs: " + statistics[0]);
+        for (int i = 1; i < statistics.length; i++) {
+            statisticInfo = statisticInfo.concat(", T" + i + " logs: " + statistics[i]);
+        }
+        // add observable event set info
+        String obsInfo = "[";
+        for (char c : observableEvents)
+            obsInfo = obsInfo.concat(c + ",");
+        obsInfo = obsInfo.substring(0, obsInfo.length() - 1).concat("]");
+        statisticInfo = statisticInfo.concat(",minLen:" + minSteps).concat(",maxLen:" + maxSteps);
+        return statisticInfo.concat(" observable events:").concat(obsInfo);
+    }
+
     /**
      * Driver the program to test generating logs.
      *
@@ -277,9 +783,7 @@ public class RunningLogsGenerator {
     public static void main(String[] args) {
         RunningLogsGenerator runningLogsGenerator = new RunningLogsGenerator(15, 20, true);
         DFAConstructor constructor = SimpleDFAConstructor.getInstance();
-        runningLogsGenerator.generate(
-                10,
-                constructor.constructRandomDFAWithDiagnosability(11, 20, false),
-                constructor.getDFAConfig());
+        ConstructedDFA constructed = constructor.constructWithDiagnosability(11, 20, false, false);
+        runningLogsGenerator.generate(10, constructed.compile());
     }
 }
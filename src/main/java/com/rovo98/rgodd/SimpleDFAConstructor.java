@@ -2,17 +2,22 @@ package com.rovo98.rgodd;
 
 import com.rovo98.rgodd.diagnosability.Diagnoser;
 import com.rovo98.rgodd.diagnosability.NeotypeDiagnoser;
+import com.rovo98.rgodd.diagnosability.NeotypeDiagnoser.Mode;
 import com.rovo98.rgodd.utils.CommonUtils;
+import com.rovo98.rgodd.utils.SeededRandom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Naive implementation of interface {@link DFAConstructor} with randomization.
  * <br /><br />
  * More details are documented in README.md file. see first section.
+ * <br /><br />
+ * NOTICE: an instance keeps the configuration of the DFA being constructed, so one instance can not be
+ * used by multiple threads at the same time. Use {@link #newInstance()} to get an independent instance
+ * for every thread.
  *
  * @author rovo98
  * @version 1.0.0
@@ -21,11 +26,32 @@ import java.util.stream.Collectors;
 public class SimpleDFAConstructor implements DFAConstructor {
     public final Logger LOGGER = LoggerFactory.getLogger(SimpleDFAConstructor.class);
 
+    /** Maximum attempts of adding one faulty or inter-component transition keeping the diagnosability. */
+    static final int MAX_TRANSITION_ATTEMPTS = 100;
+
     // configuration for this DFA constructor.
     private DFAConfig dfaConfig;
+    // random generator of the DFA being constructed.
+    private Random random;
+    // builder of the graph components of the DFA being constructed.
+    private GraphComponentBuilder componentBuilder;
+    // diagnoser for constructing dfa with diagnosability. (not shared with other constructors)
+    private final Diagnoser dfaDiagnoser;
+    // diagnoser checking every faulty or inter-component transition added, when constructing dfa
+    // diagnosable by construction (null otherwise), and the root of the dfa being constructed.
+    private Diagnoser incrementalDiagnoser;
+    private DFANode constructingRoot;
+    // sources of the unobservable transitions of every state of the DFA being constructed.
+    private Map<Integer, List<Integer>> unobservablePredecessors;
+    // faulty states list of every faulty component root of the DFA being constructed.
+    private Map<Integer, Integer[]> faultyStatesCache;
+    // the states reaching every state by unobservable transitions (including itself), kept up to date while
+    // the unobservable transitions are added. the states reached by no unobservable transition are absent.
+    private Map<Integer, BitSet> unobservableAncestors;
 
     // this class can not be instanced outside this class.
     private SimpleDFAConstructor() {
+        this.dfaDiagnoser = NeotypeDiagnoser.newInstance();
     }
 
     // singleton wrapper class.
@@ -42,6 +68,16 @@ public class SimpleDFAConstructor implements DFAConstructor {
         return SingletonWrapper.INSTANCE;
     }
 
+    /**
+     * Returns a new instance of the SimpleDFAConstructor, which does not share its configuration
+     * with other instances.
+     *
+     * @return a new instance of the {@code SimpleDFAConstructor}.
+     */
+    public static DFAConstructor newInstance() {
+        return new SimpleDFAConstructor();
+    }
+
 
     @Override
     public DFANode constructRandomDFAWithDiagnosability(int minXNum, int maxXNum, boolean multiFaulty) {
@@ -52,15 +88,14 @@ public class SimpleDFAConstructor implements DFAConstructor {
     public DFANode constructRandomDFAWithDiagnosability(int minXNum, int maxXNum,
                                                         boolean multiFaulty, boolean saveConfig) {
         DFANode constructed = this.constructRandomDFA(minXNum, maxXNum, multiFaulty);
-        Diagnoser dfaDiagnoser = NeotypeDiagnoser.getInstance();
         int count = 1;
-        while (!dfaDiagnoser.isDiagnosable(constructed, dfaConfig)) {
+        while (!dfaDiagnoser.isDiagnosable(new CompiledDFA(constructed, dfaConfig))) {
             LOGGER.info("Constructed DFA does have diagnosability! dropped.");
-            System.out.println("\t==> current No of the generated dfa : " + count);
+            LOGGER.debug("\t==> current No of the generated dfa : {}", count);
             constructed = this.constructRandomDFA(minXNum, maxXNum, multiFaulty);
             count++;
         }
-        System.out.println("\t==> No of the diagnosable generated dfa : " + count);
+        LOGGER.info("\t==> No of the diagnosable generated dfa : {}", count);
         if (saveConfig)
             saveDFAConfigs(constructed, dfaConfig);
         return constructed;
@@ -77,15 +112,14 @@ public class SimpleDFAConstructor implements DFAConstructor {
                                                                    boolean multiFaulty,
                                                                    boolean saveConfig) {
         DFANode constructed = this.constructRandomDFAExtraNormal(minXNum, maxXNum, multiFaulty);
-        Diagnoser dfaDiagnoser = NeotypeDiagnoser.getInstance();
         int count = 0;
-        while (!dfaDiagnoser.isDiagnosable(constructed, dfaConfig)) {
+        while (!dfaDiagnoser.isDiagnosable(new CompiledDFA(constructed, dfaConfig))) {
             LOGGER.info("Constructed DFA does have diagnosability! dropped.");
-            System.out.println("\t==> current No of the generated dfa : " + count);
+            LOGGER.debug("\t==> current No of the generated dfa : {}", count);
             constructed = this.constructRandomDFAExtraNormal(minXNum, maxXNum, multiFaulty);
             count++;
         }
-        System.out.println("\t==> No of the diagnosable generated dfa : " + count);
+        LOGGER.info("\t==> No of the diagnosable generated dfa : {}", count);
         if (saveConfig)
             saveDFAConfigs(constructed, dfaConfig);
         return constructed;
@@ -99,7 +133,7 @@ public class SimpleDFAConstructor implements DFAConstructor {
     @Override
     public DFANode constructRandomDFA(int minXNum, int maxXNum, boolean multiFaulty,
                                       boolean saveConfig) {
-        return this.constructRandomDFAWithExtraNormalComp(minXNum, maxXNum,
+        return this.constructRandomDFAWithExtraNormalComp(new Random(), minXNum, maxXNum,
                 false, multiFaulty, saveConfig);
     }
 
@@ -111,22 +145,178 @@ public class SimpleDFAConstructor implements DFAConstructor {
     @Override
     public DFANode constructRandomDFAExtraNormal(int minXNum, int maxXNum, boolean multiFaulty,
                                                  boolean saveConfig) {
-        return this.constructRandomDFAWithExtraNormalComp(minXNum, maxXNum,
+        return this.constructRandomDFAWithExtraNormalComp(new Random(), minXNum, maxXNum,
                 true, multiFaulty, saveConfig);
     }
 
+    @Override
+    public ConstructedDFA construct(int minXNum, int maxXNum, boolean extraNormal, boolean multiFaulty) {
+        DFANode constructed = this.constructRandomDFAWithExtraNormalComp(new Random(), minXNum, maxXNum,
+                extraNormal, multiFaulty, false);
+        return new ConstructedDFA(constructed, dfaConfig);
+    }
+
+    @Override
+    public ConstructedDFA constructWithDiagnosability(int minXNum, int maxXNum,
+                                                      boolean extraNormal, boolean multiFaulty) {
+        DFANode constructed = extraNormal
+                ? this.constructRandomDFAExtraNormalWithDiagnosability(minXNum, maxXNum, multiFaulty)
+                : this.constructRandomDFAWithDiagnosability(minXNum, maxXNum, multiFaulty);
+        return new ConstructedDFA(constructed, dfaConfig);
+    }
+
+    @Override
+    public ConstructedDFA construct(long seed, int minXNum, int maxXNum,
+                                    boolean extraNormal, boolean multiFaulty) {
+        return this.construct(seed, defaultProfile(minXNum, maxXNum, extraNormal, multiFaulty));
+    }
+
+    @Override
+    public ConstructedDFA construct(long seed, GenerationProfile profile) {
+        DFANode constructed = this.constructRandomDFA(new SeededRandom(seed), profile, false);
+        dfaConfig.setSeed(seed);
+        dfaConfig.setName(CommonUtils.generateSeededDFAName(seed, profile, false));
+        return new ConstructedDFA(constructed, dfaConfig);
+    }
+
+    @Override
+    public ConstructedDFA constructWithDiagnosability(long seed, int minXNum, int maxXNum,
+                                                      boolean extraNormal, boolean multiFaulty) {
+        return this.constructWithDiagnosability(seed, minXNum, maxXNum, extraNormal, multiFaulty, false);
+    }
+
+    @Override
+    public ConstructedDFA constructWithDiagnosability(long seed, int minXNum, int maxXNum,
+                                                      boolean extraNormal, boolean multiFaulty, boolean cached) {
+        return this.constructWithDiagnosability(seed, defaultProfile(minXNum, maxXNum, extraNormal, multiFaulty),
+                cached);
+    }
+
+    @Override
+    public ConstructedDFA constructWithDiagnosability(long seed, GenerationProfile profile) {
+        return this.constructWithDiagnosability(seed, profile, false);
+    }
+
+    @Override
+    public ConstructedDFA constructWithDiagnosability(long seed, GenerationProfile profile, boolean cached) {
+        String filename = CommonUtils.generateSeededDFAName(seed, profile, true).concat("_config");
+        if (cached && CommonUtils.existsDFAConfigs(filename)) {
+            Optional<Object[]> loaded = CommonUtils.loadDFAConfigs(filename);
+            if (loaded.isPresent()) {
+                LOGGER.info("Cached dfa of seed {} loaded.", seed);
+                return new ConstructedDFA((DFANode) loaded.get()[0], (DFAConfig) loaded.get()[1]);
+            }
+        }
+        long attempt = 0;
+        ConstructedDFA constructed = this.constructAttempt(seed, attempt, profile);
+        while (!dfaDiagnoser.isDiagnosable(constructed.compile())) {
+            LOGGER.info("Constructed DFA does have diagnosability! dropped.");
+            constructed = this.constructAttempt(seed, ++attempt, profile);
+        }
+        LOGGER.info("\t==> No of the diagnosable generated dfa : {}", attempt + 1);
+        if (cached)
+            CommonUtils.saveDFAConfigs(filename, constructed.getRoot(), constructed.getDFAConfig());
+        return constructed;
+    }
+
+    /**
+     * Constructs the given attempt of the construction with diagnosability of the given seed.
+     * <br />
+     * Every attempt has its own random generator derived from the seed and the attempt number, so the
+     * attempts can be run by different workers, see {@link ParallelDFAGenerator}.
+     *
+     * @param seed        the seed of the construction.
+     * @param attempt     the attempt number, starting from 0.
+     * @param minXNum     the minimum number of the states in DFA (without extra component).
+     * @param maxXNum     the maximum number of the states in DFA (without extra component).
+     * @param extraNormal control to whether to add extra normal component or not.
+     * @param multiFaulty control to whether to apply multiply faulty mode or not.
+     * @return the constructed random DFA of the attempt with its configuration.
+     */
+    ConstructedDFA constructAttempt(long seed, long attempt, int minXNum, int maxXNum,
+                                    boolean extraNormal, boolean multiFaulty) {
+        return this.constructAttempt(seed, attempt, defaultProfile(minXNum, maxXNum, extraNormal, multiFaulty));
+    }
+
+    /**
+     * Profile version of the {@link #constructAttempt(long, long, int, int, boolean, boolean)} method.
+     *
+     * @param seed    the seed of the construction.
+     * @param attempt the attempt number, starting from 0.
+     * @param profile the profile of the constructed DFA.
+     * @return the constructed random DFA of the attempt with its configuration.
+     */
+    ConstructedDFA constructAttempt(long seed, long attempt, GenerationProfile profile) {
+        DFANode constructed = this.constructRandomDFA(SeededRandom.forStream(seed, attempt), profile, false);
+        dfaConfig.setSeed(seed);
+        dfaConfig.setName(CommonUtils.generateSeededDFAName(seed, profile, true));
+        return new ConstructedDFA(constructed, dfaConfig);
+    }
+
+    @Override
+    public ConstructedDFA constructDiagnosable(long seed, int minXNum, int maxXNum,
+                                              boolean extraNormal, boolean multiFaulty) {
+        return this.constructDiagnosable(seed, defaultProfile(minXNum, maxXNum, extraNormal, multiFaulty));
+    }
+
+    @Override
+    public ConstructedDFA constructDiagnosable(long seed, GenerationProfile profile) {
+        long attempt = 0;
+        ConstructedDFA constructed;
+        while ((constructed = this.constructDiagnosableAttempt(seed, attempt, profile)) == null) {
+            LOGGER.info("A faulty transition can not be added with diagnosability! attempt {} dropped.", attempt);
+            attempt++;
+        }
+        LOGGER.info("Diagnosable dfa constructed, attempts: {}", attempt + 1);
+        return constructed;
+    }
+
+    /**
+     * Constructs the given attempt of the construction diagnosable by construction of the given seed.
+     * <br />
+     * The same as {@link #constructAttempt(long, long, GenerationProfile)}, except that the
+     * diagnosability of the dfa being constructed is checked every time a faulty or inter-component
+     * transition is added (see {@link #addCheckedTransition(DFANode, char, int)}), and a transition breaking
+     * the diagnosability is undone and chosen again.
+     *
+     * @param seed    the seed of the construction.
+     * @param attempt the attempt number, starting from 0.
+     * @param profile the profile of the constructed DFA.
+     * @return the constructed diagnosable DFA of the attempt with its configuration, or null if a faulty
+     * transition can not be added without breaking the diagnosability.
+     */
+    ConstructedDFA constructDiagnosableAttempt(long seed, long attempt, GenerationProfile profile) {
+        incrementalDiagnoser = NeotypeDiagnoser.getInstance(Mode.LAZY);
+        try {
+            DFANode constructed = this.constructRandomDFA(SeededRandom.forStream(seed, attempt), profile, false);
+            if (constructed == null)
+                return null;
+            dfaConfig.setSeed(seed);
+            // named differently from the rejection sampling construction of the same seed.
+            dfaConfig.setName(CommonUtils.generateSeededDFAName(seed, profile, true).concat("_bc"));
+            return new ConstructedDFA(constructed, dfaConfig);
+        } finally {
+            incrementalDiagnoser = null;
+            constructingRoot = null;
+        }
+    }
+
     /**
      * Initialization is needed before constructing DFA.
+     * <br />
+     * The options of the profile which are not set are chosen randomly.
      *
-     * @param minXSize maximum number of the states
-     * @param maxXSize minimum number of the states
+     * @param profile the profile of the DFA to be constructed.
      */
-    private void initialization(int minXSize, int maxXSize) {
-        // TODO: current implementation is less elegant. code refactoring may be needed.
+    private void initialization(GenerationProfile profile) {
         dfaConfig = new DFAConfig(); // allocates a new config every time.
-        Random r = new Random();
-        dfaConfig.stateSize = r.nextInt((maxXSize - minXSize) + 1) + minXSize;
-        dfaConfig.faultyStateSize = Math.max(dfaConfig.stateSize / 10, 4);
+        int minXSize = profile.getMinStates();
+        int maxXSize = profile.getMaxStates();
+        dfaConfig.stateSize = random.nextInt((maxXSize - minXSize) + 1) + minXSize;
+        // fault event size, 0 if it is chosen randomly.
+        int faultEventSize = profile.getFaultEvents();
+        dfaConfig.faultyStateSize = profile.getFaultyStates() > 0 ? profile.getFaultyStates()
+                : Math.max(Math.max(dfaConfig.stateSize / 10, 4), 2 * faultEventSize);
 
         LOGGER.debug("Generated overall state size and faulty state size: {}, {}",
                 dfaConfig.stateSize, dfaConfig.faultyStateSize);
@@ -135,10 +325,15 @@ public class SimpleDFAConstructor implements DFAConstructor {
         for (int i = 0; i < dfaConfig.stateSize; i++) {
             dfaConfig.states[i] = i;
         }
-        // alphabet size: range[6 ~ 16] or [10, 20]
-        int base = dfaConfig.stateSize > 20 ? 10 : 6;
-        int alphabetSize = r.nextInt(11) + base;
+        int alphabetSize = profile.getAlphabetSize();
+        if (alphabetSize == 0) {
+            // alphabet size: range[6 ~ 16] or [10, 20]
+            int base = dfaConfig.stateSize > 20 ? 10 : 6;
+            alphabetSize = Math.max(random.nextInt(11) + base, faultEventSize + 2);
+        }
         dfaConfig.alphabet = new char[alphabetSize];
+        if (alphabetSize > dfaConfig.alphabetSpace.length())
+            dfaConfig.alphabetSpace = GenerationProfile.symbolSpace(alphabetSize);
 
         LOGGER.debug("Chosen alphabet size is {}", alphabetSize);
 
@@ -147,18 +342,22 @@ public class SimpleDFAConstructor implements DFAConstructor {
         boolean[] tempFlags = new boolean[alphabetSpaceLen];
         int tempIndex;
         for (int i = 0; i < dfaConfig.alphabet.length; i++) {
-            tempIndex = r.nextInt(alphabetSpaceLen);
+            tempIndex = random.nextInt(alphabetSpaceLen);
             while (tempFlags[tempIndex]) {
-                tempIndex = r.nextInt(alphabetSpaceLen);
+                tempIndex = random.nextInt(alphabetSpaceLen);
             }
             tempFlags[tempIndex] = true;
             dfaConfig.alphabet[i] = dfaConfig.alphabetSpace.charAt(tempIndex);
         }
-        // faulty event size (make sure it less than a half of alphabet size)
-        int faultEventSize = Math.max(dfaConfig.faultyStateSize / 2, 2);
-        faultEventSize = faultEventSize >= 5 ? 4 : faultEventSize;
-        if (alphabetSize > 15 && (dfaConfig.faultyStateSize / faultEventSize) > 3) {
-            faultEventSize = faultEventSize + r.nextInt(2) + 1;
+        if (faultEventSize == 0) {
+            // faulty event size (make sure it less than a half of alphabet size)
+            faultEventSize = Math.max(dfaConfig.faultyStateSize / 2, 2);
+            faultEventSize = faultEventSize >= 5 ? 4 : faultEventSize;
+            if (alphabetSize > 15 && (dfaConfig.faultyStateSize / faultEventSize) > 3) {
+                faultEventSize = faultEventSize + random.nextInt(2) + 1;
+            }
+            // every faulty component needs 2 states, and at least 2 observable events are needed.
+            faultEventSize = Math.min(faultEventSize, Math.min(dfaConfig.faultyStateSize / 2, alphabetSize - 2));
         }
         dfaConfig.faultyEvents = new int[faultEventSize];
 
@@ -167,9 +366,9 @@ public class SimpleDFAConstructor implements DFAConstructor {
         boolean[] chosenFaultMarks = new boolean[alphabetSize];
         int choose;
         for (int i = 0; i < faultEventSize; i++) {
-            choose = r.nextInt(alphabetSize);
+            choose = random.nextInt(alphabetSize);
             while (chosenFaultMarks[choose])
-                choose = r.nextInt(alphabetSize);
+                choose = random.nextInt(alphabetSize);
             chosenFaultMarks[choose] = true;
             dfaConfig.faultyEvents[i] = choose;
         }
@@ -195,11 +394,10 @@ public class SimpleDFAConstructor implements DFAConstructor {
         LOGGER.debug("selected unobservable events : {}", Arrays.toString(dfaConfig.unobservableEvents));
     }
 
-    // TODO: a fixed state size version should be implemented.
-
     /**
      * Returns a constructed random DFA.
      *
+     * @param random                the random generator used to construct the DFA.
      * @param minXNum               the maximum number of the states in the constructed DFA
      *                              (without extra normal component).
      * @param maxXNum               the minimum number of the states in the constructed DFA
@@ -207,19 +405,48 @@ public class SimpleDFAConstructor implements DFAConstructor {
      * @param withAnotherNormalComp control to whether to add extra normal component or not.
      * @param multiFaulty           control to whether to apply multiply faulty mode for constructing DFA or not.
      * @param saveConfig            control to whether to save the configurations of the constructed DFA.
-     * @return A constructed random DFA.
+     * @return A constructed random DFA, or null if a faulty transition can not be added when constructing
+     * dfa diagnosable by construction.
      */
     // default implementation of the random dfa construction.
-    private DFANode constructRandomDFAWithExtraNormalComp(int minXNum, int maxXNum,
+    private DFANode constructRandomDFAWithExtraNormalComp(Random random, int minXNum, int maxXNum,
                                                           boolean withAnotherNormalComp,
                                                           boolean multiFaulty, boolean saveConfig) {
-        // TODO: range checking may be needed or refactoring
+        return this.constructRandomDFA(random, defaultProfile(minXNum, maxXNum, withAnotherNormalComp, multiFaulty),
+                saveConfig);
+    }
+
+    // returns the profile of the default random dfa construction, all options except states are chosen randomly.
+    private static GenerationProfile defaultProfile(int minXNum, int maxXNum,
+                                                    boolean extraNormal, boolean multiFaulty) {
         if (minXNum <= 10)
             throw new IllegalArgumentException("Given minXNum should be larger than 10.");
         if (minXNum >= maxXNum)
             throw new IllegalArgumentException("maxXNum must greater than minXNum!");
+        return GenerationProfile.builder().states(minXNum, maxXNum)
+                .extraNormal(extraNormal).multiFaulty(multiFaulty).build();
+    }
+
+    /**
+     * Returns a constructed random DFA of the given profile.
+     *
+     * @param random     the random generator used to construct the DFA.
+     * @param profile    the profile of the constructed DFA.
+     * @param saveConfig control to whether to save the configurations of the constructed DFA.
+     * @return A constructed random DFA, or null if a faulty transition can not be added when constructing
+     * dfa diagnosable by construction.
+     */
+    private DFANode constructRandomDFA(Random random, GenerationProfile profile, boolean saveConfig) {
+        boolean withAnotherNormalComp = profile.isExtraNormal();
+        boolean multiFaulty = profile.isMultiFaulty();
         LOGGER.info("Do preparation before constructing the DFA...");
-        this.initialization(minXNum, maxXNum);
+        this.random = random;
+        this.initialization(profile);
+        this.unobservablePredecessors = new HashMap<>();
+        this.faultyStatesCache = new HashMap<>();
+        this.unobservableAncestors = new HashMap<>();
+        this.componentBuilder = new GraphComponentBuilder(dfaConfig, random,
+                profile.getMinOutDegree(), profile.getMaxOutDegree());
         LOGGER.info("Preparation done.");
 
         // divides states into normal set and faulty set.
@@ -229,18 +456,24 @@ public class SimpleDFAConstructor implements DFAConstructor {
 
         LOGGER.debug("Divided normal states set : [{}:{})", 0, normalStateRange);
 
-        DFANode normalComponent = constructGraphComponent(dfaConfig.states, 0, normalStateRange, 0);
+        DFANode normalComponent = componentBuilder.build(dfaConfig.states, 0, normalStateRange, 0);
+        constructingRoot = normalComponent;
         LOGGER.debug("====>\t normal component constructed.");
         DFANode[] faultyComponents = new DFANode[dfaConfig.faultyEvents.length];
 
+        int[] sizes = profile.getFaultyComponentSizes();
         int steps = dfaConfig.faultyStateSize / dfaConfig.faultyEvents.length;
         int faultyStart = normalStateRange;
-        int faultyEnd = faultyStart + steps;
+        int faultyEnd = faultyStart + (sizes == null ? steps : sizes[0]);
         for (int i = 0; i < dfaConfig.faultyEvents.length; i++) {
             LOGGER.debug("Divided fault set {}, range: [{}:{})", i, faultyStart, faultyEnd);
-            faultyComponents[i] = constructGraphComponent(dfaConfig.states, faultyStart, faultyEnd, 0);
+            faultyComponents[i] = componentBuilder.build(dfaConfig.states, faultyStart, faultyEnd, 0);
             LOGGER.debug("====>\t faulty component_" + i + " constructed.");
             faultyStart = faultyEnd;
+            if (sizes != null) {
+                faultyEnd = faultyEnd + (i + 1 < sizes.length ? sizes[i + 1] : 0);
+                continue;
+            }
             faultyEnd = faultyEnd + steps;
             if (dfaConfig.stateSize - faultyEnd < steps)
                 faultyEnd = dfaConfig.stateSize;
@@ -249,34 +482,38 @@ public class SimpleDFAConstructor implements DFAConstructor {
         LOGGER.debug("Composing all the components...");
         int minSteps = 10;
         int maxSteps = dfaConfig.stateSize > 20 ? 30 : 20;
+        // set multi-faulty flag of the configuration (before connecting, the diagnosability of the dfa being
+        // constructed may be checked).
+        dfaConfig.setMultiFaulty(multiFaulty);
         int faultyType = 0;
         for (DFANode component : faultyComponents)
-            connectingCompWithFaultyComp(normalComponent, component, faultyType++,
-                    minSteps, maxSteps, false);
+            if (!connectingCompWithFaultyComp(normalComponent, component, faultyType++,
+                    minSteps, maxSteps, false))
+                return null;
 
-        if (multiFaulty) {
-            // set multi-faulty flag of the configuration.
-            dfaConfig.setMultiFaulty(true);
+        // multi-faulty components can not be connected if there is only one faulty component.
+        if (multiFaulty && faultyComponents.length > 1) {
             LOGGER.debug("Multiply faulty mode is considered.");
             minSteps = dfaConfig.faultyEvents.length;
             maxSteps = minSteps + 5;
             // FIXME: current implementation is much complicated. more simple one should be considered.
             // For most constructed dfa, it does not has the diagnosability.
-            Random r = new Random();
             int numOfFaultyComps = faultyComponents.length;
             boolean[] selected = new boolean[numOfFaultyComps];
             for (int i = 0; i < numOfFaultyComps; i++) {
                 // mark current faulty component as selected
                 selected[i] = true;
-                int numOfCompsToBeConnected = r.nextInt(numOfFaultyComps - 1) + 1;
+                int numOfCompsToBeConnected = random.nextInt(numOfFaultyComps - 1) + 1;
                 for (int j = 0; j < numOfCompsToBeConnected; j++) {
-                    int chosen = r.nextInt(numOfFaultyComps);
+                    int chosen = random.nextInt(numOfFaultyComps);
                     while (chosen == i || selected[chosen]) {
-                        chosen = r.nextInt(numOfFaultyComps);
+                        chosen = random.nextInt(numOfFaultyComps);
                     }
                     selected[chosen] = true;
-                    connectingCompWithFaultyComp(faultyComponents[i], faultyComponents[chosen], chosen,
-                            minSteps, maxSteps, true);
+                    if (!connectingCompWithFaultyComp(faultyComponents[i], faultyComponents[chosen], chosen,
+                            minSteps, maxSteps, true))
+                        LOGGER.debug("Faulty component {} can not be connected to component {} with "
+                                + "diagnosability, skipped.", i, chosen);
                 }
                 // reset selected flags.
                 Arrays.fill(selected, false);
@@ -287,7 +524,9 @@ public class SimpleDFAConstructor implements DFAConstructor {
         if (withAnotherNormalComp) {
             // Set extra normal flag.
             dfaConfig.setExtraNormal(true);
-            int[] acStates = new int[dfaConfig.stateSize / 2];
+            int extraSize = profile.getExtraNormalStates() > 0 ? profile.getExtraNormalStates()
+                    : Math.max(dfaConfig.stateSize / 2, 2);
+            int[] acStates = new int[extraSize];
             // initialization.
             for (int i = 0; i < acStates.length; i++)
                 acStates[i] = i;
@@ -296,7 +535,7 @@ public class SimpleDFAConstructor implements DFAConstructor {
             LOGGER.debug("Add another normal graph component for every faulty component, extra size: {}",
                     acStates.length);
             LOGGER.debug("Extra range to be added: [{},{})", mapKeyStart, mapKeyStart + acStates.length);
-            DFANode anotherNormalComponent = constructGraphComponent(acStates, 0, acStates.length, mapKeyStart);
+            DFANode anotherNormalComponent = componentBuilder.build(acStates, 0, acStates.length, mapKeyStart);
             LOGGER.debug("====>\t Extra normal graph component constructed.");
             for (DFANode component : faultyComponents)
                 connectingFaultyCompWithNormalComp(component, anotherNormalComponent);
@@ -323,117 +562,6 @@ public class SimpleDFAConstructor implements DFAConstructor {
         CommonUtils.saveDFAConfigs(filename, dfaRoot, dfaConfig);
     }
 
-    /**
-     * Constructing a direct graph component over {@code states} with range of
-     * {@code start} to {@code end}.
-     *
-     * @param states      the given states to constructs dfa graph component.
-     * @param start       starting index of the range
-     * @param end         ending index of the range.
-     * @param mapKeyStart the start index bias of the key in dfaConfig.statesMap.
-     * @return Constructed direct graph dfa component.
-     */
-    private DFANode constructGraphComponent(int[] states, int start, int end, int mapKeyStart) {
-        // TODO: index range validation may needed.
-        int size = end - start;
-        int steps = 0;
-        boolean[] visited = new boolean[states.length];
-        int rootState = states[start] + mapKeyStart;
-        DFANode root = new DFANode(rootState);
-        dfaConfig.statesMap.put(rootState, root);
-
-        visited[start] = true;
-        steps++;
-        // tracking unvisited states.
-        int[] unvisitedStates = Arrays.copyOfRange(states, start + 1, end);
-        List<Integer> unvisitedList = new ArrayList<>();
-        for (int state : unvisitedStates)
-            unvisitedList.add(state);
-
-        Random r = new Random();
-        DFANode pNode = root;
-        while (steps < size) {
-            // randomly choose another state from unvisited states set.
-            int nextXIndex = r.nextInt(unvisitedList.size());
-            int nextState = unvisitedList.get(nextXIndex);
-            // add new state to Config.statesMap.
-            int tempNextState = nextState + mapKeyStart;
-            if (!dfaConfig.statesMap.containsKey(tempNextState)) {
-                DFANode nextNode = new DFANode(tempNextState);
-                dfaConfig.statesMap.put(tempNextState, nextNode);
-            }
-            addRandomTransition(pNode, tempNextState);
-            // for every node, attaching it with 2 ~ 4 nodes.
-            // including itself. adding more nodes.
-            int connections = r.nextInt(3) + 1;
-            for (int i = 0; i < connections; i++) {
-                // randomly choose one state (can be visited, btw, itself is adapted)
-                int ns = r.nextInt(size) + start;
-                int tnState = states[ns] + mapKeyStart;
-                if (!dfaConfig.statesMap.containsKey(tnState)) {
-                    DFANode newNode = new DFANode(tnState);
-                    dfaConfig.statesMap.put(tnState, newNode);
-                }
-                addRandomTransition(pNode, tnState);
-            }
-            // navigating to one unvisited node.
-            Character[] unvisitedTransitionSymbols = getUnvisitedTransitionSymbols(pNode, visited, mapKeyStart);
-            int navigatingSymbolIndex = r.nextInt(unvisitedTransitionSymbols.length);
-            pNode = pNode.navigate(unvisitedTransitionSymbols[navigatingSymbolIndex], dfaConfig);
-            // mark new income state as visited.
-            if (!visited[pNode.state - mapKeyStart]) {
-                visited[pNode.state - mapKeyStart] = true;
-                unvisitedList.remove((Integer) (pNode.state - mapKeyStart));
-                steps++;
-            }
-            // for last visited node. add 1~2 more transitions.
-            if (steps == size) {
-                int c = r.nextInt(2) + 1;
-                for (int i = 0; i < c; i++) {
-                    int ns = r.nextInt(size) + start;
-                    addRandomTransition(pNode, states[ns] + mapKeyStart);
-                }
-            }
-        }
-        return root;
-    }
-
-    // Returns symbols set (non leading to current node or visited nodes)
-    private static Character[] getUnvisitedTransitionSymbols(DFANode curr, boolean[] visited,
-                                                             int mapKeyStart) {
-        return curr.transitions.keySet().stream()
-                .filter(s ->
-                        curr.transitions.get(s) != curr.state && !visited[curr.transitions.get(s) - mapKeyStart]
-                ).toArray(Character[]::new);
-    }
-
-    // Randomly add transition for the given dfa node.
-    private void addRandomTransition(DFANode curr, int nextState) {
-        // randomly choose a symbol from observable events set \ transition events.
-        // Choose a symbol (event) not in transition table of current node already.
-        Random r = new Random();
-        int observableEventSize = dfaConfig.observableEvents.length;
-
-        Character[] obs = new Character[observableEventSize];
-        for (int i = 0; i < observableEventSize; i++)
-            obs[i] = dfaConfig.observableEvents[i];
-
-        Character[] unattachedSymbols = Arrays.stream(obs)
-                .filter(s -> {
-                    for (char c : curr.transitions.keySet())
-                        if (c == s) return false;
-                    return true;
-                }).toArray(Character[]::new);
-
-        // if all symbols are attached to current node, skipping it.
-        if (unattachedSymbols.length == 0)
-            return;
-
-        int nextSymbolIndex = r.nextInt(unattachedSymbols.length);
-        char nextSymbol = unattachedSymbols[nextSymbolIndex];
-        curr.addTransition(nextSymbol, nextState);
-    }
-
     /**
      * Composing second DFA component into first one.
      *
@@ -444,97 +572,202 @@ public class SimpleDFAConstructor implements DFAConstructor {
      * @param maxSteps  the maximum number of the navigations for {@code compA} to take
      *                  before add faulty transition.
      * @param allFaulty whether the given dfa components are all faulty or not.
+     * @return true if the faulty transition is added, false if it can not be added without breaking the
+     * diagnosability (only when constructing dfa diagnosable by construction).
      */
-    private void connectingCompWithFaultyComp(DFANode compA, DFANode compB,
-                                              int faultyMode, int minSteps, int maxSteps,
-                                              boolean allFaulty) {
+    private boolean connectingCompWithFaultyComp(DFANode compA, DFANode compB,
+                                                 int faultyMode, int minSteps, int maxSteps,
+                                                 boolean allFaulty) {
         // if the given components are the same, return and do nothing.
         if (compA.equals(compB))
-            return;
+            return true;
+        char faultyEvent = dfaConfig.unobservableEvents[faultyMode];
         DFANode pNode = compA;
         DFANode fpNode = compB;
-        Random r = new Random();
         if (allFaulty) {
-            // FIXME: faulty components connecting algorithm may has error logic implementation.
-            Integer[] firstFsArr = getFaultyStates(pNode);
-            Integer[] secondFsArr = getFaultyStates(fpNode);
-            fpNode = dfaConfig.statesMap.get(secondFsArr[r.nextInt(secondFsArr.length)]);
-            // select a a node which do not have an unobservable transition to first component's node.
-            Set<Integer> recStack = new HashSet<>();
-            Set<Integer> visitedKeys = new HashSet<>();
-            recStack.add(pNode.state);
-            visitedKeys.add(pNode.state);
-            while (existsUnobservableCycle(fpNode, recStack, visitedKeys)) {
-                pNode = dfaConfig.statesMap.get(firstFsArr[r.nextInt(firstFsArr.length)]);
-                fpNode = dfaConfig.statesMap.get(secondFsArr[r.nextInt(secondFsArr.length)]);
-                recStack.clear();
-                visitedKeys.clear();
-                recStack.add(pNode.state);
-                visitedKeys.add(pNode.state);
+            // only unobservable transitions are added between the faulty components, the faulty states lists
+            // are the same for every connection.
+            Integer[] firstFsArr = faultyStatesCache.computeIfAbsent(pNode.state, k -> getFaultyStates(compA));
+            Integer[] secondFsArr = faultyStatesCache.computeIfAbsent(fpNode.state, k -> getFaultyStates(compB));
+            // a faulty transition to the states reaching the chosen state of the first component by
+            // unobservable transitions would make an unobservable cycle, so only the valid pairs are chosen.
+            // (more attempts are only taken when the transition breaks the diagnosability)
+            for (int attempt = 1; ; attempt++) {
+                int[] pair = chooseValidPair(firstFsArr, secondFsArr);
+                if (pair == null) {
+                    LOGGER.debug("No pair of the faulty states can be connected without unobservable cycle.");
+                    return false;
+                }
+                if (addCheckedTransition(dfaConfig.statesMap.get(pair[0]), faultyEvent, pair[1]))
+                    return true;
+                if (attempt >= MAX_TRANSITION_ATTEMPTS)
+                    return false;
             }
-        } else {
-            // traverses several steps, and then adding the faulty transition
-            // to the node which we stop at.
-            int rt = r.nextInt(maxSteps - minSteps + 1) + minSteps;
+        }
+        // traverses several steps, and then adding the faulty transition
+        // to the node which we stop at.
+        for (int attempt = 1; ; attempt++) {
+            int rt = random.nextInt(maxSteps - minSteps + 1) + minSteps;
             while (rt > 0) {
                 // filtering the unobservable events
                 Character[] symbols = getObservableEvent(pNode);
-                char symbol = symbols[r.nextInt(symbols.length)];
+                char symbol = symbols[random.nextInt(symbols.length)];
                 pNode = pNode.navigate(symbol, dfaConfig);
                 rt--;
             }
+            if (addCheckedTransition(pNode, faultyEvent, fpNode.state))
+                return true;
+            if (attempt >= MAX_TRANSITION_ATTEMPTS)
+                return false;
+            pNode = compA;
+        }
+    }
+
+    // adds the given transition, when constructing dfa diagnosable by construction, the transition is undone
+    // and false is returned if the dfa being constructed is not diagnosable any more.
+    private boolean addCheckedTransition(DFANode node, char symbol, int nextState) {
+        Integer previous = node.transitions.get(symbol);
+        node.addTransition(symbol, nextState);
+        if (isDiagnosableSoFar()) {
+            if (isUnobservable(symbol)) {
+                if (previous != null)
+                    unobservablePredecessors.get(previous).remove((Integer) node.state);
+                unobservablePredecessors.computeIfAbsent(nextState, k -> new ArrayList<>()).add(node.state);
+                updateUnobservableAncestors(node.state, previous, nextState);
+            }
+            return true;
         }
-        pNode.addTransition(dfaConfig.unobservableEvents[faultyMode], fpNode.state);
+        if (previous == null)
+            node.removeTransition(symbol);
+        else
+            node.addTransition(symbol, previous);
+        return false;
+    }
+
+    // returns true if not constructing dfa diagnosable by construction, or the dfa being constructed
+    // (the states reachable from its root) is diagnosable.
+    // NOTICE: not incremental, the whole dfa is compiled and tested every time, see constructDiagnosable.
+    private boolean isDiagnosableSoFar() {
+        return incrementalDiagnoser == null
+                || incrementalDiagnoser.isDiagnosable(new CompiledDFA(constructingRoot, dfaConfig));
     }
 
-    // returns the faulty states list of the given dfa node.
+    // returns the faulty states list of the given dfa node, in breadth-first order of the observable
+    // transitions. (a state reached by several transitions of one node is listed several times)
     private Integer[] getFaultyStates(DFANode node) {
         List<Integer> faultyStates = new ArrayList<>();
-        Set<Integer> visitedStates = new HashSet<>();
+        // states visited or in the queue.
+        Set<Integer> discovered = new HashSet<>();
         Deque<DFANode> queue = new ArrayDeque<>();
+        List<DFANode> successors = new ArrayList<>();
         queue.offer(node);
+        discovered.add(node.state);
         while (!queue.isEmpty()) {
             DFANode fppNode = queue.poll();
             faultyStates.add(fppNode.state);
-            visitedStates.add(fppNode.state);
-            queue.addAll(fppNode.transitions.keySet().stream()
-                    .filter(s -> {
-                        for (char ue : dfaConfig.unobservableEvents)
-                            if (ue == s) return false;
-                        return true;
-                    })
-                    .map(s -> fppNode.navigate(s, dfaConfig))
-                    .filter(n -> !visitedStates.contains(n.state) && !queue.contains(n))
-                    .collect(Collectors.toList()));
+            for (char s : fppNode.transitions.keySet()) {
+                if (isUnobservable(s))
+                    continue;
+                DFANode n = fppNode.navigate(s, dfaConfig);
+                if (!discovered.contains(n.state))
+                    successors.add(n);
+            }
+            for (DFANode n : successors) {
+                discovered.add(n.state);
+                queue.offer(n);
+            }
+            successors.clear();
         }
         return faultyStates.toArray(new Integer[0]);
     }
 
-    // returns true if there exists a unobservable event cycle starting from
-    // the given nodes.(root node is already in recursion stack and visited set)
-    private boolean existsUnobservableCycle(DFANode node, Set<Integer> recStack,
-                                            Set<Integer> visitedKeys) {
-        if (recStack.contains(node.state))
-            return true;
-        if (visitedKeys.contains(node.state))
-            return false;
+    // updates the unobservable ancestors after the unobservable transition of the given source is changed
+    // from the previous state (null if none) to the next state. the unobservable transitions form no cycle,
+    // since a faulty transition is never added to the ancestors of its source.
+    private void updateUnobservableAncestors(int source, Integer previous, int next) {
+        // the ancestors of the states reached from the previous state may be lost, they are computed again.
+        if (previous != null)
+            for (int state : unobservableDescendants(previous))
+                unobservableAncestors.put(state, computeUnobservableAncestors(state));
+        // the states reached from the next state are reached from the ancestors of the source as well.
+        BitSet gained = unobservableAncestors.get(source);
+        if (gained == null) {
+            gained = new BitSet();
+            gained.set(source);
+        }
+        for (int state : unobservableDescendants(next))
+            unobservableAncestors.computeIfAbsent(state, this::computeUnobservableAncestors).or(gained);
+    }
 
-        visitedKeys.add(node.state);
-        recStack.add(node.state);
+    // returns the given state and the states reached from it by unobservable transitions.
+    private List<Integer> unobservableDescendants(int state) {
+        List<Integer> result = new ArrayList<>();
+        Set<Integer> discovered = new HashSet<>();
+        result.add(state);
+        discovered.add(state);
+        for (int i = 0; i < result.size(); i++) {
+            for (Map.Entry<Character, Integer> t : dfaConfig.statesMap.get(result.get(i)).transitions.entrySet())
+                if (isUnobservable(t.getKey()) && discovered.add(t.getValue()))
+                    result.add(t.getValue());
+        }
+        return result;
+    }
 
-        List<DFANode> children = node.transitions.keySet().stream()
-                .filter(s -> {
-                    for (char ue : dfaConfig.unobservableEvents)
-                        if (ue == s) return true;
-                    return false;
-                })
-                .map(s -> node.navigate(s, dfaConfig))
-                .collect(Collectors.toList());
-        for (DFANode n : children)
-            if (existsUnobservableCycle(n, recStack, visitedKeys))
-                return true;
+    // computes the states reaching the given state by unobservable transitions (including itself).
+    private BitSet computeUnobservableAncestors(int state) {
+        BitSet result = new BitSet();
+        Deque<Integer> stack = new ArrayDeque<>();
+        result.set(state);
+        stack.push(state);
+        while (!stack.isEmpty()) {
+            List<Integer> predecessors = unobservablePredecessors.get(stack.pop());
+            if (predecessors == null)
+                continue;
+            for (int predecessor : predecessors) {
+                if (!result.get(predecessor)) {
+                    result.set(predecessor);
+                    stack.push(predecessor);
+                }
+            }
+        }
+        return result;
+    }
+
+    // returns true if the second state reaches the first state by unobservable transitions.
+    private boolean reachesByUnobservable(int first, int second) {
+        BitSet ancestors = unobservableAncestors.get(first);
+        return ancestors == null ? first == second : ancestors.get(second);
+    }
 
-        recStack.remove(node.state);
+    // randomly chooses a pair of the given states, the second one not reaching the first one by unobservable
+    // transitions. returns null if no such pair.
+    private int[] chooseValidPair(Integer[] firstFsArr, Integer[] secondFsArr) {
+        int[] sources = new int[firstFsArr.length];
+        int sourceCount = 0;
+        for (int state : firstFsArr) {
+            // usually the first target is valid, most states are reached by no unobservable transition.
+            for (int target : secondFsArr) {
+                if (!reachesByUnobservable(state, target)) {
+                    sources[sourceCount++] = state;
+                    break;
+                }
+            }
+        }
+        if (sourceCount == 0)
+            return null;
+        int source = sources[random.nextInt(sourceCount)];
+        int[] targets = new int[secondFsArr.length];
+        int targetCount = 0;
+        for (int target : secondFsArr)
+            if (!reachesByUnobservable(source, target))
+                targets[targetCount++] = target;
+        return new int[]{source, targets[random.nextInt(targetCount)]};
+    }
+
+    private boolean isUnobservable(char symbol) {
+        for (char ue : dfaConfig.unobservableEvents)
+            if (ue == symbol)
+                return true;
         return false;
     }
 
@@ -550,27 +783,34 @@ public class SimpleDFAConstructor implements DFAConstructor {
 
     // connects the given faulty component with the given normal component ( by adding a observable transition).
     private void connectingFaultyCompWithNormalComp(DFANode faulty, DFANode normal) {
-        DFANode pNode = faulty;
-        DFANode npNode = normal;
-
-        Random r = new Random();
-        int rt = r.nextInt(dfaConfig.faultyEvents.length) + 2;
-        // randomly navigating several times in faulty component.
-        while (rt > 0) {
-            Character[] symbols = getObservableEvent(pNode);
-            char symbol = symbols[r.nextInt(symbols.length)];
-            pNode = pNode.navigate(symbol, dfaConfig);
-            rt--;
-        }
-        // also randomly navigating several times in normal component.
-        int nrt = r.nextInt(Math.min(dfaConfig.stateSize / 3, 10)) + 3;
-        while (nrt > 0) {
-            Character[] symbols = npNode.transitions.keySet().toArray(new Character[0]);
-            char symbol = symbols[r.nextInt(symbols.length)];
-            npNode = npNode.navigate(symbol, dfaConfig);
-            nrt--;
+        for (int attempt = 1; attempt <= MAX_TRANSITION_ATTEMPTS; attempt++) {
+            DFANode pNode = faulty;
+            DFANode npNode = normal;
+
+            int rt = random.nextInt(dfaConfig.faultyEvents.length) + 2;
+            // randomly navigating several times in faulty component.
+            while (rt > 0) {
+                Character[] symbols = getObservableEvent(pNode);
+                char symbol = symbols[random.nextInt(symbols.length)];
+                pNode = pNode.navigate(symbol, dfaConfig);
+                rt--;
+            }
+            // also randomly navigating several times in normal component.
+            int nrt = random.nextInt(Math.min(dfaConfig.stateSize / 3, 10)) + 3;
+            while (nrt > 0) {
+                Character[] symbols = npNode.transitions.keySet().toArray(new Character[0]);
+                char symbol = symbols[random.nextInt(symbols.length)];
+                npNode = npNode.navigate(symbol, dfaConfig);
+                nrt--;
+            }
+            char added = componentBuilder.addRandomTransition(pNode, npNode.state);
+            if (added == 0 || isDiagnosableSoFar())
+                return;
+            // undo the transition breaking the diagnosability.
+            pNode.removeTransition(added);
         }
-        addRandomTransition(pNode, npNode.state);
+        LOGGER.debug("Faulty component can not be connected to the extra normal component with diagnosability, "
+                + "skipped.");
     }
 
     // getter.
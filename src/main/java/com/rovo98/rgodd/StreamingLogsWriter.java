@@ -0,0 +1,247 @@
+package com.rovo98.rgodd;
+
+import com.rovo98.rgodd.utils.LongIntHashMap;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the generated running logs to disk while they are generated, instead of keeping all of them
+ * in memory, see {@link RunningLogsGenerator#generateStreaming(int, CompiledDFA, Path)}.
+ * <br />
+ * <br />
+ * Conflicted logs are handled the same as the in-memory generation: a log whose observation is already
+ * added with the same label is ignored, and a log with a different label removes the added observation.
+ * Only a 64-bit fingerprint of every observation is kept in memory (see {@link #fingerprint(char[], int)}),
+ * together with its current label.
+ * <br />
+ * Since an added log may be removed later, the added logs are appended to a temporary body file first.
+ * When finishing, the statistics header is written to the target file, followed by the logs of the body
+ * which are still added (a filtering pass over the body), and the body is deleted.
+ * <br />
+ * For checkpointed generation, the body can be synced (see {@link #sync()}) and the in-memory state saved
+ * (see {@link #writeState(DataOutput)}), a synced body is kept when the writer is finished or closed, so
+ * that the writer can be resumed later, see {@link #resume(Path, long, DataInput)}.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.10
+ */
+final class StreamingLogsWriter implements Closeable {
+    // values of the fingerprints map: label + 1 if the observation is added, REMOVED otherwise.
+    private static final int REMOVED = 0;
+
+    private final LongIntHashMap fingerprints;
+    private final int[] statistics;
+    private final String[] labels;
+    private final Path bodyPath;
+    private final FileChannel channel;
+    private final Writer body;
+    private int size;
+    private boolean synced;
+
+    /**
+     * Creates a writer appending the added logs to the given body file.
+     *
+     * @param bodyPath     the temporary body file.
+     * @param numLabels    the number of the labels of the logs.
+     * @param expectedSize the expected number of the logs.
+     * @throws IOException if the body file can not be created.
+     */
+    StreamingLogsWriter(Path bodyPath, int numLabels, int expectedSize) throws IOException {
+        this(bodyPath, new LongIntHashMap(expectedSize), new int[numLabels], 0,
+                FileChannel.open(bodyPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE));
+    }
+
+    private StreamingLogsWriter(Path bodyPath, LongIntHashMap fingerprints, int[] statistics, int size,
+                                FileChannel channel) {
+        this.fingerprints = fingerprints;
+        this.statistics = statistics;
+        this.size = size;
+        this.labels = new String[statistics.length];
+        for (int i = 0; i < labels.length; i++)
+            labels[i] = Integer.toString(i);
+        this.bodyPath = bodyPath;
+        this.channel = channel;
+        this.body = new BufferedWriter(new OutputStreamWriter(
+                Channels.newOutputStream(channel), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    /**
+     * Resumes a writer from the state saved by {@link #writeState(DataOutput)}, the body is truncated to the
+     * given length (synced when the state is saved), i.e. the logs added after saving are discarded.
+     *
+     * @param bodyPath   the body file.
+     * @param bodyLength the length of the body when the state is saved.
+     * @param in         the input of the saved state.
+     * @return the resumed writer.
+     * @throws IOException if the state can not be read, or the body is shorter than the given length.
+     */
+    static StreamingLogsWriter resume(Path bodyPath, long bodyLength, DataInput in) throws IOException {
+        int size = in.readInt();
+        int[] statistics = new int[in.readInt()];
+        for (int i = 0; i < statistics.length; i++)
+            statistics[i] = in.readInt();
+        LongIntHashMap fingerprints = LongIntHashMap.readFrom(in);
+
+        FileChannel channel = FileChannel.open(bodyPath, StandardOpenOption.WRITE);
+        if (channel.size() < bodyLength) {
+            channel.close();
+            throw new IOException("The body " + bodyPath + " is shorter than the checkpointed length: "
+                    + bodyLength);
+        }
+        channel.truncate(bodyLength);
+        channel.position(bodyLength);
+        StreamingLogsWriter writer = new StreamingLogsWriter(bodyPath, fingerprints, statistics, size, channel);
+        writer.synced = true;
+        return writer;
+    }
+
+    /**
+     * Adds the given log, conflicted logs are handled the same as the in-memory generation.
+     *
+     * @param observation the buffer containing the observation of the log.
+     * @param length      the length of the observation.
+     * @param label       the label of the log.
+     * @return true if the log is added; otherwise false.
+     * @throws IOException if the log can not be written.
+     */
+    boolean add(char[] observation, int length, int label) throws IOException {
+        long key = fingerprint(observation, length);
+        int value = fingerprints.get(key);
+        if (value > REMOVED) {
+            // ignoring added logs, and removing the conflicted logs.
+            if (value != label + 1) {
+                fingerprints.put(key, REMOVED);
+                statistics[value - 1]--;
+                size--;
+            }
+            return false;
+        }
+        fingerprints.put(key, label + 1);
+        statistics[label]++;
+        size++;
+        body.write(observation, 0, length);
+        body.write('T');
+        body.write(labels[label]);
+        body.write('\n');
+        return true;
+    }
+
+    /**
+     * Returns the number of the added logs (conflicted logs are removed).
+     *
+     * @return the number of the added logs.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of the added logs of every label.
+     *
+     * @return the statistics of the added logs.
+     */
+    int[] getStatistics() {
+        return statistics.clone();
+    }
+
+    /**
+     * Flushes the added logs to the body, and forces them to the storage device.
+     * <br />
+     * Once synced, the body is kept when the writer is finished or closed.
+     *
+     * @return the length of the body.
+     * @throws IOException if the body can not be synced.
+     */
+    long sync() throws IOException {
+        body.flush();
+        channel.force(false);
+        synced = true;
+        return channel.size();
+    }
+
+    /**
+     * Writes the in-memory state (the statistics and the fingerprints of the added logs) to the given output,
+     * it should be written right after {@link #sync()}.
+     *
+     * @param out the output.
+     * @throws IOException if the state can not be written.
+     */
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(statistics.length);
+        for (int count : statistics)
+            out.writeInt(count);
+        fingerprints.writeTo(out);
+    }
+
+    /**
+     * Writes the given header and the added logs to the target file, and then deletes the body (unless it is
+     * synced).
+     * <br />
+     * NOTICE: the writer can not add logs after finishing, and its state should be saved before finishing.
+     *
+     * @param target the target file.
+     * @param header the statistics header (the first line of the target file).
+     * @throws IOException if the logs can not be written.
+     */
+    void finish(Path target, String header) throws IOException {
+        body.close();
+        try (BufferedReader reader = Files.newBufferedReader(bodyPath, StandardCharsets.UTF_8);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                     Files.newOutputStream(target), StandardCharsets.UTF_8), 1 << 16)) {
+            writer.write(header);
+            writer.newLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int t = line.lastIndexOf('T');
+                long key = fingerprint(line.toCharArray(), t);
+                // only the logs still added with the same label, and every observation only once.
+                if (fingerprints.get(key) != Integer.parseInt(line.substring(t + 1)) + 1)
+                    continue;
+                fingerprints.put(key, REMOVED);
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        if (!synced)
+            Files.delete(bodyPath);
+    }
+
+    // closes and deletes the body (unless it is synced), if the writer is not finished.
+    @Override
+    public void close() throws IOException {
+        body.close();
+        if (!synced)
+            Files.deleteIfExists(bodyPath);
+    }
+
+    /**
+     * Returns the 64-bit fingerprint (FNV-1a hash, with a final avalanche step) of the given observation.
+     * <br />
+     * REMARKS: different observations may have the same fingerprint, but the probability is about
+     * {@code n^2 / 2^65} for n observations, e.g. less than 1e-5 for ten millions of observations.
+     *
+     * @param observation the buffer containing the observation.
+     * @param length      the length of the observation.
+     * @return the fingerprint of the observation.
+     */
+    static long fingerprint(char[] observation, int length) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            h ^= observation[i];
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,197 @@
+package com.rovo98.rgodd;
+
+import java.io.Serializable;
+import java.util.Random;
+
+/**
+ * Transition probabilities of a compiled dfa, for weighted running logs generation.
+ * <br />
+ * By default, the running logs are generated by walks taking a uniformly chosen transition each step.
+ * With transition weights, the i-th transition of a state is taken with probability
+ * {@code weight(state, i) / (sum of the weights of the state)}.
+ * <br />
+ * The weights of every state are precomputed into an alias table (Vose's alias method) when constructing,
+ * so that sampling a transition takes O(1) time regardless of the out-degree of the state, see
+ * {@link #sample(int, Random)}. The tables are kept in the same compact (CSR) layout as the transitions
+ * of the {@link CompiledDFA}, and can be shared by any number of walks and threads.
+ * <br />
+ * NOTICE: the weights are bound to the dfa they are built from, see
+ * {@link RunningLogsGenerator#setTransitionWeights(TransitionWeights)}.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.13
+ */
+public final class TransitionWeights implements Serializable {
+    private static final long serialVersionUID = -2405379512036685117L;
+
+    /**
+     * Weight of a transition of the dfa.
+     */
+    @FunctionalInterface
+    public interface Weight {
+        /**
+         * Returns the weight of the transition of the given symbol defined on the given state.
+         *
+         * @param state  the original state.
+         * @param symbol the symbol of the transition.
+         * @return the weight of the transition, should be a non-negative finite number.
+         */
+        double of(int state, char symbol);
+    }
+
+    private final CompiledDFA dfa;
+    private final int[] offsets;
+    // alias tables: the i-th transition of a state is kept with probability probabilities[offset + i],
+    // and replaced by its alias otherwise.
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    private TransitionWeights(CompiledDFA dfa, double[] weights) {
+        int stateCount = dfa.getStateCount();
+        this.dfa = dfa;
+        this.offsets = new int[stateCount + 1];
+        for (int state = 0; state < stateCount; state++)
+            offsets[state + 1] = offsets[state] + dfa.outDegree(state);
+        this.probabilities = new double[offsets[stateCount]];
+        this.aliases = new int[offsets[stateCount]];
+
+        int[] small = new int[dfa.getAlphabetSize()];
+        int[] large = new int[dfa.getAlphabetSize()];
+        for (int state = 0; state < stateCount; state++)
+            buildAliasTable(state, weights, small, large);
+    }
+
+    /**
+     * Creates the transition weights of the given dfa using the given weight of every transition.
+     *
+     * @param dfa    the compiled dfa.
+     * @param weight the weight of every transition.
+     * @return the transition weights of the dfa.
+     * @throws IllegalArgumentException if a weight is negative or not finite, or all the weights of a state
+     *                                  with transitions are 0.
+     */
+    public static TransitionWeights of(CompiledDFA dfa, Weight weight) {
+        if (weight == null)
+            throw new IllegalArgumentException("weight must not be null.");
+        double[] weights = new double[transitionCount(dfa)];
+        int k = 0;
+        for (int state = 0; state < dfa.getStateCount(); state++)
+            for (int i = 0; i < dfa.outDegree(state); i++)
+                weights[k++] = weight.of(dfa.stateIdOf(state), dfa.symbolOf(dfa.outSymbol(state, i)));
+        return new TransitionWeights(dfa, weights);
+    }
+
+    /**
+     * Creates random transition weights of the given dfa, the weights of every state are drawn uniformly
+     * from all the probability distributions over its transitions.
+     *
+     * @param dfa the compiled dfa.
+     * @param r   the random generator drawing the weights.
+     * @return the transition weights of the dfa.
+     */
+    public static TransitionWeights random(CompiledDFA dfa, Random r) {
+        double[] weights = new double[transitionCount(dfa)];
+        // exponentially distributed weights, i.e. a flat dirichlet distribution of every state.
+        for (int k = 0; k < weights.length; k++)
+            weights[k] = -Math.log(1.0 - r.nextDouble());
+        return new TransitionWeights(dfa, weights);
+    }
+
+    /**
+     * Returns the dfa of the weights.
+     *
+     * @return the compiled dfa.
+     */
+    public CompiledDFA getDfa() {
+        return dfa;
+    }
+
+    /**
+     * Returns the probability of taking the i-th transition of the given state.
+     *
+     * @param state the index of the state.
+     * @param i     the position of the transition, in range [0, outDegree(state)).
+     * @return the probability of the transition.
+     */
+    public double probability(int state, int i) {
+        int offset = offsets[state];
+        int degree = offsets[state + 1] - offset;
+        double p = probabilities[offset + i];
+        for (int j = 0; j < degree; j++)
+            if (aliases[offset + j] == i && j != i)
+                p += 1.0 - probabilities[offset + j];
+        return p / degree;
+    }
+
+    /**
+     * Samples a transition of the given state in O(1) time.
+     *
+     * @param state the index of the state, having at least one transition.
+     * @param r     the random generator.
+     * @return the position of the sampled transition, in range [0, outDegree(state)).
+     */
+    public int sample(int state, Random r) {
+        int offset = offsets[state];
+        int i = r.nextInt(offsets[state + 1] - offset);
+        return r.nextDouble() < probabilities[offset + i] ? i : aliases[offset + i];
+    }
+
+    // builds the alias table of the given state (Vose's alias method).
+    private void buildAliasTable(int state, double[] weights, int[] small, int[] large) {
+        int offset = offsets[state];
+        int degree = offsets[state + 1] - offset;
+        if (degree == 0)
+            return;
+        double sum = 0;
+        for (int i = 0; i < degree; i++) {
+            double w = weights[offset + i];
+            if (!(w >= 0) || Double.isInfinite(w))
+                throw new IllegalArgumentException("Invalid weight " + w + " of the transition '"
+                        + dfa.symbolOf(dfa.outSymbol(state, i)) + "' of state " + dfa.stateIdOf(state));
+            sum += w;
+        }
+        if (sum == 0)
+            throw new IllegalArgumentException("All the transition weights of state " + dfa.stateIdOf(state)
+                    + " are 0.");
+
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < degree; i++) {
+            // scaled so that the average is 1.
+            double p = probabilities[offset + i] = weights[offset + i] * degree / sum;
+            if (p < 1.0)
+                small[smallCount++] = i;
+            else
+                large[largeCount++] = i;
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int s = small[--smallCount];
+            int l = large[--largeCount];
+            aliases[offset + s] = l;
+            double p = probabilities[offset + l] -= 1.0 - probabilities[offset + s];
+            if (p < 1.0)
+                small[smallCount++] = l;
+            else
+                large[largeCount++] = l;
+        }
+        // the rest are 1 (up to rounding errors).
+        while (largeCount > 0) {
+            int l = large[--largeCount];
+            probabilities[offset + l] = 1.0;
+            aliases[offset + l] = l;
+        }
+        while (smallCount > 0) {
+            int s = small[--smallCount];
+            probabilities[offset + s] = 1.0;
+            aliases[offset + s] = s;
+        }
+    }
+
+    private static int transitionCount(CompiledDFA dfa) {
+        int count = 0;
+        for (int state = 0; state < dfa.getStateCount(); state++)
+            count += dfa.outDegree(state);
+        return count;
+    }
+}
@@ -0,0 +1,109 @@
+package com.rovo98.rgodd.diagnosability;
+
+/**
+ * Detects whether a node satisfying a condition lies on a cycle of the given graph.
+ * <br />
+ * The graph is given by primitive adjacency arrays (CSR layout): the successors of node {@code v}
+ * are {@code targets[offsets[v]] .. targets[offsets[v + 1] - 1]}.
+ * <br />
+ * <br />
+ * A node lies on a cycle iff its strongly connected component is non-trivial, i.e. the component
+ * has more than one node, or it has a single node with a self-loop. So one pass of Tarjan's
+ * algorithm is enough to answer the question for all the nodes, in O(nodes + edges) time.
+ * <br />
+ * The implementation is iterative (with explicit stacks), so deep graphs will not cause a
+ * {@code StackOverflowError}.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.05
+ */
+final class CycleDetector {
+
+    // this class can not be instanced.
+    private CycleDetector() {
+    }
+
+    /**
+     * Returns a node which is marked and lies on a cycle of the given graph.
+     *
+     * @param size    the number of the nodes.
+     * @param offsets CSR offsets of the transitions of every node (length is {@code size + 1}).
+     * @param targets next node of the transitions.
+     * @param marked  nodes to look for, e.g. ambiguous composite nodes.
+     * @return a marked node lies on a cycle, or -1 if there is no such node.
+     */
+    static int findMarkedNodeOnCycle(int size, int[] offsets, int[] targets, boolean[] marked) {
+        // index of the nodes in the order they are visited (0 means unvisited).
+        int[] index = new int[size];
+        int[] lowLink = new int[size];
+        boolean[] onStack = new boolean[size];
+        // stack of the nodes of the components being built.
+        int[] componentStack = new int[size];
+        int componentTop = 0;
+        // explicit dfs stack: the node and the position of its next transition to explore.
+        int[] dfsStack = new int[size];
+        int[] edgeStack = new int[size];
+        int dfsTop = 0;
+        int counter = 0;
+
+        for (int start = 0; start < size; start++) {
+            if (index[start] != 0)
+                continue;
+            index[start] = lowLink[start] = ++counter;
+            componentStack[componentTop++] = start;
+            onStack[start] = true;
+            dfsStack[dfsTop] = start;
+            edgeStack[dfsTop++] = offsets[start];
+
+            while (dfsTop > 0) {
+                int v = dfsStack[dfsTop - 1];
+                if (edgeStack[dfsTop - 1] < offsets[v + 1]) {
+                    int w = targets[edgeStack[dfsTop - 1]++];
+                    if (index[w] == 0) {
+                        // tree edge: visit w.
+                        index[w] = lowLink[w] = ++counter;
+                        componentStack[componentTop++] = w;
+                        onStack[w] = true;
+                        dfsStack[dfsTop] = w;
+                        edgeStack[dfsTop++] = offsets[w];
+                    } else if (onStack[w] && index[w] < lowLink[v]) {
+                        lowLink[v] = index[w];
+                    }
+                    continue;
+                }
+                // all the transitions of v are explored.
+                dfsTop--;
+                if (dfsTop > 0) {
+                    int parent = dfsStack[dfsTop - 1];
+                    if (lowLink[v] < lowLink[parent])
+                        lowLink[parent] = lowLink[v];
+                }
+                if (lowLink[v] != index[v])
+                    continue;
+                // v is the root of a component, pop the whole component.
+                int found = -1;
+                int componentSize = 0;
+                int w;
+                do {
+                    w = componentStack[--componentTop];
+                    onStack[w] = false;
+                    componentSize++;
+                    if (marked[w])
+                        found = w;
+                } while (w != v);
+                if (found >= 0 && (componentSize > 1 || hasSelfLoop(v, offsets, targets)))
+                    return found;
+            }
+        }
+        return -1;
+    }
+
+    // returns true if the given node has a transition to itself.
+    private static boolean hasSelfLoop(int node, int[] offsets, int[] targets) {
+        for (int i = offsets[node]; i < offsets[node + 1]; i++)
+            if (targets[i] == node)
+                return true;
+        return false;
+    }
+}
@@ -1,5 +1,7 @@
 package com.rovo98.rgodd.diagnosability;
 
+import com.rovo98.rgodd.CompiledDFA;
+import com.rovo98.rgodd.ConstructedDFA;
 import com.rovo98.rgodd.DFAConfig;
 import com.rovo98.rgodd.DFANode;
 
@@ -19,4 +21,18 @@ public interface Diagnoser {
      * @return true if the given dfa is diagnosable; otherwise false.
      */
     boolean isDiagnosable(DFANode root, DFAConfig dfaConfig);
+
+    /**
+     * Returns true if the given compiled dfa is diagnosable
+     * <br />
+     * By default, the compiled dfa is converted back to the constructed form, see
+     * {@link CompiledDFA#toConstructedDFA()}, and tested by {@link #isDiagnosable(DFANode, DFAConfig)}.
+     *
+     * @param dfa the compiled dfa.
+     * @return true if the given dfa is diagnosable; otherwise false.
+     */
+    default boolean isDiagnosable(CompiledDFA dfa) {
+        ConstructedDFA constructed = dfa.toConstructedDFA();
+        return isDiagnosable(constructed.getRoot(), constructed.getDFAConfig());
+    }
 }
@@ -0,0 +1,94 @@
+package com.rovo98.rgodd.diagnosability;
+
+/**
+ * Bitmask representation of the failure labels set used in multi-faulty mode.
+ * <br />
+ * Bit 0 means normal (N), and bit i means failure type Fi (i = 1 ~ number of faulty events).
+ * <br />
+ * A labels set is a plain int, so union, equality and hashing of the sets are all constant-time
+ * int operations ({@code |}, {@code ==} and {@link Integer#hashCode(int)}).
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.04
+ */
+public final class FailureLabels {
+    /** The labels set which only contains N. */
+    public static final int NORMAL = 1;
+
+    // this class can not be instanced.
+    private FailureLabels() {
+    }
+
+    /**
+     * Returns the labels set which only contains the given failure type.
+     *
+     * @param failureType the failure type (0 means N, and i means Fi).
+     * @return the labels set which only contains the given failure type.
+     */
+    public static int of(int failureType) {
+        return 1 << failureType;
+    }
+
+    /**
+     * Returns the union of the given two labels sets.
+     *
+     * @param first  one labels set.
+     * @param second another labels set.
+     * @return the union of the given two labels sets.
+     */
+    public static int union(int first, int second) {
+        return first | second;
+    }
+
+    /**
+     * Returns the labels set after a faulty event of the given type occurs, that is, the failure
+     * type is added and the normal label is removed.
+     *
+     * @param labels    the current labels set.
+     * @param faultType the type of the occurred faulty event (1 ~ number of faulty events).
+     * @return the labels set after the faulty event occurs.
+     */
+    public static int withFault(int labels, int faultType) {
+        return (labels & ~NORMAL) | of(faultType);
+    }
+
+    /**
+     * Returns true if the given labels set contains the given failure type.
+     *
+     * @param labels      the labels set.
+     * @param failureType the failure type (0 means N, and i means Fi).
+     * @return true if the given labels set contains the given failure type; otherwise false.
+     */
+    public static boolean contains(int labels, int failureType) {
+        return (labels & of(failureType)) != 0;
+    }
+
+    /**
+     * Returns the number of the possible labels sets of the given number of faulty events.
+     *
+     * @param faultTypeCount the number of faulty events.
+     * @return the number of the possible labels sets.
+     */
+    public static int numLabels(int faultTypeCount) {
+        return 1 << (faultTypeCount + 1);
+    }
+
+    /**
+     * Returns readable representation of the given labels set, e.g. {N} or {F1,F2}.
+     *
+     * @param labels the labels set.
+     * @return readable representation of the given labels set.
+     */
+    public static String toString(int labels) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < Integer.SIZE; i++) {
+            if (!contains(labels, i))
+                continue;
+            if (sb.length() > 1)
+                sb.append(',');
+            sb.append(i == 0 ? "N" : "F" + i);
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.rovo98.rgodd.diagnosability;
+
+import com.rovo98.rgodd.utils.LongIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Int-keyed counterpart of the composition built by {@link NeotypeDiagnoser}, see {@link CompositeNode}
+ * and {@link MultiFaultyCompositeNode}.
+ * <br />
+ * A composite node (first, second) of two observer nodes (see {@link IntKeyedObserver}) is identified
+ * by the long {@code first << 32 | second}. Reachable composite nodes are renumbered in bfs order
+ * (the root is 0), and their transitions are kept in primitive adjacency arrays (CSR layout).
+ * <br />
+ * <br />
+ * The composition is symmetric: (x, y) -> (x', y') iff (y, x) -> (y', x'), and (x, y) is ambiguous iff (y, x)
+ * is. So optionally only the canonical pairs (first <= second) are kept, every transition is redirected to the
+ * canonical pair of its target. A cycle passing through an ambiguous node exists in the symmetric composition
+ * iff it exists in the full one (following a cycle of the canonical pairs twice at most gets back to the same
+ * ordered pair), so the diagnosability verdict stays the same with roughly half of the nodes.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.03
+ */
+final class IntKeyedComposition {
+    final IntKeyedObserver observer;
+    final int size;
+    final long[] pairs;     // composite node -> identical key (first << 32 | second).
+    final int[] offsets;    // CSR offsets of the transitions of every composite node.
+    final int[] targets;    // next composite node of the transition.
+
+    /**
+     * Computes the product composition of the given observer with itself.
+     *
+     * @param observer the int-keyed nd-observer.
+     */
+    IntKeyedComposition(IntKeyedObserver observer) {
+        this(observer, false);
+    }
+
+    /**
+     * Computes the product composition of the given observer with itself.
+     *
+     * @param observer  the int-keyed nd-observer.
+     * @param symmetric whether only the canonical pairs (first <= second) are kept.
+     */
+    IntKeyedComposition(IntKeyedObserver observer, boolean symmetric) {
+        this.observer = observer;
+        LongIntHashMap indexOfPair = new LongIntHashMap(observer.size * 4);
+        long[] builtPairs = new long[16];
+        int[] builtOffsets = new int[17];
+        int[] builtTargets = new int[16];
+        int count = 0;
+        int edges = 0;
+
+        builtPairs[count] = pack(0, 0);
+        indexOfPair.put(builtPairs[count], count);
+        count++;
+        int[] obsOffsets = observer.offsets;
+        int[] obsSymbols = observer.symbols;
+        int[] obsTargets = observer.targets;
+        // bfs approach: composite nodes are processed in the order of their numbers.
+        for (int node = 0; node < count; node++) {
+            int first = (int) (builtPairs[node] >>> 32);
+            int second = (int) builtPairs[node];
+            // merging the transitions of two observer nodes on their common symbols.
+            int i = obsOffsets[first];
+            int iEnd = obsOffsets[first + 1];
+            int j = obsOffsets[second];
+            int jEnd = obsOffsets[second + 1];
+            while (i < iEnd && j < jEnd) {
+                int si = obsSymbols[i];
+                int sj = obsSymbols[j];
+                if (si < sj) {
+                    i++;
+                } else if (si > sj) {
+                    j++;
+                } else {
+                    int iRun = i;
+                    while (iRun < iEnd && obsSymbols[iRun] == si)
+                        iRun++;
+                    int jRun = j;
+                    while (jRun < jEnd && obsSymbols[jRun] == sj)
+                        jRun++;
+                    for (int x = i; x < iRun; x++) {
+                        for (int y = j; y < jRun; y++) {
+                            long pair = symmetric ? packCanonical(obsTargets[x], obsTargets[y])
+                                    : pack(obsTargets[x], obsTargets[y]);
+                            int next = indexOfPair.putIfAbsent(pair, count);
+                            if (next < 0) {
+                                next = count++;
+                                if (next == builtPairs.length)
+                                    builtPairs = Arrays.copyOf(builtPairs, next << 1);
+                                builtPairs[next] = pair;
+                            }
+                            if (edges == builtTargets.length)
+                                builtTargets = Arrays.copyOf(builtTargets, edges << 1);
+                            builtTargets[edges++] = next;
+                        }
+                    }
+                    i = iRun;
+                    j = jRun;
+                }
+            }
+            if (node + 2 > builtOffsets.length)
+                builtOffsets = Arrays.copyOf(builtOffsets, builtOffsets.length << 1);
+            builtOffsets[node + 1] = edges;
+        }
+        this.size = count;
+        this.pairs = Arrays.copyOf(builtPairs, count);
+        this.offsets = Arrays.copyOf(builtOffsets, count + 1);
+        this.targets = Arrays.copyOf(builtTargets, edges);
+    }
+
+    /**
+     * Returns true if the two observer nodes of the given composite node have different labels.
+     *
+     * @param node the composite node.
+     * @return true if the given composite node is ambiguous; otherwise false.
+     */
+    boolean isAmbiguous(int node) {
+        return observer.label((int) (pairs[node] >>> 32)) != observer.label((int) pairs[node]);
+    }
+
+    // returns the identical key of the composite node (first, second).
+    static long pack(int first, int second) {
+        return ((long) first << 32) | second;
+    }
+
+    // returns the identical key of the canonical pair of the composite node (first, second).
+    static long packCanonical(int first, int second) {
+        return first <= second ? pack(first, second) : pack(second, first);
+    }
+}
@@ -0,0 +1,205 @@
+package com.rovo98.rgodd.diagnosability;
+
+import com.rovo98.rgodd.CompiledDFA;
+import com.rovo98.rgodd.utils.LongIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Int-keyed counterpart of the nd-observer built by {@link NeotypeDiagnoser}, see {@link NDDFANode}
+ * and {@link MultiFaultyNDDFANode}.
+ * <br />
+ * An observer node (state, label) is identified by the packed long {@code state << 32 | label}:
+ * <ul>
+ * <li>single faulty mode: label is 0 (N) or i (Fi).</li>
+ * <li>multi-faulty mode: label is a set of the failure types, see {@link FailureLabels}.</li>
+ * </ul>
+ * Reachable observer nodes are renumbered in bfs order (the root is 0) through a hash map of their
+ * keys, so the memory used depends on the reachable nodes only, not on the number of the possible
+ * labels (which is exponential in the number of the faulty events in multi-faulty mode). Their
+ * transitions are kept in primitive adjacency arrays (CSR layout) ordered by (symbol, next node).
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.03
+ */
+final class IntKeyedObserver {
+    final int size;
+    final int[] states;    // node -> state index of the compiled dfa.
+    final int[] labels;    // node -> label (or labels set) of the node.
+    final int[] offsets;   // CSR offsets of the transitions of every node.
+    final int[] symbols;   // symbol index of the transition.
+    final int[] targets;   // next node of the transition.
+
+    // builder state.
+    private final CompiledDFA dfa;
+    private final boolean multiFaulty;
+    private LongIntHashMap indexOfKey;
+    private int[] builtStates;
+    private int[] builtLabels;
+    private int count;
+    private long[] scratch = new long[16]; // packed (symbol, next node) of the current node.
+    private int scratchSize;
+    // key -> number of the node (plus one) whose faulty events closure contains the key.
+    private LongIntHashMap closureStamps;
+    private long[] closureStack;
+
+    /**
+     * Builds the observer of the given compiled dfa.
+     *
+     * @param dfa the compiled dfa.
+     */
+    IntKeyedObserver(CompiledDFA dfa) {
+        this.dfa = dfa;
+        this.multiFaulty = dfa.isMultiFaulty();
+        this.indexOfKey = new LongIntHashMap(dfa.getStateCount());
+        this.builtStates = new int[16];
+        this.builtLabels = new int[16];
+        if (multiFaulty) {
+            closureStamps = new LongIntHashMap(dfa.getStateCount());
+            closureStack = new long[16];
+        }
+
+        int[] builtOffsets = new int[17];
+        int[] builtSymbols = new int[16];
+        int[] builtTargets = new int[16];
+        int edges = 0;
+        // root node: (root, N)
+        nodeOf(dfa.getRootIndex(), multiFaulty ? FailureLabels.NORMAL : 0);
+        // bfs approach: nodes are processed in the order of their numbers.
+        for (int node = 0; node < count; node++) {
+            scratchSize = 0;
+            int state = builtStates[node];
+            int label = builtLabels[node];
+            if (multiFaulty)
+                applyingTransitionsMultiFaulty(node + 1, state, label);
+            else
+                applyingTransitions(state, label);
+            // sort transitions by (symbol, next node) and remove the duplicated ones.
+            Arrays.sort(scratch, 0, scratchSize);
+            if (edges + scratchSize > builtSymbols.length) {
+                int capacity = Math.max(builtSymbols.length << 1, edges + scratchSize);
+                builtSymbols = Arrays.copyOf(builtSymbols, capacity);
+                builtTargets = Arrays.copyOf(builtTargets, capacity);
+            }
+            for (int i = 0; i < scratchSize; i++) {
+                if (i > 0 && scratch[i] == scratch[i - 1])
+                    continue;
+                builtSymbols[edges] = (int) (scratch[i] >>> 32);
+                builtTargets[edges] = (int) scratch[i];
+                edges++;
+            }
+            if (node + 2 > builtOffsets.length)
+                builtOffsets = Arrays.copyOf(builtOffsets, builtOffsets.length << 1);
+            builtOffsets[node + 1] = edges;
+        }
+        this.size = count;
+        this.states = Arrays.copyOf(builtStates, count);
+        this.labels = Arrays.copyOf(builtLabels, count);
+        this.offsets = Arrays.copyOf(builtOffsets, count + 1);
+        this.symbols = Arrays.copyOf(builtSymbols, edges);
+        this.targets = Arrays.copyOf(builtTargets, edges);
+        // release the builder state.
+        this.indexOfKey = null;
+        this.builtStates = null;
+        this.builtLabels = null;
+        this.scratch = null;
+        this.closureStamps = null;
+        this.closureStack = null;
+    }
+
+    /**
+     * Returns the label of the given observer node.
+     *
+     * @param node the observer node.
+     * @return the label (or the set of the labels in multi-faulty mode) of the given node.
+     */
+    int label(int node) {
+        return labels[node];
+    }
+
+    /**
+     * Returns the state index (of the compiled dfa) of the given observer node.
+     *
+     * @param node the observer node.
+     * @return the state index of the given observer node.
+     */
+    int state(int node) {
+        return states[node];
+    }
+
+    // applying transitions of the given state. (single faulty mode)
+    // REMARKS: the same as NeotypeDiagnoser.constructNdDfaObserver.
+    private void applyingTransitions(int state, int label) {
+        for (int i = 0; i < dfa.outDegree(state); i++) {
+            int s = dfa.outSymbol(state, i);
+            int faulty = dfa.faultTypeOf(s);
+            int next = dfa.next(state, s);
+            if (faulty > 0) {
+                for (int j = 0; j < dfa.outDegree(next); j++) {
+                    int ns = dfa.outSymbol(next, j);
+                    addTransition(ns, dfa.next(next, ns), faulty);
+                }
+            } else {
+                addTransition(s, next, label);
+            }
+        }
+    }
+
+    // applying transitions of the given state with faulty events closure. (multi-faulty mode)
+    // REMARKS: the same as NeotypeDiagnoser.applyingTransitions, faulty events are followed
+    // iteratively and every (state, labels) of the closure is expanded only once.
+    private void applyingTransitionsMultiFaulty(int stamp, int state, int labels) {
+        int top = 0;
+        closureStack[top++] = keyOf(state, labels);
+        closureStamps.put(keyOf(state, labels), stamp);
+        while (top > 0) {
+            long key = closureStack[--top];
+            int p = (int) (key >>> 32);
+            int currLabels = (int) key;
+            for (int i = 0; i < dfa.outDegree(p); i++) {
+                int s = dfa.outSymbol(p, i);
+                int faulty = dfa.faultTypeOf(s);
+                int next = dfa.next(p, s);
+                if (faulty > 0) {
+                    long nextKey = keyOf(next, FailureLabels.withFault(currLabels, faulty));
+                    if (closureStamps.get(nextKey) == stamp)
+                        continue;
+                    closureStamps.put(nextKey, stamp);
+                    if (top == closureStack.length)
+                        closureStack = Arrays.copyOf(closureStack, top << 1);
+                    closureStack[top++] = nextKey;
+                } else {
+                    addTransition(s, next, currLabels);
+                }
+            }
+        }
+    }
+
+    // add a new transition to the current node.
+    private void addTransition(int symbol, int nextState, int nextLabel) {
+        if (scratchSize == scratch.length)
+            scratch = Arrays.copyOf(scratch, scratchSize << 1);
+        scratch[scratchSize++] = ((long) symbol << 32) | nodeOf(nextState, nextLabel);
+    }
+
+    // returns the number of the observer node (state, label) (numbered if it is new).
+    private int nodeOf(int state, int label) {
+        int node = indexOfKey.putIfAbsent(keyOf(state, label), count);
+        if (node < 0) {
+            node = count++;
+            if (node == builtStates.length) {
+                builtStates = Arrays.copyOf(builtStates, node << 1);
+                builtLabels = Arrays.copyOf(builtLabels, node << 1);
+            }
+            builtStates[node] = state;
+            builtLabels[node] = label;
+        }
+        return node;
+    }
+
+    // returns the identical key of the observer node (state, label).
+    private static long keyOf(int state, int label) {
+        return (long) state << 32 | (label & 0xffffffffL);
+    }
+}
@@ -0,0 +1,207 @@
+package com.rovo98.rgodd.diagnosability;
+
+import com.rovo98.rgodd.utils.LongIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * On-the-fly counterpart of {@link IntKeyedComposition}.
+ * <br />
+ * Composite nodes are only numbered when they are reached, and their transitions are computed on demand
+ * (from the transitions of the observer nodes) while searching for a cycle passing through an ambiguous
+ * composite node, so the search can stop as soon as the first such cycle is found without building the
+ * whole composition.
+ * <br />
+ * <br />
+ * The search is the nested depth first search (with the improvements of Schwoon and Esparza), where the
+ * ambiguous composite nodes are the accepting ones:
+ * <ul>
+ * <li>outer (blue) search: nodes on the search stack are cyan, finished nodes are blue. Reaching a cyan node
+ * from or to an ambiguous node closes a cycle through that node.</li>
+ * <li>inner (red) search: started from every ambiguous node when it finishes, reaching a cyan node closes a
+ * cycle through that node. Red nodes are never searched again.</li>
+ * </ul>
+ * Both searches are iterative. The transitions of the nodes on the search stacks are kept in one shared
+ * buffer, which grows and shrinks with the stacks.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.06
+ */
+final class LazyComposition {
+    private static final byte WHITE = 0;
+    private static final byte CYAN = 1;
+    private static final byte BLUE = 2;
+
+    private final IntKeyedObserver observer;
+    private final LongIntHashMap indexOfPair;
+    private long[] pairs = new long[16];        // composite node -> identical key (first << 32 | second).
+    private byte[] colors = new byte[16];
+    private boolean[] red = new boolean[16];
+    private int count;
+
+    // search stack: the node, and the range of its transitions (in the transition buffer) to explore.
+    private int[] frameNodes = new int[16];
+    private int[] framePositions = new int[16];
+    private int[] frameEnds = new int[16];
+    private int frameTop;
+    private int[] buffer = new int[64];
+    private int bufferTop;
+
+    /**
+     * Prepares the on-the-fly product composition of the given observer with itself.
+     *
+     * @param observer the int-keyed nd-observer.
+     */
+    LazyComposition(IntKeyedObserver observer) {
+        this.observer = observer;
+        this.indexOfPair = new LongIntHashMap(observer.size * 4);
+    }
+
+    /**
+     * Searches for a cycle passing through an ambiguous composite node, from the root (0, 0).
+     *
+     * @return an ambiguous composite node lies on a cycle, or -1 if there is no such node.
+     */
+    int findAmbiguousNodeOnCycle() {
+        int root = nodeOf(IntKeyedComposition.pack(0, 0));
+        colors[root] = CYAN;
+        push(root);
+        while (frameTop > 0) {
+            int f = frameTop - 1;
+            int v = frameNodes[f];
+            if (framePositions[f] < frameEnds[f]) {
+                int w = buffer[framePositions[f]++];
+                if (colors[w] == CYAN && (isAmbiguous(v) || isAmbiguous(w)))
+                    return isAmbiguous(v) ? v : w;
+                if (colors[w] == WHITE) {
+                    colors[w] = CYAN;
+                    push(w);
+                }
+                continue;
+            }
+            // all the transitions of v are explored.
+            if (isAmbiguous(v) && redSearch(v))
+                return v;
+            colors[v] = BLUE;
+            pop();
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of the composite nodes reached so far.
+     *
+     * @return the number of the reached composite nodes.
+     */
+    int explored() {
+        return count;
+    }
+
+    // returns true if a cyan node can be reached from the given seed node.
+    private boolean redSearch(int seed) {
+        int base = frameTop;
+        red[seed] = true;
+        push(seed);
+        while (frameTop > base) {
+            int f = frameTop - 1;
+            if (framePositions[f] == frameEnds[f]) {
+                pop();
+                continue;
+            }
+            int w = buffer[framePositions[f]++];
+            if (colors[w] == CYAN) {
+                // drop the frames of the red search.
+                while (frameTop > base)
+                    pop();
+                return true;
+            }
+            if (!red[w]) {
+                red[w] = true;
+                push(w);
+            }
+        }
+        return false;
+    }
+
+    // returns true if the two observer nodes of the given composite node have different labels.
+    private boolean isAmbiguous(int node) {
+        return observer.label((int) (pairs[node] >>> 32)) != observer.label((int) pairs[node]);
+    }
+
+    // pushes the given node to the search stack, its transitions are computed and put into the buffer.
+    private void push(int node) {
+        if (frameTop == frameNodes.length) {
+            frameNodes = Arrays.copyOf(frameNodes, frameTop << 1);
+            framePositions = Arrays.copyOf(framePositions, frameTop << 1);
+            frameEnds = Arrays.copyOf(frameEnds, frameTop << 1);
+        }
+        frameNodes[frameTop] = node;
+        framePositions[frameTop] = bufferTop;
+        appendTransitions(node);
+        frameEnds[frameTop] = bufferTop;
+        frameTop++;
+    }
+
+    // pops the top node of the search stack, its transitions are released.
+    private void pop() {
+        frameTop--;
+        // transitions of the frames are stored contiguously.
+        bufferTop = frameTop == 0 ? 0 : frameEnds[frameTop - 1];
+    }
+
+    // merging the transitions of two observer nodes of the given composite node on their common symbols,
+    // see IntKeyedComposition.
+    private void appendTransitions(int node) {
+        int first = (int) (pairs[node] >>> 32);
+        int second = (int) pairs[node];
+        int[] obsOffsets = observer.offsets;
+        int[] obsSymbols = observer.symbols;
+        int[] obsTargets = observer.targets;
+        int i = obsOffsets[first];
+        int iEnd = obsOffsets[first + 1];
+        int j = obsOffsets[second];
+        int jEnd = obsOffsets[second + 1];
+        while (i < iEnd && j < jEnd) {
+            int si = obsSymbols[i];
+            int sj = obsSymbols[j];
+            if (si < sj) {
+                i++;
+            } else if (si > sj) {
+                j++;
+            } else {
+                int iRun = i;
+                while (iRun < iEnd && obsSymbols[iRun] == si)
+                    iRun++;
+                int jRun = j;
+                while (jRun < jEnd && obsSymbols[jRun] == sj)
+                    jRun++;
+                for (int x = i; x < iRun; x++) {
+                    for (int y = j; y < jRun; y++) {
+                        int next = nodeOf(IntKeyedComposition.pack(obsTargets[x], obsTargets[y]));
+                        if (bufferTop == buffer.length)
+                            buffer = Arrays.copyOf(buffer, bufferTop << 1);
+                        buffer[bufferTop++] = next;
+                    }
+                }
+                i = iRun;
+                j = jRun;
+            }
+        }
+    }
+
+    // returns the number of the composite node with the given identical key (numbered if it is new).
+    private int nodeOf(long pair) {
+        int node = indexOfPair.putIfAbsent(pair, count);
+        if (node >= 0)
+            return node;
+        node = count++;
+        if (node == pairs.length) {
+            pairs = Arrays.copyOf(pairs, node << 1);
+            colors = Arrays.copyOf(colors, node << 1);
+            red = Arrays.copyOf(red, node << 1);
+        }
+        pairs[node] = pair;
+        return node;
+    }
+}
@@ -1,8 +1,6 @@
 package com.rovo98.rgodd.diagnosability;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * A modification of the class {@link CompositeNode} which considers the multiply faulty mode for
@@ -13,6 +11,9 @@ import java.util.List;
  * More details, see jiang's paper - <a href="https://ieeexplore.ieee.org/document/940942">
  *     A Polynomial Algorithm for Testing Diagnosability of Discrete-Event Systems</a>.
  * <br />
+ * The failure types of both states are kept as bitmasks, see {@link FailureLabels}, and the transitions
+ * in parallel primitive arrays, the next nodes are identified by their positions in the node list of
+ * the diagnoser.
  *
  * @author rovo98
  * @version 1.0.0
@@ -21,61 +22,67 @@ import java.util.List;
 public class MultiFaultyCompositeNode {
     int firstState;
     int secondState;
-    List<String> firstFailureTypes;
-    List<String> secondFailureTypes;
-    List<Transition> transitions;
+    int firstFailureTypes;  // labels set, see FailureLabels.
+    int secondFailureTypes; // labels set, see FailureLabels.
+    int firstNode;          // positions of the observer nodes of the composite node.
+    int secondNode;
+    char[] symbols;         // event labels of the transitions.
+    int[] nexts;            // positions of the next composite nodes of the transitions.
+    int degree;             // number of the transitions.
 
     // default constructor.
-    public MultiFaultyCompositeNode(int firstState, int secondState) {
+    public MultiFaultyCompositeNode(int firstState, int firstFailureTypes,
+                                    int secondState, int secondFailureTypes) {
+        this(firstState, firstFailureTypes, -1, secondState, secondFailureTypes, -1);
+    }
+
+    // constructor with the positions of the observer nodes.
+    MultiFaultyCompositeNode(int firstState, int firstFailureTypes, int firstNode,
+                             int secondState, int secondFailureTypes, int secondNode) {
         this.firstState = firstState;
         this.secondState = secondState;
-        this.firstFailureTypes = new ArrayList<>();
-        this.secondFailureTypes = new ArrayList<>();
-        this.transitions = new LinkedList<>();
+        this.firstFailureTypes = firstFailureTypes;
+        this.secondFailureTypes = secondFailureTypes;
+        this.firstNode = firstNode;
+        this.secondNode = secondNode;
+        this.symbols = new char[4];
+        this.nexts = new int[4];
     }
 
     /**
-     * Add a list of the new failure types for the first state.
+     * Add a set of the new failure types for the first state.
      *
-     * @param failureTypes A list of the new failure types to be added.
+     * @param failureTypes labels set of the new failure types to be added.
      */
-    public void addFirstFailureTypes(List<String> failureTypes) {
-        // TODO: basic validation may needed.
-        for (String ft : failureTypes) {
-            if (this.firstFailureTypes.contains(ft))
-                continue;
-            this.firstFailureTypes.add(ft);
-        }
+    public void addFirstFailureTypes(int failureTypes) {
+        this.firstFailureTypes = FailureLabels.union(this.firstFailureTypes, failureTypes);
     }
 
     /**
-     * Add a list of the new failure types for the second state
+     * Add a set of the new failure types for the second state
      * of current node.
      *
-     * @param failureTypes A list of the new failure types to be added.
+     * @param failureTypes labels set of the new failure types to be added.
      */
-    public void addSecondFailureTypes(List<String> failureTypes) {
-        // TODO: basic validation may needed.
-        for (String ft : failureTypes) {
-            if (this.secondFailureTypes.contains(ft))
-                continue;
-            this.secondFailureTypes.add(ft);
-        }
+    public void addSecondFailureTypes(int failureTypes) {
+        this.secondFailureTypes = FailureLabels.union(this.secondFailureTypes, failureTypes);
     }
 
     /**
-     * Add a new transition to current observer node.
+     * Add a new transition to current composite node.
+     * <br />
+     * NOTICE: added transitions are not filtered, the caller should not add a transition twice.
      *
      * @param symbol the event label of the transition.
-     * @param next   identical key of the next observer node.
+     * @param next   position of the next composite node.
      */
-    public void addTransition(char symbol, String next) {
-        // TODO: basic validation for the given parameters may needed.
-        Transition newTransition = new Transition(symbol, next);
-        // ignore added transitions.
-        if (this.transitions.contains(newTransition))
-            return;
-        this.transitions.add(newTransition);
+    public void addTransition(char symbol, int next) {
+        if (degree == symbols.length) {
+            symbols = Arrays.copyOf(symbols, degree << 1);
+            nexts = Arrays.copyOf(nexts, degree << 1);
+        }
+        symbols[degree] = symbol;
+        nexts[degree++] = next;
     }
 
     // getters.
@@ -87,15 +94,23 @@ public class MultiFaultyCompositeNode {
         return secondState;
     }
 
-    public List<String> getFirstFailureTypes() {
+    public int getFirstFailureTypes() {
         return firstFailureTypes;
     }
 
-    public List<String> getSecondFailureTypes() {
+    public int getSecondFailureTypes() {
         return secondFailureTypes;
     }
 
-    public List<Transition> getTransitions() {
-        return transitions;
+    public int getDegree() {
+        return degree;
+    }
+
+    public char getSymbol(int i) {
+        return symbols[i];
+    }
+
+    public int getNext(int i) {
+        return nexts[i];
     }
 }
@@ -1,8 +1,6 @@
 package com.rovo98.rgodd.diagnosability;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * A modification of the class {@link NDDFANode} which considers multiply faulty mode for the given
@@ -13,6 +11,9 @@ import java.util.List;
  * More details, see jiang's paper - <a href="https://ieeexplore.ieee.org/document/940942">
  *     A Polynomial Algorithm for Testing Diagnosability of Discrete-Event Systems</a>}
  * <br />
+ * The failure types of the node are kept as a bitmask, see {@link FailureLabels}, and the transitions
+ * in parallel primitive arrays, the next nodes are identified by their positions in the node list of
+ * the diagnoser.
  *
  * @author rovo98
  * @version 1.0.0
@@ -20,57 +21,52 @@ import java.util.List;
  */
 public class MultiFaultyNDDFANode {
     int state;
-    List<String> failureTypes;
-    List<Transition> transitions;
+    int failureTypes;   // labels set, see FailureLabels.
+    char[] symbols;     // event labels of the transitions.
+    int[] nexts;        // positions of the next observer nodes of the transitions.
+    int degree;         // number of the transitions.
 
     // default constructor.
-    public MultiFaultyNDDFANode(int state) {
+    public MultiFaultyNDDFANode(int state, int failureTypes) {
         this.state = state;
-        this.failureTypes = new ArrayList<>();
-        this.transitions = new LinkedList<>();
+        this.failureTypes = failureTypes;
+        this.symbols = new char[4];
+        this.nexts = new int[4];
     }
 
     /**
      * Add a new failure type to current node.
      *
-     * @param failureType the failure type to be added.
+     * @param failureType the failure type to be added (0 means N, and i means Fi).
      */
-    public void addFailureType(String failureType) {
-        // TODO: basic validation for the given parameter may needed.
-        // ignoring the added failureType
-        if (this.failureTypes.contains(failureType))
-            return;
-        this.failureTypes.add(failureType);
+    public void addFailureType(int failureType) {
+        this.failureTypes = FailureLabels.union(this.failureTypes, FailureLabels.of(failureType));
     }
 
     /**
-     * Add a list of new failure types to current node.
+     * Add a set of new failure types to current node.
      *
-     * @param failureTypes A list of the failure types.
+     * @param failureTypes labels set of the failure types to be added.
      */
-    public void addFailureTypes(List<String> failureTypes) {
-        // TODO: basic validation for the given parameter may needed.
-        // ignoring the added failure types.
-        for (String ft : failureTypes) {
-            if (this.failureTypes.contains(ft))
-                continue;
-            this.failureTypes.add(ft);
-        }
+    public void addFailureTypes(int failureTypes) {
+        this.failureTypes = FailureLabels.union(this.failureTypes, failureTypes);
     }
 
     /**
      * Add a new transition to current observer node.
+     * <br />
+     * NOTICE: added transitions are not filtered, the caller should not add a transition twice.
      *
      * @param symbol the event label of the transition.
-     * @param next   identical key of the next observer node.
+     * @param next   position of the next observer node.
      */
-    public void addTransition(char symbol, String next) {
-        // TODO: basic validation for the given parameters may needed.
-        Transition newTransition = new Transition(symbol, next);
-        // ignore added transitions.
-        if (this.transitions.contains(newTransition))
-            return;
-        this.transitions.add(newTransition);
+    public void addTransition(char symbol, int next) {
+        if (degree == symbols.length) {
+            symbols = Arrays.copyOf(symbols, degree << 1);
+            nexts = Arrays.copyOf(nexts, degree << 1);
+        }
+        symbols[degree] = symbol;
+        nexts[degree++] = next;
     }
 
     // getters.
@@ -78,11 +74,19 @@ public class MultiFaultyNDDFANode {
         return state;
     }
 
-    public List<String> getFailureTypes() {
+    public int getFailureTypes() {
         return failureTypes;
     }
 
-    public List<Transition> getTransitions() {
-        return transitions;
+    public int getDegree() {
+        return degree;
+    }
+
+    public char getSymbol(int i) {
+        return symbols[i];
+    }
+
+    public int getNext(int i) {
+        return nexts[i];
     }
 }
@@ -1,8 +1,10 @@
 package com.rovo98.rgodd.diagnosability;
 
+import com.rovo98.rgodd.CompiledDFA;
 import com.rovo98.rgodd.DFAConfig;
 import com.rovo98.rgodd.DFANode;
 import com.rovo98.rgodd.utils.CommonUtils;
+import com.rovo98.rgodd.utils.LongIntHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +34,15 @@ import java.util.stream.Collectors;
  *
  * <br /><strong>By default</strong>, when the dfa with single faulty mode is given, using
  * the single faulty mode implementation is preferred. Otherwise the multi-faulty mode implementation is used.
+ * <br />
+ * <br />
+ * How the observer and composite nodes are identified is decided by the {@link Mode} of the diagnoser,
+ * see {@link #getInstance(Mode)}.
+ * <br />
+ * <br />
+ * NOTICE: the diagnoser with {@link Mode#STRING_KEYED} mode keeps the node maps of the dfa being tested,
+ * so one instance can not be used by multiple threads at the same time. Use {@link #newInstance()} to
+ * get an independent instance for every thread. (Other modes keep no state between calls.)
  *
  * @author rovo98
  * @version 1.0.0
@@ -39,7 +50,36 @@ import java.util.stream.Collectors;
  */
 public class NeotypeDiagnoser implements Diagnoser {
 
+    /**
+     * Modes of identifying the observer and composite nodes while testing diagnosability.
+     */
+    public enum Mode {
+        /**
+         * Nodes are identified by string keys, e.g. "((1,N),(20,F1))". (default)
+         */
+        STRING_KEYED,
+        /**
+         * Observer nodes are identified by packed {@code (state, label)} longs and numbered through a
+         * hash map, composite nodes by packed pairs of the node numbers, and transitions are kept in
+         * primitive adjacency arrays (CSR layout).
+         * No strings are allocated while testing diagnosability.
+         */
+        INT_KEYED,
+        /**
+         * The same as {@link #INT_KEYED}, but only one of the symmetric composite nodes (x, y) and (y, x)
+         * is kept, which halves the composition. The verdict stays the same.
+         */
+        SYMMETRIC,
+        /**
+         * The same identical keys as {@link #INT_KEYED}, but composite nodes and their transitions are
+         * computed on demand while searching for a cycle, and the search stops at the first cycle found.
+         * Non-diagnosable dfas are usually rejected after exploring a small part of the composition.
+         */
+        LAZY
+    }
+
     public static final Logger LOGGER = LoggerFactory.getLogger(NeotypeDiagnoser.class);
+    private final Mode mode;
     // stores all observer nodes for checking diagnosability
     // using observer node's identical key as key.
     private final Map<String, NDDFANode> ndDfaNodeMap;
@@ -47,22 +87,38 @@ public class NeotypeDiagnoser implements Diagnoser {
     // using composite node's identical key as key.
     private final Map<String, CompositeNode> compositeNodeMap;
 
-    // for multi-faulty mode.
-    private final Map<String, MultiFaultyNDDFANode> multiFaultyNDDFANodeMap;
-    private final Map<String, MultiFaultyCompositeNode> multiFaultyCompositeNodeMap;
+    // for multi-faulty mode. (using packed identical keys, see FailureLabels)
+    // multi-faulty observer nodes and composite nodes, stored in the order they are found.
+    private final List<MultiFaultyNDDFANode> multiFaultyNDDFANodes;
+    private final List<MultiFaultyCompositeNode> multiFaultyCompositeNodes;
+    // identical key -> position of the node in above lists.
+    // observer nodes are keyed by packed (state, labels), composite nodes by packed positions of
+    // their observer nodes.
+    private final LongIntHashMap multiFaultyNDDFANodeMap;
+    private final LongIntHashMap multiFaultyCompositeNodeMap;
+    // packed (symbol, next node) -> position of the last node the transition is added to, for
+    // ignoring the added transitions of the node being expanded.
+    private final LongIntHashMap multiFaultyTransitionStamps;
 
     // this class can not be instanced outside this class.
-    private NeotypeDiagnoser() {
+    private NeotypeDiagnoser(Mode mode) {
         // initialization.
+        this.mode = mode;
         this.ndDfaNodeMap = new HashMap<>();
         this.compositeNodeMap = new HashMap<>();
-        this.multiFaultyNDDFANodeMap = new HashMap<>();
-        this.multiFaultyCompositeNodeMap = new HashMap<>();
+        this.multiFaultyNDDFANodes = new ArrayList<>();
+        this.multiFaultyCompositeNodes = new ArrayList<>();
+        this.multiFaultyNDDFANodeMap = new LongIntHashMap();
+        this.multiFaultyCompositeNodeMap = new LongIntHashMap();
+        this.multiFaultyTransitionStamps = new LongIntHashMap();
     }
 
     // singleton wrapper.
     private static class SingletonWrapper {
-        private static final Diagnoser INSTANCE = new NeotypeDiagnoser();
+        private static final Diagnoser INSTANCE = new NeotypeDiagnoser(Mode.STRING_KEYED);
+        private static final Diagnoser INT_KEYED_INSTANCE = new NeotypeDiagnoser(Mode.INT_KEYED);
+        private static final Diagnoser SYMMETRIC_INSTANCE = new NeotypeDiagnoser(Mode.SYMMETRIC);
+        private static final Diagnoser LAZY_INSTANCE = new NeotypeDiagnoser(Mode.LAZY);
     }
 
     /**
@@ -74,43 +130,85 @@ public class NeotypeDiagnoser implements Diagnoser {
         return SingletonWrapper.INSTANCE;
     }
 
+    /**
+     * Returns the singleton instance of the NeotypeDiagnoser with the given mode.
+     *
+     * @param mode the mode of identifying the observer and composite nodes.
+     * @return the singleton instance of the {@code NeotypeDiagnoser} with the given mode.
+     */
+    public static Diagnoser getInstance(Mode mode) {
+        switch (mode) {
+            case INT_KEYED:
+                return SingletonWrapper.INT_KEYED_INSTANCE;
+            case SYMMETRIC:
+                return SingletonWrapper.SYMMETRIC_INSTANCE;
+            case LAZY:
+                return SingletonWrapper.LAZY_INSTANCE;
+            case STRING_KEYED:
+            default:
+                return SingletonWrapper.INSTANCE;
+        }
+    }
+
+    /**
+     * Returns a new instance of the NeotypeDiagnoser with default mode {@link Mode#STRING_KEYED}.
+     *
+     * @return a new instance of the {@code NeotypeDiagnoser}.
+     */
+    public static Diagnoser newInstance() {
+        return newInstance(Mode.STRING_KEYED);
+    }
+
+    /**
+     * Returns a new instance of the NeotypeDiagnoser with the given mode.
+     * <br />
+     * The node maps of the instance are not shared with other instances, so different instances can
+     * test diagnosability in different threads at the same time.
+     *
+     * @param mode the mode of identifying the observer and composite nodes.
+     * @return a new instance of the {@code NeotypeDiagnoser} with the given mode.
+     */
+    public static Diagnoser newInstance(Mode mode) {
+        return new NeotypeDiagnoser(mode);
+    }
+
     @Override
     public boolean isDiagnosable(DFANode root, DFAConfig dfaConfig) {
         // TODO: basic checking for the given dfa may needed.
-        if (dfaConfig.isMultiFaulty()) {
+        return isDiagnosable(new CompiledDFA(root, dfaConfig));
+    }
+
+    @Override
+    public boolean isDiagnosable(CompiledDFA dfa) {
+        if (mode == Mode.INT_KEYED || mode == Mode.SYMMETRIC)
+            return isDiagnosableIntKeyed(dfa);
+        if (mode == Mode.LAZY)
+            return isDiagnosableLazy(dfa);
+        if (dfa.isMultiFaulty()) {
             LOGGER.debug("Multi-faulty mode (generalization) implementation is used.");
-            return isDiagnosableMultiFaulty(root, dfaConfig);
+            return isDiagnosableMultiFaulty(dfa);
         }
         LOGGER.debug("Single-faulty mode implementation is used.");
-        return isDiagnosableSingleFaulty(root, dfaConfig);
+        return isDiagnosableSingleFaulty(dfa);
     }
 
     // approach to test diagnosability for the constructed dfa with single faulty mode.
     // returns true if the given constructed dfa is diagnosable; otherwise false.
-    private boolean isDiagnosableSingleFaulty(DFANode dfaRoot, DFAConfig dfaConfig) {
+    private boolean isDiagnosableSingleFaulty(CompiledDFA dfa) {
         // clear the node maps before testing diagnosability of the constructed dfa.
         this.ndDfaNodeMap.clear();
         this.compositeNodeMap.clear();
         // 1. obtains observer for the given dfa first.
-        NDDFANode observerRoot = this.constructNdDfaObserver(dfaRoot, dfaConfig);
+        NDDFANode observerRoot = this.constructNdDfaObserver(dfa);
         // 2. computes the composition of the constructed observer with observer itself.
         this.computeComposition(observerRoot);
         // 3. cycle checking to see whether the given dfa is diagnosable or not.
-        List<CompositeNode> targets = compositeNodeMap.values().stream()
-                .filter(cn -> !cn.firstFailureType.equals(cn.secondFailureType))
-                .collect(Collectors.toList());
-        // modification of the algorithm for detecting cycle in directed graph.
-        Set<String> visitedKeys = new HashSet<>(compositeNodeMap.size());
-        Set<String> recStack = new HashSet<>(compositeNodeMap.size());
-
-        for (CompositeNode cn : targets) {
-            // reset visited and recursion stack for every node checking.
-            visitedKeys.clear();
-            recStack.clear();
-            if (existCycle(cn, cn, visitedKeys, recStack)) {
-                LOGGER.debug("Current dfa is not diagnosable!");
-                return false;
-            }
+        // i.e. whether there exists a cycle passing through a composite node whose labels are not the same.
+        CompositeNode found = findAmbiguousNodeOnCycle();
+        if (found != null) {
+            LOGGER.debug("first detected node which exists cycle: {}", CommonUtils.getCompositeNodeIdenticalKey(found));
+            LOGGER.debug("Current dfa is not diagnosable!");
+            return false;
         }
         LOGGER.debug("Current dfa is diagnosable!");
 
@@ -121,126 +219,135 @@ public class NeotypeDiagnoser implements Diagnoser {
     // REMARKS: This method is a generalization of the single faulty version.
     // So it can also handle the DFAs with single faulty mode.
     // returns true if the given constructed dfa is diagnosable; otherwise false.
-    private boolean isDiagnosableMultiFaulty(DFANode dfaRoot, DFAConfig dfaConfig) {
+    private boolean isDiagnosableMultiFaulty(CompiledDFA dfa) {
         // clear used node maps before testing the diagnosability of the given dfa.
+        this.multiFaultyNDDFANodes.clear();
+        this.multiFaultyCompositeNodes.clear();
         this.multiFaultyNDDFANodeMap.clear();
         this.multiFaultyCompositeNodeMap.clear();
+        this.multiFaultyTransitionStamps.clear();
         // 1. obtains a nondeterministic finite machine for the given dfa first.
-        MultiFaultyNDDFANode mnfRoot = this.constructNdDfaObserverMultiFaulty(dfaRoot, dfaConfig);
+        this.constructNdDfaObserverMultiFaulty(dfa);
         // 2. computes the product composition of the machine got above.
-        this.computeCompositionMultiFaulty(mnfRoot);
-        // 3. checking whether there is exists a cycle starting from a composited node whose label
+        this.multiFaultyTransitionStamps.clear();
+        this.computeCompositionMultiFaulty();
+        // 3. checking whether there is exists a cycle passing through a composited node whose labels
         // are not the same.
-        List<MultiFaultyCompositeNode> targets = multiFaultyCompositeNodeMap.values().stream()
-                .filter(node -> !isSameFailureTypes(node.firstFailureTypes, node.secondFailureTypes))
-                .collect(Collectors.toList());
-
-        // modification of the algorithm for detecting cycle in directed graph.
-        Set<String> visitedKeys = new HashSet<>(multiFaultyCompositeNodeMap.size());
-        Set<String> recStack = new HashSet<>(multiFaultyCompositeNodeMap.size());
-
-        for (MultiFaultyCompositeNode cn : targets) {
-            // reset visited and recursion stack for every node checking.
-            visitedKeys.clear();
-            recStack.clear();
-            if (existCycle(cn, cn, visitedKeys, recStack)) {
-                System.out.println("first detected node which exists cycle:" +
-                        cn.firstState + "," + cn.firstFailureTypes + ":" +
-                        cn.secondState + "," + cn.secondFailureTypes);
-                LOGGER.debug("Current dfa is not diagnosable!");
-                return false;
-            }
+        int found = findAmbiguousNodeOnCycleMultiFaulty();
+        if (found >= 0) {
+            MultiFaultyCompositeNode cn = multiFaultyCompositeNodes.get(found);
+            LOGGER.debug("first detected node which exists cycle: {},{}:{},{}",
+                    cn.firstState, FailureLabels.toString(cn.firstFailureTypes),
+                    cn.secondState, FailureLabels.toString(cn.secondFailureTypes));
+            LOGGER.debug("Current dfa is not diagnosable!");
+            return false;
         }
         LOGGER.debug("Current dfa is diagnosable!");
 
         return true;
     }
 
+    // approach to test diagnosability using int-keyed observer and composition.
+    // both single faulty mode and multi-faulty mode are handled.
+    // returns true if the given constructed dfa is diagnosable; otherwise false.
+    private boolean isDiagnosableIntKeyed(CompiledDFA dfa) {
+        // 1. obtains the observer for the given dfa first.
+        IntKeyedObserver observer = new IntKeyedObserver(dfa);
+        // 2. computes the composition of the constructed observer with observer itself.
+        // (only the canonical pairs are kept in symmetric mode.)
+        IntKeyedComposition composition = new IntKeyedComposition(observer, mode == Mode.SYMMETRIC);
+        // 3. checking whether there is exists a cycle passing through a composited node whose labels
+        // are not the same.
+        boolean[] ambiguous = new boolean[composition.size];
+        for (int cn = 0; cn < composition.size; cn++)
+            ambiguous[cn] = composition.isAmbiguous(cn);
+        if (CycleDetector.findMarkedNodeOnCycle(composition.size, composition.offsets,
+                composition.targets, ambiguous) >= 0) {
+            LOGGER.debug("Current dfa is not diagnosable!");
+            return false;
+        }
+        LOGGER.debug("Current dfa is diagnosable!");
+        return true;
+    }
+
+    // approach to test diagnosability using int-keyed observer and on-the-fly composition.
+    // both single faulty mode and multi-faulty mode are handled.
+    // returns true if the given constructed dfa is diagnosable; otherwise false.
+    private boolean isDiagnosableLazy(CompiledDFA dfa) {
+        // 1. obtains the observer for the given dfa first.
+        IntKeyedObserver observer = new IntKeyedObserver(dfa);
+        // 2. searching for a cycle passing through a composited node whose labels are not the same,
+        // composited nodes are computed while searching.
+        LazyComposition composition = new LazyComposition(observer);
+        boolean diagnosable = composition.findAmbiguousNodeOnCycle() < 0;
+        LOGGER.debug("{} composite nodes explored.", composition.explored());
+        LOGGER.debug(diagnosable ? "Current dfa is diagnosable!" : "Current dfa is not diagnosable!");
+        return diagnosable;
+    }
+
     /*
     =========================
         HELPER FUNCTIONS
     =========================
      */
-    // return true if there exists a cycle starting from the given node.
-    private boolean existCycle(CompositeNode root, CompositeNode node,
-                               Set<String> visitedKeys, Set<String> recStack) {
-        // mark the current node as visited and part of the recursion stack.
-        if (recStack.contains(CommonUtils.getCompositeNodeIdenticalKey(node))) {
-            // if the node the back edge navigating to is the root node.
-            // there exists a cycle starting from the given root node
-            // and back to the root node.
-            // print, for debug usage only.
-            System.out.println("\n" + CommonUtils.getCompositeNodeIdenticalKey(root) + ":" +
-                    CommonUtils.getCompositeNodeIdenticalKey(node));
-            if (isSameState(root, node))
-                return true;
+    // returns a composite node which lies on a cycle and whose labels are not the same, or null if
+    // there is no such node. (single faulty mode)
+    // composite nodes are numbered and their transitions are flattened for the cycle detection,
+    // see CycleDetector.
+    private CompositeNode findAmbiguousNodeOnCycle() {
+        List<CompositeNode> nodes = new ArrayList<>(compositeNodeMap.values());
+        Map<String, Integer> indexOfKey = new HashMap<>(nodes.size() * 2);
+        int edges = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            indexOfKey.put(CommonUtils.getCompositeNodeIdenticalKey(nodes.get(i)), i);
+            edges += nodes.get(i).transitions.size();
         }
-        if (visitedKeys.contains(CommonUtils.getCompositeNodeIdenticalKey(node)))
-            return false;
-
-        visitedKeys.add(CommonUtils.getCompositeNodeIdenticalKey(node));
-        recStack.add(CommonUtils.getCompositeNodeIdenticalKey(node));
-
-        List<CompositeNode> children = node.transitions.stream()
-                .map(t -> compositeNodeMap.get(t.nextKey))
-                .collect(Collectors.toList());
-        for (CompositeNode n : children)
-            if (existCycle(root, n, visitedKeys, recStack))
-                return true;
-
-        recStack.remove(CommonUtils.getCompositeNodeIdenticalKey(node));
-        return false;
-    }
-
-    // return true if there exists a cycle starting from the given node.
-    // A modification of the implementation for single faulty mode.
-    private boolean existCycle(MultiFaultyCompositeNode root, MultiFaultyCompositeNode node,
-                               Set<String> visitedKeys, Set<String> recStack) {
-        if (recStack.contains(CommonUtils.getCompositeNodeIdenticalKeyMultiFaulty(node))) {
-            if (isSameState(root, node))
-                return true;
+        int[] offsets = new int[nodes.size() + 1];
+        int[] targets = new int[edges];
+        boolean[] ambiguous = new boolean[nodes.size()];
+        edges = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            CompositeNode cn = nodes.get(i);
+            ambiguous[i] = !cn.firstFailureType.equals(cn.secondFailureType);
+            for (Transition t : cn.transitions)
+                targets[edges++] = indexOfKey.get(t.nextKey);
+            offsets[i + 1] = edges;
         }
-        if (visitedKeys.contains(CommonUtils.getCompositeNodeIdenticalKeyMultiFaulty(node)))
-            return false;
-
-        visitedKeys.add(CommonUtils.getCompositeNodeIdenticalKeyMultiFaulty(node));
-        recStack.add(CommonUtils.getCompositeNodeIdenticalKeyMultiFaulty(node));
-
-        List<MultiFaultyCompositeNode> children = node.transitions.stream()
-                .map(t -> multiFaultyCompositeNodeMap.get(t.nextKey))
-                .collect(Collectors.toList());
-        for (MultiFaultyCompositeNode n : children)
-            if (existCycle(root, n, visitedKeys, recStack))
-                return true;
-
-        recStack.remove(CommonUtils.getCompositeNodeIdenticalKeyMultiFaulty(node));
-        return false;
-    }
-
-    // returns true if the given two composite node have same states and failure types.
-    private boolean isSameState(CompositeNode f, CompositeNode s) {
-        return f.firstState == s.firstState && f.secondState == s.secondState &&
-                f.firstFailureType.equals(s.firstFailureType) &&
-                f.secondFailureType.equals(s.secondFailureType);
-    }
-
-    // returns true if the given two composited node have same states and failure types.
-    private boolean isSameState(MultiFaultyCompositeNode f, MultiFaultyCompositeNode s) {
-        return f.firstState == s.firstState && f.secondState == s.secondState &&
-                isSameFailureTypes(f.firstFailureTypes, s.firstFailureTypes) &&
-                isSameFailureTypes(f.secondFailureTypes, s.secondFailureTypes);
+        int found = CycleDetector.findMarkedNodeOnCycle(nodes.size(), offsets, targets, ambiguous);
+        return found < 0 ? null : nodes.get(found);
+    }
+
+    // returns the position of a composite node which lies on a cycle and whose labels are not the same,
+    // or -1 if there is no such node. (multi-faulty mode)
+    private int findAmbiguousNodeOnCycleMultiFaulty() {
+        int size = multiFaultyCompositeNodes.size();
+        int edges = 0;
+        for (MultiFaultyCompositeNode cn : multiFaultyCompositeNodes)
+            edges += cn.degree;
+        int[] offsets = new int[size + 1];
+        int[] targets = new int[edges];
+        boolean[] ambiguous = new boolean[size];
+        edges = 0;
+        for (int i = 0; i < size; i++) {
+            MultiFaultyCompositeNode cn = multiFaultyCompositeNodes.get(i);
+            ambiguous[i] = cn.firstFailureTypes != cn.secondFailureTypes;
+            System.arraycopy(cn.nexts, 0, targets, edges, cn.degree);
+            edges += cn.degree;
+            offsets[i + 1] = edges;
+        }
+        return CycleDetector.findMarkedNodeOnCycle(size, offsets, targets, ambiguous);
     }
 
     // obtains a nondeterministic finite machine for the given dfa.
     // REMARKS: this method only used for single faulty mode.
-    private NDDFANode constructNdDfaObserver(DFANode root, DFAConfig dfaConfig) {
+    private NDDFANode constructNdDfaObserver(CompiledDFA dfa) {
         // initialization
-        String[] failureTypes = getFailureTypes(dfaConfig);
+        String[] failureTypes = getFailureTypes(dfa.getFaultTypeCount());
 
         //states whether the observer node is visited or not.
         Set<String> keysOfVisitedNdNodes = new HashSet<>();
 
-        NDDFANode observerRoot = new NDDFANode(root.getState(), failureTypes[0]);
+        NDDFANode observerRoot = new NDDFANode(dfa.stateIdOf(dfa.getRootIndex()), failureTypes[0]);
         // add new node to observerNodeMap
         ndDfaNodeMap.put(CommonUtils.getObserverNodeIdenticalKey(observerRoot), observerRoot);
         // iterates all the states in the given dfa.
@@ -248,25 +355,24 @@ public class NeotypeDiagnoser implements Diagnoser {
         queue.offer(observerRoot);
         while (!queue.isEmpty()) {
             NDDFANode poNode = queue.poll();
-            DFANode pNode = dfaConfig.getStatesMap().get(poNode.state);
+            int p = dfa.stateIndexOf(poNode.state);
             // mark current node as visited.
             keysOfVisitedNdNodes.add(CommonUtils.getObserverNodeIdenticalKey(poNode));
-            Character[] currSymbols = pNode.getTransitions().keySet().toArray(new Character[0]);
-            for (char s : currSymbols) {
-                int faulty = isFaultyEvent(s, dfaConfig);
-                DFANode nextDFANode = pNode.navigate(s, dfaConfig);
+            for (int i = 0; i < dfa.outDegree(p); i++) {
+                int s = dfa.outSymbol(p, i);
+                int faulty = dfa.faultTypeOf(s);
+                int next = dfa.next(p, s);
                 // deal with faulty event label.
                 if (faulty > 0) {
-                    Character[] nextSymbols = nextDFANode.getTransitions().keySet().toArray(new Character[0]);
-                    for (char ns : nextSymbols) {
-                        DFANode fnNode = nextDFANode.navigate(ns, dfaConfig);
-                        poNode.addTransition(ns,
-                                addNewNdDfaNodeToMap(fnNode.getState(), failureTypes[faulty]));
+                    for (int j = 0; j < dfa.outDegree(next); j++) {
+                        int ns = dfa.outSymbol(next, j);
+                        poNode.addTransition(dfa.symbolOf(ns),
+                                addNewNdDfaNodeToMap(dfa.stateIdOf(dfa.next(next, ns)), failureTypes[faulty]));
                     }
                 } else {
                     // add a new transition to current observer node.
-                    poNode.addTransition(s,
-                            addNewNdDfaNodeToMap(nextDFANode.getState(), poNode.failureType));
+                    poNode.addTransition(dfa.symbolOf(s),
+                            addNewNdDfaNodeToMap(dfa.stateIdOf(next), poNode.failureType));
                 }
             }
             queue.addAll(getUnvisitedNextNdNodes(poNode, keysOfVisitedNdNodes, queue));
@@ -275,8 +381,7 @@ public class NeotypeDiagnoser implements Diagnoser {
     }
 
     // returns all the failure types array.
-    private String[] getFailureTypes(DFAConfig dfaConfig) {
-        int numOfFaultyTypes = dfaConfig.getFaultyEvents().length;
+    private String[] getFailureTypes(int numOfFaultyTypes) {
         String[] failureTypes = new String[numOfFaultyTypes + 1];
         failureTypes[0] = "N";
         for (int i = 1; i < failureTypes.length; i++)
@@ -295,17 +400,6 @@ public class NeotypeDiagnoser implements Diagnoser {
         return ikey;
     }
 
-    // returns the faulty type index if the given symbol is faulty
-    // otherwise negative number -1 is returned.
-    private int isFaultyEvent(char symbol, DFAConfig dfaConfig) {
-        int faultySize = dfaConfig.getFaultyEvents().length;
-        for (int i = 0; i < faultySize; i++) {
-            if (dfaConfig.getUnobservableEvents()[i] == symbol)
-                return i + 1;   // since a normal type is at index 0 in failureTypes array.
-        }
-        return -1;
-    }
-
     // returns unvisited next nd-dfa nodes for the given node.
     private List<NDDFANode> getUnvisitedNextNdNodes(NDDFANode curr,
                                                     Set<String> keysOfVisitedNdNodes,
@@ -412,201 +506,103 @@ public class NeotypeDiagnoser implements Diagnoser {
     }
 
     // A modification of the implementation of the single faulty mode one.
-    private MultiFaultyNDDFANode constructNdDfaObserverMultiFaulty(DFANode dfaRoot, DFAConfig dfaConfig) {
-        // initialization
-        String[] failureTypes = getFailureTypes(dfaConfig);
-
-        // states whether the observer node is visited or not.
-        Set<String> keysOfVisitedNdNodes = new HashSet<>();
-
+    private void constructNdDfaObserverMultiFaulty(CompiledDFA dfa) {
         // constructing the root node.
-        MultiFaultyNDDFANode mfNdRoot = new MultiFaultyNDDFANode(dfaRoot.getState());
-        mfNdRoot.addFailureType(failureTypes[0]);
-        multiFaultyNDDFANodeMap.put(CommonUtils.getObserverNodeIdenticalKeyMultiFaulty(mfNdRoot), mfNdRoot);
+        addNewNdDfaNodeToMapMultiFaulty(dfa.stateIdOf(dfa.getRootIndex()), FailureLabels.NORMAL);
 
         // bfs traversals the given constructed dfa.
-        Deque<MultiFaultyNDDFANode> queue = new ArrayDeque<>();
-        queue.offer(mfNdRoot);
-
-        while (!queue.isEmpty()) {
-            MultiFaultyNDDFANode mnpDNode = queue.poll();
-            DFANode pNode = dfaConfig.getStatesMap().get(mnpDNode.state);
-            // mark current as visited.
-            keysOfVisitedNdNodes.add(CommonUtils.getObserverNodeIdenticalKeyMultiFaulty(mnpDNode));
-            List<String> currFailureTypes = new ArrayList<>(mnpDNode.failureTypes);
-            applyingTransitions(mnpDNode, pNode, dfaConfig, failureTypes, currFailureTypes);
-
-            queue.addAll(getUnvisitedNextNdNodesMultiFaulty(mnpDNode, keysOfVisitedNdNodes, queue));
+        // nodes are visited in the order they are found, so no extra queue is needed.
+        for (int i = 0; i < multiFaultyNDDFANodes.size(); i++) {
+            MultiFaultyNDDFANode mnpDNode = multiFaultyNDDFANodes.get(i);
+            applyingTransitions(mnpDNode, i, dfa.stateIndexOf(mnpDNode.state), dfa, mnpDNode.failureTypes);
         }
-
-        return mfNdRoot;
     }
 
-    // recursively applying transitions with the failure types for the given multi-faulty nd-observer node.
-    private void applyingTransitions(MultiFaultyNDDFANode curr, DFANode pNode,
-                                     DFAConfig dfaConfig, String[] failureTypes,
-                                     List<String> currFailureTypes) {
-        Character[] symbols = pNode.getTransitions().keySet().toArray(new Character[0]);
-        for (char s : symbols) {
-            int faulty = isFaultyEvent(s, dfaConfig);
-            DFANode nextDFANode = pNode.navigate(s, dfaConfig);
+    // recursively applying transitions with the failure types for the given multi-faulty nd-observer node
+    // (at the given position).
+    private void applyingTransitions(MultiFaultyNDDFANode curr, int position, int p,
+                                     CompiledDFA dfa, int currFailureTypes) {
+        for (int i = 0; i < dfa.outDegree(p); i++) {
+            int s = dfa.outSymbol(p, i);
+            int faulty = dfa.faultTypeOf(s);
+            int next = dfa.next(p, s);
             if (faulty > 0) {
                 // add faulty types.
-                currFailureTypes.remove(failureTypes[0]);
-                currFailureTypes.add(failureTypes[faulty]);
-                applyingTransitions(curr, nextDFANode, dfaConfig, failureTypes, currFailureTypes);
-                // rollback failureTypes since other states does not contains this faulty event.
-                currFailureTypes.remove(failureTypes[faulty]);
-                if (currFailureTypes.isEmpty())
-                    currFailureTypes.addAll(curr.failureTypes);
+                applyingTransitions(curr, position, next, dfa, FailureLabels.withFault(currFailureTypes, faulty));
             } else {
-                curr.addTransition(s,
-                        addNewNdDfaNodeToMapMultiFaulty(nextDFANode.getState(), currFailureTypes));
+                int nextNode = addNewNdDfaNodeToMapMultiFaulty(dfa.stateIdOf(next), currFailureTypes);
+                if (isNewTransition(position, dfa.symbolOf(s), nextNode))
+                    curr.addTransition(dfa.symbolOf(s), nextNode);
             }
         }
     }
 
-    // Add new multi-faulty nd-observer node to map, and returns the identical key for
-    // the added node.
-    private String addNewNdDfaNodeToMapMultiFaulty(int state, List<String> failureTypes) {
-        List<String> failureTypeTobeAdded = failureTypes.stream().distinct().collect(Collectors.toList());
-        String ikey = CommonUtils.getObserverNodeIdenticalKeyMultiFaulty(state, failureTypeTobeAdded);
-        // add new nd-observer node to map
-        if (!multiFaultyNDDFANodeMap.containsKey(ikey)) {
-            MultiFaultyNDDFANode newNode = new MultiFaultyNDDFANode(state);
-            newNode.addFailureTypes(failureTypeTobeAdded);
-            multiFaultyNDDFANodeMap.put(ikey, newNode);
-        }
-        return ikey;
+    // returns the identical key of the multi-faulty nd-observer node.
+    private long getObserverNodeKeyMultiFaulty(int state, int failureTypes) {
+        return (long) state << 32 | (failureTypes & 0xffffffffL);
     }
 
-    // Returns a List of unvisited multi-faulty nd-observer nodes for the given curr node.
-    private List<MultiFaultyNDDFANode> getUnvisitedNextNdNodesMultiFaulty(MultiFaultyNDDFANode curr,
-                                                                          Set<String> keysOfVisitedNdNodes,
-                                                                          Deque<MultiFaultyNDDFANode> targetQueue) {
-        return curr.transitions.stream()
-                .map(t -> multiFaultyNDDFANodeMap.get(t.nextKey))
-                .filter(n -> !keysOfVisitedNdNodes.contains(
-                        CommonUtils.getObserverNodeIdenticalKeyMultiFaulty(n)) &&
-                        !targetQueue.contains(n))
-                .distinct()
-                .collect(Collectors.toList());
+    // Add new multi-faulty nd-observer node to map, and returns the position of the node.
+    private int addNewNdDfaNodeToMapMultiFaulty(int state, int failureTypes) {
+        long ikey = getObserverNodeKeyMultiFaulty(state, failureTypes);
+        // add new nd-observer node to map
+        int position = multiFaultyNDDFANodeMap.putIfAbsent(ikey, multiFaultyNDDFANodes.size());
+        if (position >= 0)
+            return position;
+        multiFaultyNDDFANodes.add(new MultiFaultyNDDFANode(state, failureTypes));
+        return multiFaultyNDDFANodes.size() - 1;
     }
 
     // this method is a generalization of the computeComposition method for single faulty mode.
-    private void computeCompositionMultiFaulty(MultiFaultyNDDFANode ndRoot) {
-        // multiply faulty mode is considered.
-        MultiFaultyCompositeNode compositeRoot = new MultiFaultyCompositeNode(ndRoot.state, ndRoot.state);
-        compositeRoot.addFirstFailureTypes(ndRoot.getFailureTypes());
-        compositeRoot.addSecondFailureTypes(ndRoot.getFailureTypes());
-        multiFaultyCompositeNodeMap.put(CommonUtils.getCompositeNodeIdenticalKeyMultiFaulty(compositeRoot),
-                compositeRoot);
-
-        // stores key of the visited composited nodes.
-        Set<String> keysOfVisitedCompositedNodes = new HashSet<>();
+    private void computeCompositionMultiFaulty() {
+        // multiply faulty mode is considered, (root, root) is the root.
+        addNewCompositeNodeToMapMultiFaulty(0, 0);
 
         // bfs traversal approach is taken.
-        Deque<MultiFaultyCompositeNode> queue = new ArrayDeque<>();
-        queue.offer(compositeRoot);
-
-        while (!queue.isEmpty()) {
-            MultiFaultyCompositeNode pmcNode = queue.poll();
-            // mark current node as visited.
-            keysOfVisitedCompositedNodes.add(CommonUtils.getCompositeNodeIdenticalKeyMultiFaulty(pmcNode));
-
-            MultiFaultyNDDFANode firstNdNode = multiFaultyNDDFANodeMap.get(
-                    CommonUtils.getObserverNodeIdenticalKeyMultiFaulty(pmcNode.firstState,
-                            pmcNode.firstFailureTypes));
-            MultiFaultyNDDFANode secondNdNode = multiFaultyNDDFANodeMap.get(
-                    CommonUtils.getObserverNodeIdenticalKeyMultiFaulty(pmcNode.secondState,
-                            pmcNode.secondFailureTypes));
-
-            // if two nd-observer nodes have the same states and labels
-            if (isSameState(firstNdNode, secondNdNode)) {
-                List<Character> events = getEventSymbols(firstNdNode);
-                for (char s : events) {
-                    MultiFaultyNDDFANode[] nextNdNodes = getNextMultiFaultyNDDFANodes(firstNdNode, s);
-                    for (MultiFaultyNDDFANode outer : nextNdNodes)
-                        for (MultiFaultyNDDFANode inner : nextNdNodes)
-                            pmcNode.addTransition(s,
-                                    addNewCompositeNodeToMapMultiFaulty(
-                                            outer.state, outer.failureTypes, inner.state, inner.failureTypes));
-                }
-            } else {
-                // obtains common event labels of two nd-dfa nodes.
-                List<Character> fEvents = getEventSymbols(firstNdNode);
-                List<Character> sEvents = getEventSymbols(secondNdNode);
-                fEvents.retainAll(sEvents);
-                for (char s : fEvents) {
-                    MultiFaultyNDDFANode[] fNextNdNodes = getNextMultiFaultyNDDFANodes(firstNdNode, s);
-                    MultiFaultyNDDFANode[] sNextNdNodes = getNextMultiFaultyNDDFANodes(secondNdNode, s);
-                    for (MultiFaultyNDDFANode outer : fNextNdNodes)
-                        for (MultiFaultyNDDFANode inner : sNextNdNodes)
-                            pmcNode.addTransition(s,
-                                    addNewCompositeNodeToMapMultiFaulty(
-                                            outer.state, outer.failureTypes,
-                                            inner.state, inner.failureTypes));
+        // nodes are visited in the order they are found, so no extra queue is needed.
+        for (int i = 0; i < multiFaultyCompositeNodes.size(); i++) {
+            MultiFaultyCompositeNode pmcNode = multiFaultyCompositeNodes.get(i);
+            MultiFaultyNDDFANode firstNdNode = multiFaultyNDDFANodes.get(pmcNode.firstNode);
+            MultiFaultyNDDFANode secondNdNode = multiFaultyNDDFANodes.get(pmcNode.secondNode);
+
+            // transitions with the common event labels of two nd-observer nodes.
+            // (if two nd-observer nodes have the same states and labels, all the events are common.)
+            for (int outer = 0; outer < firstNdNode.degree; outer++) {
+                char symbol = firstNdNode.symbols[outer];
+                for (int inner = 0; inner < secondNdNode.degree; inner++) {
+                    if (symbol != secondNdNode.symbols[inner])
+                        continue;
+                    int next = addNewCompositeNodeToMapMultiFaulty(firstNdNode.nexts[outer],
+                            secondNdNode.nexts[inner]);
+                    if (isNewTransition(i, symbol, next))
+                        pmcNode.addTransition(symbol, next);
                 }
             }
-            // add unvisited next nodes of current composited node to queue.
-            queue.addAll(getUnvisitedNextCompNodesMultiFaulty(pmcNode, keysOfVisitedCompositedNodes));
         }
     }
 
-    // returns a list of events of the given multi-faulty nd-observer node.
-    private List<Character> getEventSymbols(MultiFaultyNDDFANode curr) {
-        return curr.transitions.stream()
-                .map(t -> t.symbol)
-                .distinct()
-                .collect(Collectors.toList());
-    }
-
-    // returns an array of the next nodes of the given multi-faulty nd-observer node.
-    private MultiFaultyNDDFANode[] getNextMultiFaultyNDDFANodes(MultiFaultyNDDFANode curr, char symbol) {
-        return curr.transitions.stream()
-                .filter(t -> t.symbol == symbol)
-                .map(t -> multiFaultyNDDFANodeMap.get(t.nextKey))
-                .toArray(MultiFaultyNDDFANode[]::new);
-    }
-
-    // returns true if the given two nodes have the same states and labels
-    private boolean isSameState(MultiFaultyNDDFANode nodeA, MultiFaultyNDDFANode nodeB) {
-        return nodeA.state == nodeB.state && isSameFailureTypes(nodeA.failureTypes, nodeB.failureTypes);
-    }
-
-    // returns true if the given two list have the same failure types.
-    private boolean isSameFailureTypes(List<String> firstFailureTypes, List<String> secondFailureTypes) {
-        if (firstFailureTypes.size() == secondFailureTypes.size()) {
-            List<String> retained = firstFailureTypes.stream()
-                    .filter(secondFailureTypes::contains)
-                    .collect(Collectors.toList());
-            return retained.size() == firstFailureTypes.size();
-        }
-        return false;
-    }
-
-    // add a new composite node to map (multi-faulty mode)
-    private String addNewCompositeNodeToMapMultiFaulty(int firstState, List<String> firstFailureTypes,
-                                                       int secondState, List<String> secondFailureTypes) {
-        String ikey = CommonUtils.getCompositeNodeIdenticalKeyMultiFaulty(
-                firstState, firstFailureTypes, secondState, secondFailureTypes);
-        if (!multiFaultyCompositeNodeMap.containsKey(ikey)) {
-            MultiFaultyCompositeNode newNode = new MultiFaultyCompositeNode(firstState, secondState);
-            newNode.addFirstFailureTypes(firstFailureTypes);
-            newNode.addSecondFailureTypes(secondFailureTypes);
-            multiFaultyCompositeNodeMap.put(ikey, newNode);
-        }
-        return ikey;
-    }
-
-    // Returns a list of unvisited composited nodes of the given node.
-    private List<MultiFaultyCompositeNode> getUnvisitedNextCompNodesMultiFaulty(MultiFaultyCompositeNode curr,
-                                                                                Set<String> keysOfVisitedNodes) {
-        return curr.transitions.stream()
-                .filter(t -> !keysOfVisitedNodes.contains(t.nextKey))
-                .map(t -> multiFaultyCompositeNodeMap.get(t.nextKey))
-                .distinct()
-                .collect(Collectors.toList());
+    // add a new composite node of the given observer nodes (positions) to map (multi-faulty mode), and
+    // returns the position of the composite node.
+    private int addNewCompositeNodeToMapMultiFaulty(int firstNode, int secondNode) {
+        long ikey = (long) firstNode << 32 | secondNode;
+        int position = multiFaultyCompositeNodeMap.putIfAbsent(ikey, multiFaultyCompositeNodes.size());
+        if (position >= 0)
+            return position;
+        MultiFaultyNDDFANode first = multiFaultyNDDFANodes.get(firstNode);
+        MultiFaultyNDDFANode second = multiFaultyNDDFANodes.get(secondNode);
+        multiFaultyCompositeNodes.add(new MultiFaultyCompositeNode(first.state, first.failureTypes, firstNode,
+                second.state, second.failureTypes, secondNode));
+        return multiFaultyCompositeNodes.size() - 1;
+    }
+
+    // returns true if the given transition is not added to the node at the given position yet, all the
+    // transitions of a node are added before the transitions of the next one. (multi-faulty mode)
+    private boolean isNewTransition(int position, char symbol, int next) {
+        long key = (long) symbol << 32 | next;
+        if (multiFaultyTransitionStamps.get(key) == position)
+            return false;
+        multiFaultyTransitionStamps.put(key, position);
+        return true;
     }
 
     /**
@@ -1,6 +1,8 @@
 package com.rovo98.rgodd.egr;
 
 import com.rovo98.rgodd.DFANode;
+import com.rovo98.rgodd.io.BinaryLogsReader;
+import com.rovo98.rgodd.io.BinaryLogsWriter;
 
 import java.io.*;
 import java.nio.file.Files;
@@ -36,6 +38,7 @@ public class EGRSystem implements Serializable {
     private boolean verbose = false;
 
     private final char UNOBSERVABLE = 'd';
+    private final static char[] OBSERVABLE_EVENTS = {'a', 'b', 'e', 'f'};
     // only two state partitions in this system.
     List<Integer> firstPartition = new ArrayList<>(Arrays.asList(1, 2, 3, 5, 6, 7));
     List<Integer> secondPartition = new ArrayList<>(Arrays.asList(4, 8));
@@ -104,6 +107,28 @@ public class EGRSystem implements Serializable {
             this.save(df.format(new Date()) + "_egr-system-logs.txt", statistics);
     }
 
+    /**
+     * Saves the logs generated by the last {@link #generateOriLogs(int, boolean, boolean)} call to the
+     * given file in the binary format, see {@link BinaryLogsReader}.
+     *
+     * @param target the file to save the logs.
+     * @throws IllegalStateException if no logs are generated.
+     * @throws IOException           if the logs can not be saved.
+     */
+    public void saveBinary(Path target) throws IOException {
+        if (oriLogs == null)
+            throw new IllegalStateException("No logs generated.");
+        System.out.println("Saving the generated logs to binary file : " + target);
+        try (BinaryLogsWriter writer = new BinaryLogsWriter(target, OBSERVABLE_EVENTS, 3,
+                MIN_LOG_LEN, MAX_LOG_LEN)) {
+            for (String log : oriLogs) {
+                int t = log.lastIndexOf('T');
+                writer.write(log.substring(0, t), Integer.parseInt(log.substring(t + 1)));
+            }
+        }
+        System.out.println("==>\t Done.");
+    }
+
     // THE FOLLOWING ARE HELPER FUNCTIONS
     private void initialize() {
         // initialization
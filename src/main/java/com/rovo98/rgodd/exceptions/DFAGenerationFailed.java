@@ -0,0 +1,25 @@
+package com.rovo98.rgodd.exceptions;
+
+/**
+ * This Runtime Exception will be thrown when no dfa can be generated as required,
+ * e.g. the generating workers are interrupted or failed.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.07
+ */
+public class DFAGenerationFailed extends RuntimeException {
+    private static final long serialVersionUID = 2286434921475306713L;
+
+    public DFAGenerationFailed() {
+        super();
+    }
+
+    public DFAGenerationFailed(String message) {
+        super(message);
+    }
+
+    public DFAGenerationFailed(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
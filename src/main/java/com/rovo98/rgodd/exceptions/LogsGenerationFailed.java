@@ -0,0 +1,25 @@
+package com.rovo98.rgodd.exceptions;
+
+/**
+ * This Runtime Exception will be thrown when the running logs can not be generated as required,
+ * e.g. the generating workers are interrupted or failed.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.11
+ */
+public class LogsGenerationFailed extends RuntimeException {
+    private static final long serialVersionUID = -4309412378016428395L;
+
+    public LogsGenerationFailed() {
+        super();
+    }
+
+    public LogsGenerationFailed(String message) {
+        super(message);
+    }
+
+    public LogsGenerationFailed(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,57 @@
+package com.rovo98.rgodd.io;
+
+/**
+ * Layout of the binary running logs file, written by {@link BinaryLogsWriter} and read by
+ * {@link BinaryLogsReader}.
+ * <br />
+ * All the numbers are little-endian, and every section starts at a position aligned to 8 bytes.
+ * <pre>
+ * header      magic (int), version (int), alphabet size (int), label count (int),
+ *             min length (int), max length (int), log count (long),
+ *             body position (long), labels position (long), offsets position (long),
+ *             alphabet (char * alphabet size), logs of every label (long * label count)
+ * body        symbols of all the logs, one byte per symbol (the index of the symbol in the alphabet)
+ * labels      label of every log (int * log count)
+ * offsets     start of every log in the body, and the end of the body (long * (log count + 1))
+ * </pre>
+ * The symbols of log i are the bytes {@code [offsets[i], offsets[i + 1])} of the body.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.13
+ */
+final class BinaryLogsFormat {
+    static final int MAGIC = 0x474f4c52;     // "RLOG" in little-endian.
+    static final int VERSION = 1;
+
+    static final int ALPHABET_SIZE = 8;
+    static final int LABEL_COUNT = 12;
+    static final int MIN_LENGTH = 16;
+    static final int MAX_LENGTH = 20;
+    static final int LOG_COUNT = 24;
+    static final int BODY_POSITION = 32;
+    static final int LABELS_POSITION = 40;
+    static final int OFFSETS_POSITION = 48;
+    static final int ALPHABET = 56;
+
+    // one byte per symbol.
+    static final int MAX_ALPHABET_SIZE = 256;
+
+    private BinaryLogsFormat() {
+    }
+
+    // returns the position of the statistics section of the given alphabet size.
+    static long statisticsPosition(int alphabetSize) {
+        return align(ALPHABET + 2L * alphabetSize);
+    }
+
+    // returns the body position of the given alphabet size and label count.
+    static long bodyPosition(int alphabetSize, int labelCount) {
+        return statisticsPosition(alphabetSize) + 8L * labelCount;
+    }
+
+    // returns the given position aligned to 8 bytes.
+    static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+}
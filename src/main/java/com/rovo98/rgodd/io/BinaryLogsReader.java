@@ -0,0 +1,196 @@
+package com.rovo98.rgodd.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.rovo98.rgodd.io.BinaryLogsFormat.*;
+
+/**
+ * Reader of the binary logs file written by {@link BinaryLogsWriter}, see {@link BinaryLogsFormat} for
+ * the layout.
+ * <br />
+ * The whole file is memory-mapped (read-only), logs are read from the mapped pages directly without
+ * parsing, and random access of any log is O(1). Files larger than 2GB are mapped as several windows,
+ * see {@link MappedFile}.
+ * <br />
+ * Symbols of the logs are read as the indices of the symbols in the alphabet ({@link #getAlphabet()}),
+ * e.g. to be fed to an embedding layer directly; {@link #observation(long)} returns the original symbols.
+ * <br />
+ * NOTICE: instances of this class are thread-safe, the mapped windows are only read with absolute
+ * positions.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.13
+ */
+public final class BinaryLogsReader implements LogDataset {
+    private final MappedFile file;
+    private final char[] alphabet;
+    private final long[] statistics;
+    private final int minLength;
+    private final int maxLength;
+    private final long size;
+    private final long bodyPosition;
+    private final long labelsPosition;
+    private final long offsetsPosition;
+
+    private BinaryLogsReader(Path path) throws IOException {
+        this.file = new MappedFile(path);
+        try {
+            long fileSize = file.size();
+            if (fileSize < ALPHABET || file.getInt(0) != MAGIC)
+                throw new IOException("Not a binary logs file: " + path);
+            if (file.getInt(4) != VERSION)
+                throw new IOException("Unsupported binary logs version: " + file.getInt(4));
+
+            this.alphabet = new char[file.getInt(ALPHABET_SIZE)];
+            for (int i = 0; i < alphabet.length; i++)
+                alphabet[i] = file.getChar(ALPHABET + 2L * i);
+            this.statistics = new long[file.getInt(LABEL_COUNT)];
+            long statisticsPosition = statisticsPosition(alphabet.length);
+            for (int i = 0; i < statistics.length; i++)
+                statistics[i] = file.getLong(statisticsPosition + 8L * i);
+            this.minLength = file.getInt(MIN_LENGTH);
+            this.maxLength = file.getInt(MAX_LENGTH);
+            this.size = file.getLong(LOG_COUNT);
+            this.bodyPosition = file.getLong(BODY_POSITION);
+            this.labelsPosition = file.getLong(LABELS_POSITION);
+            this.offsetsPosition = file.getLong(OFFSETS_POSITION);
+            if (offsetsPosition + 8 * (size + 1) > fileSize)
+                throw new IOException("Truncated binary logs file: " + path);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the given binary logs file.
+     *
+     * @param path the binary logs file.
+     * @return the reader of the given file.
+     * @throws IOException if the file can not be read, or it is not a binary logs file.
+     */
+    public static BinaryLogsReader open(Path path) throws IOException {
+        return new BinaryLogsReader(path);
+    }
+
+    // returns true if the given file starts with the magic number of the binary logs file.
+    static boolean isBinaryLogsFile(Path path) throws IOException {
+        byte[] magic = new byte[Integer.BYTES];
+        try (InputStream in = Files.newInputStream(path)) {
+            if (in.read(magic) < magic.length)
+                return false;
+        }
+        return ByteBuffer.wrap(magic).order(ByteOrder.LITTLE_ENDIAN).getInt() == MAGIC;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int label(long i) {
+        checkIndex(i);
+        return file.getInt(labelsPosition + 4 * i);
+    }
+
+    /**
+     * Returns the length (number of the symbols) of the i-th log.
+     *
+     * @param i the index of the log.
+     * @return the length of the log.
+     * @throws IndexOutOfBoundsException if the given index is out of range.
+     */
+    public int length(long i) {
+        checkIndex(i);
+        return (int) (offset(i + 1) - offset(i));
+    }
+
+    /**
+     * Returns the index (in the alphabet) of the j-th symbol of the i-th log.
+     *
+     * @param i the index of the log.
+     * @param j the index of the symbol in the log.
+     * @return the index of the symbol in the alphabet.
+     * @throws IndexOutOfBoundsException if the given indices are out of range.
+     */
+    public int symbol(long i, int j) {
+        if (j < 0 || j >= length(i))
+            throw new IndexOutOfBoundsException("symbol index out of range: " + j);
+        return file.getByte(bodyPosition + offset(i) + j) & 0xff;
+    }
+
+    /**
+     * Copies the symbol indices of the i-th log to the given buffer.
+     *
+     * @param i   the index of the log.
+     * @param dst the buffer to copy to.
+     * @param off the start position in the buffer.
+     * @return the length of the log.
+     * @throws IndexOutOfBoundsException if the given index is out of range, or the buffer is too small.
+     */
+    public int readSymbols(long i, byte[] dst, int off) {
+        int length = length(i);
+        if (off < 0 || off + length > dst.length)
+            throw new IndexOutOfBoundsException("buffer too small for log of length " + length);
+        file.getBytes(bodyPosition + offset(i), dst, off, length);
+        return length;
+    }
+
+    @Override
+    public String observation(long i) {
+        int length = length(i);
+        long position = bodyPosition + offset(i);
+        char[] observation = new char[length];
+        for (int j = 0; j < length; j++)
+            observation[j] = alphabet[file.getByte(position + j) & 0xff];
+        return new String(observation);
+    }
+
+    public char[] getAlphabet() {
+        return alphabet.clone();
+    }
+
+    @Override
+    public int getLabelCount() {
+        return statistics.length;
+    }
+
+    /**
+     * Returns the number of the logs of every label.
+     *
+     * @return the statistics of the logs.
+     */
+    public long[] getStatistics() {
+        return statistics.clone();
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    // returns the start of the i-th log in the body.
+    private long offset(long i) {
+        return file.getLong(offsetsPosition + 8 * i);
+    }
+
+    private void checkIndex(long i) {
+        if (i < 0 || i >= size)
+            throw new IndexOutOfBoundsException("log index out of range: " + i);
+    }
+}
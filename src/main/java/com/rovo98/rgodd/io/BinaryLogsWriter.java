@@ -0,0 +1,206 @@
+package com.rovo98.rgodd.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.rovo98.rgodd.io.BinaryLogsFormat.*;
+
+/**
+ * Writes running logs to a binary logs file, see {@link BinaryLogsFormat} for the layout.
+ * <br />
+ * Logs are appended one by one, the symbols are written to the body directly, while the labels and
+ * offsets columns are buffered in temporary files next to the target, so the memory used does not
+ * depend on the number of the logs. The columns and the header are written when the writer is closed.
+ * <br />
+ * NOTICE: instances of this class are not thread-safe.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.13
+ */
+public final class BinaryLogsWriter implements Closeable {
+    private final char[] alphabet;
+    private final int[] symbolIndices;      // symbol (char) -> symbol index (-1 if not in alphabet).
+    private final int minLength;
+    private final int maxLength;
+    private final long[] statistics;
+
+    private final FileChannel channel;
+    private final ChannelOutput body;
+    private final Path labelsPath;
+    private final ChannelOutput labels;
+    private final Path offsetsPath;
+    private final ChannelOutput offsets;
+    private long size;
+    private boolean closed;
+
+    /**
+     * Creates a writer of the given target file.
+     *
+     * @param target     the target file.
+     * @param alphabet   the observable events, symbols of the logs.
+     * @param labelCount the number of the labels of the logs.
+     * @param minLength  the minimum length of the generating walks.
+     * @param maxLength  the maximum length of the generating walks.
+     * @throws IllegalArgumentException if the given alphabet is empty or larger than 256 symbols, or the
+     *                                  given label count is not positive.
+     * @throws IOException              if the target file can not be created.
+     */
+    public BinaryLogsWriter(Path target, char[] alphabet, int labelCount,
+                            int minLength, int maxLength) throws IOException {
+        if (alphabet.length == 0 || alphabet.length > MAX_ALPHABET_SIZE)
+            throw new IllegalArgumentException("alphabet size should be in [1, 256]: " + alphabet.length);
+        if (labelCount < 1)
+            throw new IllegalArgumentException("label count should be positive: " + labelCount);
+        this.alphabet = alphabet.clone();
+        char maxSymbol = 0;
+        for (char c : alphabet)
+            maxSymbol = (char) Math.max(maxSymbol, c);
+        this.symbolIndices = new int[maxSymbol + 1];
+        Arrays.fill(symbolIndices, -1);
+        for (int i = 0; i < alphabet.length; i++)
+            symbolIndices[alphabet[i]] = i;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.statistics = new long[labelCount];
+
+        this.labelsPath = target.resolveSibling(target.getFileName() + ".labels");
+        this.offsetsPath = target.resolveSibling(target.getFileName() + ".offsets");
+        // the opened channels are closed if the others can not be opened.
+        FileChannel channel = null, labelsChannel = null, offsetsChannel = null;
+        try {
+            channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(bodyPosition(alphabet.length, labelCount));
+            labelsChannel = FileChannel.open(labelsPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            offsetsChannel = FileChannel.open(offsetsPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            for (FileChannel opened : new FileChannel[]{channel, labelsChannel, offsetsChannel}) {
+                if (opened == null)
+                    continue;
+                try {
+                    opened.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            if (labelsChannel != null)
+                Files.deleteIfExists(labelsPath);
+            throw e;
+        }
+        this.channel = channel;
+        this.body = new ChannelOutput(channel);
+        this.labels = new ChannelOutput(labelsChannel);
+        this.offsets = new ChannelOutput(offsetsChannel);
+        offsets.putLong(0);
+    }
+
+    /**
+     * Appends the given log.
+     *
+     * @param observation the buffer containing the observation of the log.
+     * @param length      the length of the observation.
+     * @param label       the label of the log.
+     * @throws IllegalArgumentException if the observation contains symbols out of the alphabet, or the
+     *                                  label is out of range.
+     * @throws IOException              if the log can not be written.
+     */
+    public void write(char[] observation, int length, int label) throws IOException {
+        if (label < 0 || label >= statistics.length)
+            throw new IllegalArgumentException("label out of range: " + label);
+        for (int i = 0; i < length; i++) {
+            char c = observation[i];
+            if (c >= symbolIndices.length || symbolIndices[c] < 0)
+                throw new IllegalArgumentException("symbol not found in alphabet: " + c);
+        }
+        for (int i = 0; i < length; i++)
+            body.put((byte) symbolIndices[observation[i]]);
+        labels.putInt(label);
+        offsets.putLong(body.written);
+        statistics[label]++;
+        size++;
+    }
+
+    /**
+     * Appends the given log.
+     *
+     * @param observation the observation of the log.
+     * @param label       the label of the log.
+     * @throws IOException if the log can not be written.
+     * @see #write(char[], int, int)
+     */
+    public void write(String observation, int label) throws IOException {
+        write(observation.toCharArray(), observation.length(), label);
+    }
+
+    /**
+     * Returns the number of the written logs.
+     *
+     * @return the number of the written logs.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Writes the columns and the header, and closes the target file.
+     *
+     * @throws IOException if the target file can not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        try {
+            long bodyPosition = bodyPosition(alphabet.length, statistics.length);
+            body.flush();
+            labels.flush();
+            offsets.flush();
+
+            long labelsPosition = align(bodyPosition + body.written);
+            transfer(labels.channel, labelsPosition);
+            long offsetsPosition = align(labelsPosition + labels.written);
+            transfer(offsets.channel, offsetsPosition);
+
+            ByteBuffer header = ByteBuffer.allocate((int) bodyPosition).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION)
+                    .putInt(alphabet.length).putInt(statistics.length)
+                    .putInt(minLength).putInt(maxLength)
+                    .putLong(size)
+                    .putLong(bodyPosition).putLong(labelsPosition).putLong(offsetsPosition);
+            for (char c : alphabet)
+                header.putChar(c);
+            header.position((int) statisticsPosition(alphabet.length));
+            for (long count : statistics)
+                header.putLong(count);
+            header.flip();
+            channel.write(header, 0);
+        } finally {
+            channel.close();
+            labels.channel.close();
+            offsets.channel.close();
+            Files.deleteIfExists(labelsPath);
+            Files.deleteIfExists(offsetsPath);
+        }
+    }
+
+    // copies the whole given column to the target file at the given position.
+    private void transfer(FileChannel column, long position) throws IOException {
+        long count = column.size();
+        long transferred = 0;
+        // the target file is extended (padded) to the given position.
+        channel.position(position);
+        while (transferred < count)
+            transferred += column.transferTo(transferred, count - transferred, channel);
+    }
+}
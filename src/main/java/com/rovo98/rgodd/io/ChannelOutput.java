@@ -0,0 +1,54 @@
+package com.rovo98.rgodd.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Buffered little-endian output of a file channel, written from the current position of the channel.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.13
+ */
+final class ChannelOutput {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    // number of the bytes written (including the buffered bytes).
+    long written;
+
+    ChannelOutput(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    void put(byte b) throws IOException {
+        if (!buffer.hasRemaining())
+            flush();
+        buffer.put(b);
+        written++;
+    }
+
+    void putInt(int i) throws IOException {
+        if (buffer.remaining() < Integer.BYTES)
+            flush();
+        buffer.putInt(i);
+        written += Integer.BYTES;
+    }
+
+    void putLong(long l) throws IOException {
+        if (buffer.remaining() < Long.BYTES)
+            flush();
+        buffer.putLong(l);
+        written += Long.BYTES;
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
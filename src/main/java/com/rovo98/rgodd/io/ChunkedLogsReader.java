@@ -0,0 +1,218 @@
+package com.rovo98.rgodd.io;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.ObjIntConsumer;
+import java.util.zip.GZIPInputStream;
+
+import static com.rovo98.rgodd.io.ChunkedLogsWriter.MAGIC;
+import static com.rovo98.rgodd.io.ChunkedLogsWriter.TRAILER_SIZE;
+
+/**
+ * Reader of the chunked logs file written by {@link ChunkedLogsWriter}.
+ * <br />
+ * The chunk index and the statistics are read from the footer when opening the file, then every chunk can
+ * be decompressed independently, e.g. all the chunks can be decompressed in parallel with
+ * {@link #forEachChunk(ExecutorService, ObjIntConsumer)}.
+ * <br />
+ * NOTICE: instances of this class are thread-safe, the chunks are only read with absolute positions.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.15
+ */
+public final class ChunkedLogsReader implements Closeable {
+    private final FileChannel channel;
+    private final long[] positions;
+    private final int[] compressedSizes;
+    private final int[] counts;
+    private final int[][] chunkStatistics;
+    private final String header;
+    private final long size;
+
+    private ChunkedLogsReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            if (fileSize < TRAILER_SIZE)
+                throw new IOException("Not a chunked logs file: " + path);
+            ByteBuffer trailer = read(fileSize - TRAILER_SIZE, TRAILER_SIZE);
+            long indexPosition = trailer.getLong();
+            int chunkCount = trailer.getInt();
+            int labelCount = trailer.getInt();
+            int headerLength = trailer.getInt();
+            if (trailer.getInt() != MAGIC)
+                throw new IOException("Not a chunked logs file: " + path);
+
+            ByteBuffer index = read(indexPosition, (int) (fileSize - TRAILER_SIZE - indexPosition));
+            this.positions = new long[chunkCount];
+            this.compressedSizes = new int[chunkCount];
+            this.counts = new int[chunkCount];
+            this.chunkStatistics = new int[chunkCount][labelCount];
+            long total = 0;
+            for (int i = 0; i < chunkCount; i++) {
+                positions[i] = index.getLong();
+                compressedSizes[i] = index.getInt();
+                counts[i] = index.getInt();
+                index.getInt();     // the uncompressed size.
+                for (int l = 0; l < labelCount; l++)
+                    chunkStatistics[i][l] = index.getInt();
+                total += counts[i];
+            }
+            this.size = total;
+            byte[] headerBytes = new byte[headerLength];
+            index.get(headerBytes);
+            this.header = new String(headerBytes, StandardCharsets.UTF_8);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens the given chunked logs file.
+     *
+     * @param path the chunked logs file.
+     * @return the reader of the given file.
+     * @throws IOException if the file can not be read, or it is not a chunked logs file.
+     */
+    public static ChunkedLogsReader open(Path path) throws IOException {
+        return new ChunkedLogsReader(path);
+    }
+
+    /**
+     * Returns the number of the logs.
+     *
+     * @return the number of the logs.
+     */
+    public long size() {
+        return size;
+    }
+
+    public int getChunkCount() {
+        return positions.length;
+    }
+
+    /**
+     * Returns the number of the logs of the given chunk.
+     *
+     * @param chunk the index of the chunk.
+     * @return the number of the logs of the chunk.
+     */
+    public int getChunkSize(int chunk) {
+        return counts[chunk];
+    }
+
+    /**
+     * Returns the number of the logs of every label in the given chunk.
+     *
+     * @param chunk the index of the chunk.
+     * @return the statistics of the chunk.
+     */
+    public int[] getChunkStatistics(int chunk) {
+        return chunkStatistics[chunk].clone();
+    }
+
+    /**
+     * Returns the number of the logs of every label in all the chunks.
+     *
+     * @return the statistics of the logs.
+     */
+    public long[] getStatistics() {
+        long[] statistics = new long[chunkStatistics.length == 0 ? 0 : chunkStatistics[0].length];
+        for (int[] chunk : chunkStatistics)
+            for (int l = 0; l < chunk.length; l++)
+                statistics[l] += chunk[l];
+        return statistics;
+    }
+
+    /**
+     * Returns the statistics header line of the logs.
+     *
+     * @return the statistics header line.
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * Decompresses the logs ({@code observationT<label>}) of the given chunk.
+     *
+     * @param chunk the index of the chunk.
+     * @return the logs of the chunk.
+     * @throws IOException if the chunk can not be read.
+     */
+    public List<String> readChunk(int chunk) throws IOException {
+        ByteBuffer compressed = read(positions[chunk], compressedSizes[chunk]);
+        List<String> logs = new ArrayList<>(counts[chunk]);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(compressed.array()), 1 << 16),
+                StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = reader.readLine()) != null)
+                logs.add(line);
+        }
+        return logs;
+    }
+
+    /**
+     * Decompresses all the chunks in parallel on the given executor, and passes the logs of every chunk
+     * with the index of the chunk to the given consumer.
+     * <br />
+     * NOTICE: the consumer is called concurrently from the threads of the executor.
+     *
+     * @param executor the executor decompressing the chunks.
+     * @param consumer the consumer of the logs of every chunk.
+     * @throws IOException if a chunk can not be read.
+     */
+    public void forEachChunk(ExecutorService executor, ObjIntConsumer<List<String>> consumer) throws IOException {
+        List<Callable<Void>> tasks = new ArrayList<>(positions.length);
+        for (int i = 0; i < positions.length; i++) {
+            int chunk = i;
+            tasks.add(() -> {
+                consumer.accept(readChunk(chunk), chunk);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> f : executor.invokeAll(tasks))
+                f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while decompressing logs.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IOException("Failed to decompress logs.", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // reads the given number of bytes from the given position.
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new EOFException("Unexpected end of the chunked logs file.");
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
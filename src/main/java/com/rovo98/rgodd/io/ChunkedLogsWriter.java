@@ -0,0 +1,249 @@
+package com.rovo98.rgodd.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes running logs as independently gzip-compressed chunks, read by {@link ChunkedLogsReader}.
+ * <br />
+ * Every chunk contains the text logs ({@code observationT<label>} per line) of up to the given chunk size,
+ * compressed as a gzip member, and the chunks are compressed on the given executor while the logs are
+ * being written. The chunks are followed by the footer:
+ * <pre>
+ * index       position (long), compressed size (int), log count (int), uncompressed size (int) and
+ *             logs of every label (int * label count) of every chunk
+ * header      the statistics header line of the logs (UTF-8)
+ * trailer     index position (long), chunk count (int), label count (int), header length (int), magic (int)
+ * </pre>
+ * All the numbers are little-endian. Since the chunks are plain gzip members, {@code zcat} can also
+ * decompress the logs of the file (ignoring the footer as trailing garbage).
+ * <br />
+ * NOTICE: instances of this class are not thread-safe.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.15
+ */
+public final class ChunkedLogsWriter implements Closeable {
+    static final int MAGIC = 0x5a474f4c;     // "LOGZ" in little-endian.
+    static final int TRAILER_SIZE = 24;
+
+    /** Default number of the logs of a chunk. */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final int labelCount;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final Deque<Future<Chunk>> pending = new ArrayDeque<>();
+    private final List<Chunk> chunks = new ArrayList<>();
+
+    private StringBuilder logs = new StringBuilder();
+    private int[] statistics;
+    private int count;
+    private long size;
+    private String header = "";
+    private boolean closed;
+
+    /**
+     * Creates a writer of the given target file.
+     *
+     * @param target     the target file.
+     * @param labelCount the number of the labels of the logs.
+     * @param chunkSize  the number of the logs of a chunk.
+     * @param executor   the executor compressing the chunks, or null to compress them in the calling thread.
+     * @param threads    the number of the threads of the executor, at most twice of the number of the chunks
+     *                   are kept in memory while compressing.
+     * @throws IllegalArgumentException if the given label count, chunk size or threads is not positive.
+     * @throws IOException              if the target file can not be created.
+     */
+    public ChunkedLogsWriter(Path target, int labelCount, int chunkSize,
+                             ExecutorService executor, int threads) throws IOException {
+        if (labelCount < 1 || chunkSize < 1 || threads < 1)
+            throw new IllegalArgumentException("label count, chunk size and threads should be positive.");
+        this.labelCount = labelCount;
+        this.chunkSize = chunkSize;
+        this.executor = executor;
+        this.maxPending = 2 * threads;
+        this.statistics = new int[labelCount];
+        this.channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Appends the given log.
+     *
+     * @param observation the buffer containing the observation of the log.
+     * @param length      the length of the observation.
+     * @param label       the label of the log.
+     * @throws IllegalArgumentException if the label is out of range.
+     * @throws IOException              if the compressed chunks can not be written.
+     */
+    public void write(char[] observation, int length, int label) throws IOException {
+        if (label < 0 || label >= labelCount)
+            throw new IllegalArgumentException("label out of range: " + label);
+        logs.append(observation, 0, length).append('T').append(label).append('\n');
+        statistics[label]++;
+        size++;
+        if (++count == chunkSize)
+            submit();
+    }
+
+    /**
+     * Appends the given log.
+     *
+     * @param observation the observation of the log.
+     * @param label       the label of the log.
+     * @throws IOException if the compressed chunks can not be written.
+     * @see #write(char[], int, int)
+     */
+    public void write(String observation, int label) throws IOException {
+        write(observation.toCharArray(), observation.length(), label);
+    }
+
+    /**
+     * Sets the statistics header line saved in the footer.
+     *
+     * @param header the statistics header line.
+     */
+    public void setHeader(String header) {
+        this.header = header;
+    }
+
+    /**
+     * Returns the number of the written logs.
+     *
+     * @return the number of the written logs.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Compresses the rest logs, and writes the footer.
+     *
+     * @throws IOException if the file can not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        try {
+            if (count > 0)
+                submit();
+            while (!pending.isEmpty())
+                writeChunk(pending.poll());
+
+            byte[] headerBytes = header.getBytes(StandardCharsets.UTF_8);
+            int entrySize = 20 + 4 * labelCount;
+            ByteBuffer footer = ByteBuffer.allocate(chunks.size() * entrySize + headerBytes.length + TRAILER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            long indexPosition = channel.position();
+            for (Chunk chunk : chunks) {
+                footer.putLong(chunk.position).putInt(chunk.compressedSize)
+                        .putInt(chunk.count).putInt(chunk.uncompressedSize);
+                for (int c : chunk.statistics)
+                    footer.putInt(c);
+            }
+            footer.put(headerBytes);
+            footer.putLong(indexPosition).putInt(chunks.size()).putInt(labelCount)
+                    .putInt(headerBytes.length).putInt(MAGIC);
+            footer.flip();
+            while (footer.hasRemaining())
+                channel.write(footer);
+        } finally {
+            for (Future<Chunk> f : pending)
+                f.cancel(true);
+            channel.close();
+        }
+    }
+
+    // compresses the current chunk, writing the compressed chunks in order.
+    private void submit() throws IOException {
+        byte[] uncompressed = logs.toString().getBytes(StandardCharsets.UTF_8);
+        int chunkCount = count;
+        int[] chunkStatistics = statistics;
+        logs = new StringBuilder(logs.length());
+        statistics = new int[labelCount];
+        count = 0;
+
+        if (executor == null) {
+            chunks.add(write(compress(uncompressed, chunkCount, chunkStatistics)));
+            return;
+        }
+        pending.add(executor.submit(() -> compress(uncompressed, chunkCount, chunkStatistics)));
+        while (pending.size() > maxPending || !pending.isEmpty() && pending.peek().isDone())
+            writeChunk(pending.poll());
+    }
+
+    // waits for the given compressing chunk, and writes it.
+    private void writeChunk(Future<Chunk> future) throws IOException {
+        try {
+            chunks.add(write(future.get()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing logs.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException)
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            throw new IOException("Failed to compress logs.", e.getCause());
+        }
+    }
+
+    private Chunk write(Chunk chunk) throws IOException {
+        chunk.position = channel.position();
+        ByteBuffer buffer = ByteBuffer.wrap(chunk.compressed);
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        // only the index entry of the written chunk is kept.
+        chunk.compressed = null;
+        return chunk;
+    }
+
+    private static Chunk compress(byte[] uncompressed, int count, int[] statistics) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(uncompressed.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes, 1 << 16)) {
+            gzip.write(uncompressed);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Chunk(bytes.toByteArray(), count, uncompressed.length, statistics);
+    }
+
+    // a compressed chunk.
+    private static final class Chunk {
+        private byte[] compressed;
+        private final int compressedSize;
+        private final int count;
+        private final int uncompressedSize;
+        private final int[] statistics;
+        private long position;
+
+        Chunk(byte[] compressed, int count, int uncompressedSize, int[] statistics) {
+            this.compressed = compressed;
+            this.compressedSize = compressed.length;
+            this.count = count;
+            this.uncompressedSize = uncompressedSize;
+            this.statistics = statistics;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.rovo98.rgodd.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+/**
+ * Random-access view of a generated running logs file.
+ * <br />
+ * Implementations memory-map the file instead of loading the logs onto the heap, every log can be read in
+ * O(1) by its index in {@code [0, size())}.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.14
+ */
+public interface LogDataset extends Closeable {
+
+    /**
+     * Opens the given running logs file, either a binary logs file ({@link BinaryLogsReader}) or a text
+     * logs file ({@link TextLogsReader}).
+     *
+     * @param path the running logs file.
+     * @return the dataset of the given file.
+     * @throws IOException if the file can not be read.
+     */
+    static LogDataset open(Path path) throws IOException {
+        if (BinaryLogsReader.isBinaryLogsFile(path))
+            return BinaryLogsReader.open(path);
+        return TextLogsReader.open(path);
+    }
+
+    /**
+     * Returns the number of the logs.
+     *
+     * @return the number of the logs.
+     */
+    long size();
+
+    /**
+     * Returns the label of the i-th log.
+     *
+     * @param i the index of the log.
+     * @return the label of the log.
+     * @throws IndexOutOfBoundsException if the given index is out of range.
+     */
+    int label(long i);
+
+    /**
+     * Returns the observation of the i-th log.
+     *
+     * @param i the index of the log.
+     * @return the observation of the log.
+     * @throws IndexOutOfBoundsException if the given index is out of range.
+     */
+    String observation(long i);
+
+    /**
+     * Returns the number of the labels of the logs.
+     *
+     * @return the number of the labels.
+     */
+    int getLabelCount();
+
+    /**
+     * Returns the indices of the logs with the given label, in ascending order.
+     *
+     * @param label the label.
+     * @return the indices of the logs with the given label.
+     */
+    default LongStream indicesOf(int label) {
+        return LongStream.range(0, size()).filter(i -> label(i) == label);
+    }
+
+    /**
+     * Returns the shuffled mini-batches of the log indices of one epoch, every log is contained in
+     * exactly one batch, and all the batches except the last one are of the given size.
+     * <br />
+     * The shuffled order is computed on the fly (see {@link RandomPermutation}), so no array of all the
+     * indices is allocated.
+     *
+     * @param batchSize the size of the batches.
+     * @param r         the random generator shuffling the logs.
+     * @return the iterator of the batches.
+     * @throws IllegalArgumentException if the given batch size is not positive.
+     */
+    default Iterator<long[]> batches(int batchSize, Random r) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("batch size should be positive: " + batchSize);
+        long size = size();
+        RandomPermutation permutation = size == 0 ? null : new RandomPermutation(size, r);
+        return new Iterator<long[]>() {
+            private long position;
+
+            @Override
+            public boolean hasNext() {
+                return position < size;
+            }
+
+            @Override
+            public long[] next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                long[] batch = new long[(int) Math.min(batchSize, size - position)];
+                for (int i = 0; i < batch.length; i++)
+                    batch[i] = permutation.get(position++);
+                return batch;
+            }
+        };
+    }
+}
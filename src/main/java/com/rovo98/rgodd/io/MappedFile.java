@@ -0,0 +1,87 @@
+package com.rovo98.rgodd.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only memory-mapped file, mapped as windows of 1GB so that files larger than 2GB can be mapped.
+ * <br />
+ * Numbers are read as little-endian with absolute positions, a number should not cross two windows,
+ * which holds if it is aligned to its size.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.14
+ */
+final class MappedFile implements Closeable {
+    private static final int WINDOW_SHIFT = 30;
+    private static final long WINDOW_MASK = (1L << WINDOW_SHIFT) - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] windows;
+    private final long size;
+
+    MappedFile(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            this.windows = new MappedByteBuffer[(int) ((size + WINDOW_MASK) >>> WINDOW_SHIFT)];
+            for (int i = 0; i < windows.length; i++) {
+                long position = (long) i << WINDOW_SHIFT;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(size - position, 1L << WINDOW_SHIFT));
+                windows[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    byte getByte(long position) {
+        return windows[(int) (position >>> WINDOW_SHIFT)].get((int) (position & WINDOW_MASK));
+    }
+
+    char getChar(long position) {
+        return windows[(int) (position >>> WINDOW_SHIFT)].getChar((int) (position & WINDOW_MASK));
+    }
+
+    int getInt(long position) {
+        return windows[(int) (position >>> WINDOW_SHIFT)].getInt((int) (position & WINDOW_MASK));
+    }
+
+    long getLong(long position) {
+        return windows[(int) (position >>> WINDOW_SHIFT)].getLong((int) (position & WINDOW_MASK));
+    }
+
+    // copies the given number of bytes from the given position to the given buffer.
+    void getBytes(long position, byte[] dst, int off, int length) {
+        int copied = 0;
+        while (copied < length) {
+            MappedByteBuffer window = windows[(int) (position >>> WINDOW_SHIFT)];
+            int start = (int) (position & WINDOW_MASK);
+            int n = Math.min(length - copied, window.limit() - start);
+            // absolute bulk get is not available before java 13, a duplicate keeps the reads thread-safe.
+            ByteBuffer view = window.duplicate();
+            view.position(start);
+            view.get(dst, off + copied, n);
+            copied += n;
+            position += n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.rovo98.rgodd.io;
+
+import java.util.Random;
+
+/**
+ * Random permutation of {@code [0, n)} computed on the fly, so that no array of n indices is allocated.
+ * <br />
+ * A 4-round Feistel network with random round keys is a bijection of {@code [0, 4^k)}, where
+ * {@code 4^k} is the smallest power of 4 not less than n; values out of {@code [0, n)} are encrypted again
+ * (cycle walking) until they fall into it, which takes less than 4 rounds on average.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.14
+ */
+final class RandomPermutation {
+    private static final int ROUNDS = 4;
+
+    private final long n;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] keys = new long[ROUNDS];
+
+    RandomPermutation(long n, Random r) {
+        if (n < 1)
+            throw new IllegalArgumentException("n should be positive: " + n);
+        this.n = n;
+        int bits = Math.max(2, Long.SIZE - Long.numberOfLeadingZeros(n - 1));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        for (int i = 0; i < ROUNDS; i++)
+            keys[i] = r.nextLong();
+    }
+
+    /**
+     * Returns the i-th value of the permutation.
+     *
+     * @param i the index in {@code [0, n)}.
+     * @return the i-th value.
+     */
+    long get(long i) {
+        long x = i;
+        do {
+            x = encrypt(x);
+        } while (x >= n);
+        return x;
+    }
+
+    private long encrypt(long x) {
+        long left = x >>> halfBits;
+        long right = x & halfMask;
+        for (long key : keys) {
+            long next = left ^ (round(right, key) & halfMask);
+            left = right;
+            right = next;
+        }
+        return left << halfBits | right;
+    }
+
+    // round function, the SplitMix64 finalizer of the keyed half.
+    private static long round(long z, long key) {
+        z = (z + key) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
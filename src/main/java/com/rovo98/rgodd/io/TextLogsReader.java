@@ -0,0 +1,214 @@
+package com.rovo98.rgodd.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader of the text running logs file (one log {@code observationT<label>} per line, optionally after a
+ * statistics header line), e.g. saved by {@code RunningLogsGenerator} and {@code EGRSystem}.
+ * <br />
+ * The text file is memory-mapped, and an index of the logs (the position and the length of the observation,
+ * and the label of every log) is built by scanning the file once. The index is saved next to the logs file
+ * ({@code <filename>.idx}) and memory-mapped as well, it is reused by the later readers until the logs file
+ * is modified.
+ * <br />
+ * NOTICE: instances of this class are thread-safe.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.14
+ */
+public final class TextLogsReader implements LogDataset {
+    /** Suffix of the index file of a logs file. */
+    public static final String INDEX_SUFFIX = ".idx";
+
+    // layout of the index file: header, and then (position (long), length (int), label (int)) of every log.
+    private static final int INDEX_MAGIC = 0x58444952;  // "RIDX" in little-endian.
+    private static final int INDEX_VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+    private static final int RECORD_SIZE = 16;
+
+    private static final String STATISTICS_HEADER = "Logs size:";
+
+    private final MappedFile file;
+    private final MappedFile index;
+    private final long size;
+    private final int labelCount;
+
+    private TextLogsReader(MappedFile file, MappedFile index) {
+        this.file = file;
+        this.index = index;
+        this.size = index.getLong(8);
+        this.labelCount = index.getInt(32);
+    }
+
+    /**
+     * Opens the given text logs file, building the index of it if the index does not exist or is outdated.
+     *
+     * @param path the text logs file.
+     * @return the reader of the given file.
+     * @throws IOException if the file or the index can not be read, or the index can not be saved.
+     * @throws IllegalArgumentException if a line of the file is not a labeled log.
+     */
+    public static TextLogsReader open(Path path) throws IOException {
+        Path indexPath = path.resolveSibling(path.getFileName() + INDEX_SUFFIX);
+        MappedFile file = new MappedFile(path);
+        try {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            MappedFile index = null;
+            if (Files.exists(indexPath)) {
+                index = new MappedFile(indexPath);
+                if (!isValidIndex(index, file.size(), modified)) {
+                    index.close();
+                    index = null;
+                }
+            }
+            if (index == null) {
+                buildIndex(file, indexPath, modified);
+                index = new MappedFile(indexPath);
+            }
+            return new TextLogsReader(file, index);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int label(long i) {
+        return index.getInt(record(i) + 12);
+    }
+
+    /**
+     * Returns the length of the observation of the i-th log.
+     *
+     * @param i the index of the log.
+     * @return the length of the observation.
+     * @throws IndexOutOfBoundsException if the given index is out of range.
+     */
+    public int length(long i) {
+        return index.getInt(record(i) + 8);
+    }
+
+    @Override
+    public String observation(long i) {
+        long record = record(i);
+        byte[] observation = new byte[index.getInt(record + 8)];
+        file.getBytes(index.getLong(record), observation, 0, observation.length);
+        return new String(observation, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int getLabelCount() {
+        return labelCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            index.close();
+        } finally {
+            file.close();
+        }
+    }
+
+    // returns the position of the record of the i-th log in the index.
+    private long record(long i) {
+        if (i < 0 || i >= size)
+            throw new IndexOutOfBoundsException("log index out of range: " + i);
+        return HEADER_SIZE + RECORD_SIZE * i;
+    }
+
+    // returns true if the given index is built from the logs file of the given size and modified time.
+    private static boolean isValidIndex(MappedFile index, long fileSize, long modified) {
+        return index.size() >= HEADER_SIZE
+                && index.getInt(0) == INDEX_MAGIC
+                && index.getInt(4) == INDEX_VERSION
+                && index.getLong(16) == fileSize
+                && index.getLong(24) == modified
+                && index.size() == HEADER_SIZE + RECORD_SIZE * index.getLong(8);
+    }
+
+    // scans the given logs file, saving the index to the given path.
+    private static void buildIndex(MappedFile file, Path indexPath, long modified) throws IOException {
+        Path temp = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        long count = 0;
+        int maxLabel = -1;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            ChannelOutput records = new ChannelOutput(channel);
+            long fileSize = file.size();
+            long start = 0;
+            boolean first = true;
+            while (start < fileSize) {
+                // finding the end of the line and the last 'T' of the line.
+                long end = start;
+                long separator = -1;
+                byte b;
+                while (end < fileSize && (b = file.getByte(end)) != '\n') {
+                    if (b == 'T')
+                        separator = end;
+                    end++;
+                }
+                long next = end + 1;
+                if (end > start && file.getByte(end - 1) == '\r')
+                    end--;
+                if (first && isStatisticsHeader(file, start, end)) {
+                    first = false;
+                    start = next;
+                    continue;
+                }
+                first = false;
+                if (end > start) {
+                    if (separator < 0 || separator + 1 >= end)
+                        throw new IllegalArgumentException("Not a labeled log at position " + start);
+                    int label = 0;
+                    for (long p = separator + 1; p < end; p++) {
+                        int digit = file.getByte(p) - '0';
+                        if (digit < 0 || digit > 9)
+                            throw new IllegalArgumentException("Invalid label at position " + p);
+                        label = label * 10 + digit;
+                    }
+                    records.putLong(start);
+                    records.putInt((int) (separator - start));
+                    records.putInt(label);
+                    maxLabel = Math.max(maxLabel, label);
+                    count++;
+                }
+                start = next;
+            }
+            records.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(INDEX_MAGIC).putInt(INDEX_VERSION)
+                    .putLong(count).putLong(fileSize).putLong(modified)
+                    .putInt(maxLabel + 1);
+            header.clear();
+            channel.write(header, 0);
+        }
+        Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // returns true if the given line is the statistics header.
+    private static boolean isStatisticsHeader(MappedFile file, long start, long end) {
+        if (end - start < STATISTICS_HEADER.length())
+            return false;
+        for (int i = 0; i < STATISTICS_HEADER.length(); i++)
+            if (file.getByte(start + i) != STATISTICS_HEADER.charAt(i))
+                return false;
+        return true;
+    }
+}
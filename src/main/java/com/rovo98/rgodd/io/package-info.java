@@ -0,0 +1,6 @@
+/**
+ * Provides binary dataset formats of the generated running logs, and readers of them.
+ *
+ * @author rovo98
+ */
+package com.rovo98.rgodd.io;
@@ -1,8 +1,11 @@
 package com.rovo98.rgodd.utils;
 
+import com.rovo98.rgodd.CompiledDFA;
 import com.rovo98.rgodd.DFAConfig;
 import com.rovo98.rgodd.DFANode;
+import com.rovo98.rgodd.GenerationProfile;
 import com.rovo98.rgodd.diagnosability.CompositeNode;
+import com.rovo98.rgodd.diagnosability.FailureLabels;
 import com.rovo98.rgodd.diagnosability.MultiFaultyCompositeNode;
 import com.rovo98.rgodd.diagnosability.MultiFaultyNDDFANode;
 import com.rovo98.rgodd.diagnosability.NDDFANode;
@@ -11,6 +14,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
@@ -107,6 +111,49 @@ public class CommonUtils {
         }
     }
 
+    /**
+     * Saves the constructed dfa configurations to the given file, the same as
+     * {@link #saveDFAConfigs(String, DFANode, DFAConfig)} but not in the specified path.
+     *
+     * @param file      the file to save the given objects, replaced if it exists.
+     * @param rootNode  root node of the constructed dfa.
+     * @param dfaConfig Config object of the dfa.
+     * @throws UncheckedIOException if the file can not be written.
+     */
+    public static void saveDFAConfigs(Path file, DFANode rootNode, DFAConfig dfaConfig) {
+        try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            oos.writeObject(rootNode);
+            oos.writeObject(dfaConfig);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save dfa configs: " + file, e);
+        }
+        LOGGER.debug("dfa config file {} saved successfully!", file);
+    }
+
+    /**
+     * Loads the saved dfa configurations from the given file.
+     *
+     * @param file the file saved by {@link #saveDFAConfigs(Path, DFANode, DFAConfig)}.
+     * @return Optional contains the loaded objects(dfaRoot, dfaConfig), or empty Optional if the file
+     * does not exist.
+     * @throws UncheckedIOException if the file can not be read.
+     */
+    public static Optional<Object[]> loadDFAConfigs(Path file) {
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            Object[] result = new Object[2];
+            for (int i = 0; i < result.length; i++)
+                result[i] = ois.readObject();
+            return Optional.of(result);
+        } catch (NoSuchFileException e) {
+            LOGGER.debug("dfa config file {} not found.", file);
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load dfa configs: " + file, e);
+        } catch (ClassNotFoundException e) {
+            throw new UncheckedIOException("Failed to load dfa configs: " + file, new IOException(e));
+        }
+    }
+
     /**
      * Returns default formatted dfa filename.
      *
@@ -114,13 +161,92 @@ public class CommonUtils {
      * @return default formatted dfa filename.
      */
     public static String generateDefaultDFAName(DFAConfig dfaConfig) {
+        // seeded dfa is named after its seed.
+        if (dfaConfig.isSeeded())
+            return dfaConfig.getName();
+        return generateDefaultDFAName(dfaConfig.getStateSize(), dfaConfig.getFaultyStateSize(),
+                dfaConfig.getAlphabet().length, dfaConfig.getFaultyEvents().length);
+    }
+
+    /**
+     * Returns default formatted dfa filename.
+     *
+     * @param dfa the compiled dfa.
+     * @return default formatted dfa filename.
+     */
+    public static String generateDefaultDFAName(CompiledDFA dfa) {
+        if (dfa.getName() != null)
+            return dfa.getName();
+        return generateDefaultDFAName(dfa.getStateSize(), dfa.getFaultyStateSize(),
+                dfa.getAlphabetSize(), dfa.getFaultTypeCount());
+    }
+
+    // returns default formatted dfa filename of the given basic infos.
+    private static String generateDefaultDFAName(int stateSize, int faultyStateSize,
+                                                 int alphabetSize, int faultyEventSize) {
         SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        String basicInfo = "s" + dfaConfig.getStateSize() + ":fs" + dfaConfig.getFaultyStateSize() +
-                ":as" + dfaConfig.getAlphabet().length + ":fes" + dfaConfig.getFaultyEvents().length;
+        String basicInfo = "s" + stateSize + ":fs" + faultyStateSize +
+                ":as" + alphabetSize + ":fes" + faultyEventSize;
         String filename = Base64.getEncoder().encodeToString(basicInfo.getBytes());
         return df.format(new Date()).concat("_").concat(filename);
     }
 
+    /**
+     * Returns the dfa filename derived from the seed and the options of the construction.
+     * <br />
+     * The same seed and options always give the same dfa, so the name can be used to find the
+     * saved dfa before constructing it.
+     *
+     * @param seed        the seed of the construction.
+     * @param minXNum     the minimum number of the states in DFA.
+     * @param maxXNum     the maximum number of the states in DFA.
+     * @param extraNormal whether extra normal component is added.
+     * @param multiFaulty whether multiply faulty mode is applied.
+     * @param diagnosable whether the dfa is constructed with diagnosability.
+     * @return the dfa filename of the seed.
+     */
+    public static String generateSeededDFAName(long seed, int minXNum, int maxXNum, boolean extraNormal,
+                                               boolean multiFaulty, boolean diagnosable) {
+        return String.format("seed-%016x_x%d-%d_en%d_mf%d_d%d", seed, minXNum, maxXNum,
+                extraNormal ? 1 : 0, multiFaulty ? 1 : 0, diagnosable ? 1 : 0);
+    }
+
+    /**
+     * Returns the dfa filename derived from the seed and the profile of the construction.
+     * <br />
+     * For a profile with only the states range set, the name is the same as
+     * {@link #generateSeededDFAName(long, int, int, boolean, boolean, boolean)}.
+     *
+     * @param seed        the seed of the construction.
+     * @param profile     the profile of the construction.
+     * @param diagnosable whether the dfa is constructed with diagnosability.
+     * @return the dfa filename of the seed.
+     */
+    public static String generateSeededDFAName(long seed, GenerationProfile profile, boolean diagnosable) {
+        return String.format("seed-%016x_%s_d%d", seed, profile.getName(), diagnosable ? 1 : 0);
+    }
+
+    /**
+     * Returns true if the dfa config file with the given name is saved.
+     *
+     * @param filename name of the file in specified path.
+     * @return true if the file exists; otherwise false.
+     */
+    public static boolean existsDFAConfigs(String filename) {
+        // basic checking
+        if (filename.contains(".."))
+            throw new IllegalArgumentException("Invalid filename is given");
+        try {
+            Properties config = new Properties();
+            config.load(CommonUtils.class.getClassLoader().getResourceAsStream("AppConfigs.properties"));
+            String location = config.getProperty("dfa.storageLocation");
+            return Files.exists(Paths.get(location, filename));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * print out the basic infos of the given dfa configurations.
      *
@@ -174,18 +300,12 @@ public class CommonUtils {
      * REMARKS: only used for multi-faulty mode.
      *
      * @param state        the state of the observer node.
-     * @param failureTypes A list of failure types of the observer node.
+     * @param failureTypes labels set of the failure types of the observer node, see {@link FailureLabels}.
      * @return A simple key for identifying observer node in a map.
      */
-    public static String getObserverNodeIdenticalKeyMultiFaulty(int state, List<String> failureTypes) {
-        // sort the given failureTypes list first
-        Collections.sort(failureTypes);
-        // returned example: (1, {F1,F2})
-        String key = "(" + state + ",{";
-        for (String ft : failureTypes)
-            key = key.concat(ft).concat(",");
-        key = key.substring(0, key.length() - 1);
-        return key.concat("})");
+    public static String getObserverNodeIdenticalKeyMultiFaulty(int state, int failureTypes) {
+        // returned example: (1,{F1,F2})
+        return "(" + state + "," + FailureLabels.toString(failureTypes) + ")";
     }
 
     /**
@@ -236,16 +356,13 @@ public class CommonUtils {
      * REMARKS: only used for multi-faulty mode.
      *
      * @param firstState         the first state of the composite node.
-     * @param firstFailureTypes  A list of the failure types for the first state.
+     * @param firstFailureTypes  labels set of the failure types for the first state.
      * @param secondState        the second state of the composite node.
-     * @param secondFailureTypes A list of the failure types for the second state.
+     * @param secondFailureTypes labels set of the failure types for the second state.
      * @return A simple key for identifying composite node in a map.
      */
-    public static String getCompositeNodeIdenticalKeyMultiFaulty(int firstState, List<String> firstFailureTypes,
-                                                                 int secondState, List<String> secondFailureTypes) {
-        // sort the given failureTypes list first
-        Collections.sort(firstFailureTypes);
-        Collections.sort(secondFailureTypes);
+    public static String getCompositeNodeIdenticalKeyMultiFaulty(int firstState, int firstFailureTypes,
+                                                                 int secondState, int secondFailureTypes) {
         // returned example: ((1,{F1}),(20,{F1,F2}))
         return "(" + getObserverNodeIdenticalKeyMultiFaulty(firstState, firstFailureTypes) + "," +
                 getObserverNodeIdenticalKeyMultiFaulty(secondState, secondFailureTypes) + ")";
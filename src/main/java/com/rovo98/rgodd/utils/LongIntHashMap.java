@@ -0,0 +1,178 @@
+package com.rovo98.rgodd.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from primitive long keys to non-negative int values.
+ * <br />
+ * Used where boxed {@code HashMap<Long, Integer>} entries are too expensive, e.g. packed
+ * composite node keys of the diagnoser. Removal of single entries is not supported.
+ *
+ * @author rovo98
+ * @version 1.0.0
+ * @since 2020.04.03
+ */
+public final class LongIntHashMap {
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;   // MISSING marks an empty slot.
+    private int mask;
+    private int size;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key the key.
+     * @return the value of the given key, or -1 if the key is absent.
+     */
+    public int get(long key) {
+        int i = slot(key);
+        while (values[i] != MISSING) {
+            if (keys[i] == key)
+                return values[i];
+            i = (i + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * Associates the given value with the given key if the key is absent.
+     *
+     * @param key   the key.
+     * @param value the non-negative value.
+     * @return the existing value of the given key, or -1 if the value is put.
+     * @throws IllegalArgumentException if the given value is negative.
+     */
+    public int putIfAbsent(long key, int value) {
+        if (value < 0)
+            throw new IllegalArgumentException("Only non-negative values can be put: " + value);
+        int i = slot(key);
+        while (values[i] != MISSING) {
+            if (keys[i] == key)
+                return values[i];
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > (mask + 1) >> 1)
+            rehash();
+        return MISSING;
+    }
+
+    /**
+     * Associates the given value with the given key.
+     *
+     * @param key   the key.
+     * @param value the non-negative value.
+     * @throws IllegalArgumentException if the given value is negative.
+     */
+    public void put(long key, int value) {
+        if (value < 0)
+            throw new IllegalArgumentException("Only non-negative values can be put: " + value);
+        int i = slot(key);
+        while (values[i] != MISSING) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > (mask + 1) >> 1)
+            rehash();
+    }
+
+    /**
+     * Removes all the entries (the capacity is kept).
+     */
+    public void clear() {
+        if (size == 0)
+            return;
+        Arrays.fill(values, MISSING);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes all the entries to the given output, they can be read back by {@link #readFrom(DataInput)}.
+     *
+     * @param out the output.
+     * @throws IOException if the entries can not be written.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] == MISSING)
+                continue;
+            out.writeLong(keys[i]);
+            out.writeInt(values[i]);
+        }
+    }
+
+    /**
+     * Reads the entries written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in the input.
+     * @return the map of the read entries.
+     * @throws IOException if the entries can not be read.
+     */
+    public static LongIntHashMap readFrom(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0)
+            throw new IOException("Invalid number of the entries: " + count);
+        LongIntHashMap map = new LongIntHashMap(count);
+        for (int i = 0; i < count; i++)
+            map.put(in.readLong(), in.readInt());
+        return map;
+    }
+
+    // returns the initial slot of the given key.
+    private int slot(long key) {
+        // finalizer of the murmur3 hash.
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        mask = capacity - 1;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == MISSING)
+                continue;
+            int j = slot(oldKeys[i]);
+            while (values[j] != MISSING)
+                j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            values[j] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.rovo98.rgodd;
+
+import com.rovo98.rgodd.diagnosability.NeotypeDiagnoser;
+import com.rovo98.rgodd.utils.CommonUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchModelGeneratorTest {
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testGeneratingModelFamily(@TempDir Path folder) throws IOException {
+        List<GenerationProfile> profiles = BatchModelGenerator.grid(new int[][]{{11, 20}, {30}},
+                new int[]{0, 2}, new boolean[]{false, true}, new boolean[]{false});
+        assertEquals(8, profiles.size());
+
+        Path first = folder.resolve("first");
+        List<BatchModelGenerator.Model> models = new BatchModelGenerator(executor, 4)
+                .generate(profiles, 2, 42, first);
+        assertEquals(16, models.size());
+        List<String> manifest = Files.readAllLines(first.resolve(BatchModelGenerator.MANIFEST));
+        assertEquals(17, manifest.size());
+        for (int i = 0; i < models.size(); i++) {
+            BatchModelGenerator.Model model = models.get(i);
+            assertEquals(i / 2, model.getCell());
+            assertEquals(BatchModelGenerator.modelSeed(42, i / 2, i % 2), model.getSeed());
+            assertTrue(manifest.get(i + 1).startsWith(model.getFile() + "\t"));
+
+            Optional<Object[]> loaded = CommonUtils.loadDFAConfigs(first.resolve(model.getFile()));
+            assertTrue(loaded.isPresent());
+            CompiledDFA dfa = new ConstructedDFA((DFANode) loaded.get()[0], (DFAConfig) loaded.get()[1]).compile();
+            assertEquals(model.getStateCount(), dfa.getStateCount());
+            assertEquals(model.getProfile().isMultiFaulty(), dfa.isMultiFaulty());
+            assertTrue(NeotypeDiagnoser.newInstance().isDiagnosable(dfa));
+        }
+
+        // the same models no matter how many workers are used, and a larger count only adds models.
+        List<BatchModelGenerator.Model> more = new BatchModelGenerator(executor, 1)
+                .generate(profiles, 3, 42, folder.resolve("second"));
+        for (int i = 0; i < models.size(); i++)
+            assertEquals(models.get(i).getFile(), more.get(i / 2 * 3 + i % 2).getFile());
+    }
+
+    @Test
+    void testStoppingOnFailure(@TempDir Path folder) throws IOException {
+        List<GenerationProfile> profiles = BatchModelGenerator.grid(new int[][]{{11, 20}},
+                new int[]{0}, new boolean[]{false}, new boolean[]{false});
+        // the first model can not be saved, a directory exists with its name.
+        GenerationProfile profile = profiles.get(0);
+        String first = CommonUtils.generateSeededDFAName(BatchModelGenerator.modelSeed(7, 0, 0), profile, true)
+                .concat("_bc_config");
+        Files.createDirectories(folder.resolve(first));
+
+        assertThrows(UncheckedIOException.class,
+                () -> new BatchModelGenerator(executor, 2).generate(profiles, 200, 7, folder));
+        try (Stream<Path> files = Files.list(folder)) {
+            assertTrue(files.count() < 100);
+        }
+        assertFalse(Files.exists(folder.resolve(BatchModelGenerator.MANIFEST)));
+    }
+}
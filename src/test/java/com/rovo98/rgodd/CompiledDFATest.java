@@ -0,0 +1,46 @@
+package com.rovo98.rgodd;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CompiledDFATest {
+    @Test
+    void testCompilingConstructedDfa() {
+        DFAConstructor constructor = SimpleDFAConstructor.getInstance();
+        DFANode root = constructor.constructRandomDFAExtraNormal(30, 50, true);
+        DFAConfig dfaConfig = constructor.getDFAConfig();
+
+        CompiledDFA dfa = new CompiledDFA(root, dfaConfig);
+
+        assertEquals(dfaConfig.getStatesMap().size(), dfa.getStateCount());
+        assertEquals(dfaConfig.getAlphabet().length, dfa.getAlphabetSize());
+        assertEquals(root.getState(), dfa.stateIdOf(dfa.getRootIndex()));
+
+        for (DFANode node : dfaConfig.getStatesMap().values()) {
+            int state = dfa.stateIndexOf(node.getState());
+            assertEquals(node.getTransitions().size(), dfa.outDegree(state));
+            for (Map.Entry<Character, Integer> t : node.getTransitions().entrySet()) {
+                int next = dfa.next(state, dfa.symbolIndexOf(t.getKey()));
+                assertEquals((int) t.getValue(), dfa.stateIdOf(next));
+            }
+        }
+        // faulty types are numbered as the order of the unobservable events.
+        char[] unobservableEvents = dfaConfig.getUnobservableEvents();
+        for (int i = 0; i < unobservableEvents.length; i++)
+            assertEquals(i + 1, dfa.faultTypeOf(dfa.symbolIndexOf(unobservableEvents[i])));
+        for (char c : dfaConfig.getObservableEvents())
+            assertEquals(0, dfa.faultTypeOf(dfa.symbolIndexOf(c)));
+
+        // the constructed form of the compiled dfa has the same states and transitions.
+        ConstructedDFA constructed = dfa.toConstructedDFA();
+        assertEquals(root.getState(), constructed.getRoot().getState());
+        assertEquals(dfaConfig.getStatesMap().keySet(), constructed.getDFAConfig().getStatesMap().keySet());
+        for (DFANode node : dfaConfig.getStatesMap().values())
+            assertEquals(node.getTransitions(),
+                    constructed.getDFAConfig().getStatesMap().get(node.getState()).getTransitions());
+        assertEquals(dfa.isMultiFaulty(), constructed.compile().isMultiFaulty());
+    }
+}
@@ -0,0 +1,54 @@
+package com.rovo98.rgodd;
+
+import com.rovo98.rgodd.utils.SeededRandom;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LogWalkerTest {
+
+    @Test
+    void testWalkingSingleFaulty() {
+        assertSameAsReplayedWalks(SimpleDFAConstructor.newInstance()
+                .construct(3, 11, 30, false, false).compile());
+    }
+
+    @Test
+    void testWalkingMultiFaulty() {
+        assertSameAsReplayedWalks(SimpleDFAConstructor.newInstance()
+                .construct(3, 11, 30, true, true).compile());
+    }
+
+    // replays every walk with the same random sequence, labeling the full traversal by scanning it.
+    private static void assertSameAsReplayedWalks(CompiledDFA dfa) {
+        LogWalker walker = new LogWalker(dfa, 60);
+        SeededRandom r = new SeededRandom(17);
+        SeededRandom replay = new SeededRandom(17);
+        char[] unobservableEvents = dfa.getUnobservableEvents();
+        for (int i = 0; i < 1000; i++) {
+            int steps = 1 + i % 60;
+            int label = walker.walk(steps, r);
+
+            StringBuilder traversal = new StringBuilder();
+            int state = dfa.getRootIndex();
+            for (int j = 0; j < steps && dfa.outDegree(state) > 0; j++) {
+                int symbolIndex = dfa.outSymbol(state, replay.nextInt(dfa.outDegree(state)));
+                state = dfa.next(state, symbolIndex);
+                traversal.append(dfa.symbolOf(symbolIndex));
+            }
+            String observation = traversal.toString();
+            int expected = 0;
+            for (int f = 0; f < unobservableEvents.length; f++) {
+                if (observation.indexOf(unobservableEvents[f]) < 0)
+                    continue;
+                observation = observation.replace(String.valueOf(unobservableEvents[f]), "");
+                if (dfa.isMultiFaulty())
+                    expected += 1 << (unobservableEvents.length - f - 1);
+                else if (expected == 0)
+                    expected = f + 1;
+            }
+            assertEquals(observation, new String(walker.buffer(), 0, walker.length()));
+            assertEquals(expected, label);
+        }
+    }
+}
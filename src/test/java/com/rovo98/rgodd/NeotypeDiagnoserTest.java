@@ -0,0 +1,26 @@
+package com.rovo98.rgodd;
+
+import com.rovo98.rgodd.diagnosability.Diagnoser;
+import com.rovo98.rgodd.diagnosability.NeotypeDiagnoser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class NeotypeDiagnoserTest {
+    @Test
+    void testModesGiveTheSameVerdict() {
+        DFAConstructor constructor = SimpleDFAConstructor.getInstance();
+        Diagnoser expected = NeotypeDiagnoser.getInstance(NeotypeDiagnoser.Mode.STRING_KEYED);
+        for (int i = 0; i < 20; i++) {
+            boolean multiFaulty = i % 2 == 0;
+            DFANode root = i % 4 < 2
+                    ? constructor.constructRandomDFA(11, 30, multiFaulty)
+                    : constructor.constructRandomDFAExtraNormal(11, 30, multiFaulty);
+            CompiledDFA dfa = new CompiledDFA(root, constructor.getDFAConfig());
+            boolean verdict = expected.isDiagnosable(dfa);
+            for (NeotypeDiagnoser.Mode mode : NeotypeDiagnoser.Mode.values())
+                assertEquals(verdict, NeotypeDiagnoser.getInstance(mode).isDiagnosable(dfa),
+                        "verdict of mode " + mode);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.rovo98.rgodd;
+
+import com.rovo98.rgodd.utils.SeededRandom;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObservationTrieTest {
+
+    @Test
+    void testSameAsMapGeneration() {
+        CompiledDFA dfa = SimpleDFAConstructor.newInstance()
+                .constructWithDiagnosability(7, 11, 20, false, true).compile();
+        RunningLogsGenerator generator = new RunningLogsGenerator(5, 30);
+        generator.generate(3_000, dfa, 42, false);
+        Map<String, String> expected = new HashMap<>(generator.getRunningLogs());
+
+        ObservationTrie trie = generator.generateTrie(3_000, dfa, 42);
+        Map<String, String> logs = new HashMap<>();
+        trie.forEach((observation, length, label) ->
+                logs.put(new String(observation, 0, length), String.valueOf(label)));
+        assertEquals(3_000, trie.size());
+        assertEquals(expected, logs);
+    }
+
+    @Test
+    void testAmbiguousObservations() {
+        char[] alphabet = {'a', 'b', 'c'};
+        // multi-faulty mode of 2 faulty types: label 2 (0b10) is F1, label 1 (0b01) is F2, label 3 both.
+        ObservationTrie trie = new ObservationTrie(2, true);
+        Map<String, Integer> live = new HashMap<>();
+        Map<String, Set<Integer>> added = new HashMap<>();
+        Random r = new SeededRandom(3);
+        char[] buffer = new char[6];
+        for (int i = 0; i < 5_000; i++) {
+            int length = r.nextInt(buffer.length + 1);
+            for (int j = 0; j < length; j++)
+                buffer[j] = alphabet[r.nextInt(alphabet.length)];
+            int label = r.nextInt(4);
+            String observation = new String(buffer, 0, length);
+            // the same as the in-memory generation.
+            Integer existing = live.get(observation);
+            boolean expected = existing == null;
+            if (existing == null)
+                live.put(observation, label);
+            else if (existing != label)
+                live.remove(observation);
+            added.computeIfAbsent(observation, k -> new HashSet<>()).add(label);
+
+            assertEquals(expected, trie.add(buffer, length, label));
+        }
+        assertEquals(live.size(), trie.size());
+        for (Map.Entry<String, Integer> log : live.entrySet())
+            assertEquals((int) log.getValue(), trie.labelOf(log.getKey().toCharArray(), log.getKey().length()));
+
+        for (int f = 1; f <= 2; f++) {
+            int flag = 1 << (2 - f);
+            Set<String> expected = new HashSet<>();
+            for (Map.Entry<String, Set<Integer>> e : added.entrySet()) {
+                boolean with = false, without = false;
+                for (int label : e.getValue()) {
+                    with |= (label & flag) != 0;
+                    without |= (label & flag) == 0;
+                }
+                if (with && without)
+                    expected.add(e.getKey());
+                assertEquals(with && without, trie.isAmbiguous(e.getKey().toCharArray(), e.getKey().length(), f));
+            }
+            Set<String> ambiguous = new HashSet<>();
+            trie.forEachAmbiguous(f, (observation, length, label) ->
+                    assertTrue(ambiguous.add(new String(observation, 0, length))));
+            assertEquals(expected, ambiguous);
+        }
+        assertThrows(IllegalArgumentException.class, () -> trie.forEachAmbiguous(3, (o, l, label) -> { }));
+    }
+}
@@ -0,0 +1,52 @@
+package com.rovo98.rgodd;
+
+import com.rovo98.rgodd.diagnosability.NeotypeDiagnoser;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelDFAGeneratorTest {
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testGeneratingDiagnosableDfa() {
+        ParallelDFAGenerator generator = new ParallelDFAGenerator(executor, 4);
+        ConstructedDFA constructed = generator.constructRandomDFAWithDiagnosability(11, 20, true);
+        assertTrue(NeotypeDiagnoser.newInstance().isDiagnosable(constructed.compile()));
+    }
+
+    @Test
+    void testSeededGenerationIsReproducible() {
+        ConstructedDFA expected = SimpleDFAConstructor.newInstance()
+                .constructWithDiagnosability(42, 11, 20, false, true);
+        for (int workers = 1; workers <= 4; workers += 3) {
+            ParallelDFAGenerator generator = new ParallelDFAGenerator(executor, workers);
+            SimpleDFAConstructorTest.assertSameDFA(expected,
+                    generator.constructWithDiagnosability(42, 11, 20, false, true));
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        ParallelDFAGenerator generator = new ParallelDFAGenerator(executor, 2);
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.constructRandomDFAWithDiagnosability(5, 20, false));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelDFAGenerator(executor, 0));
+    }
+}
@@ -0,0 +1,132 @@
+package com.rovo98.rgodd;
+
+import com.rovo98.rgodd.io.BinaryLogsReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RunningLogsGeneratorTest {
+
+    @Test
+    void testStreamingGeneration(@TempDir Path folder) throws IOException {
+        CompiledDFA dfa = SimpleDFAConstructor.newInstance()
+                .constructWithDiagnosability(7, 11, 20, false, true).compile();
+        RunningLogsGenerator generator = new RunningLogsGenerator(5, 30);
+        Path first = generator.generateStreaming(2_000, dfa, 42, folder.resolve("first.txt"));
+        Path second = generator.generateStreaming(2_000, dfa, 42, folder.resolve("second.txt"));
+
+        List<String> lines = Files.readAllLines(first);
+        assertEquals(lines, Files.readAllLines(second));
+        assertEquals(2_001, lines.size());
+        assertTrue(lines.get(0).startsWith("Logs size: 2000,"));
+        Set<String> observations = new HashSet<>();
+        for (String log : lines.subList(1, lines.size()))
+            assertTrue(observations.add(log.substring(0, log.lastIndexOf('T'))));
+        // the temporary body files are removed.
+        try (Stream<Path> files = Files.list(folder)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void testParallelGeneration() {
+        CompiledDFA dfa = SimpleDFAConstructor.newInstance()
+                .constructWithDiagnosability(7, 11, 20, false, true).compile();
+        RunningLogsGenerator generator = new RunningLogsGenerator(5, 30);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            generator.generateParallel(5_000, dfa, executor, 4, false);
+            Map<String, String> logs = generator.getRunningLogs();
+            assertEquals(5_000, logs.size());
+            for (Map.Entry<String, String> log : logs.entrySet()) {
+                int label = Integer.parseInt(log.getValue());
+                assertTrue(label >= 0 && label < 4);
+                assertEquals(-1, log.getKey().indexOf('T'));
+            }
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> generator.generateParallel(10, dfa, executor, 0, false));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSavingBinaryLogs(@TempDir Path folder) throws IOException {
+        CompiledDFA dfa = SimpleDFAConstructor.newInstance()
+                .constructWithDiagnosability(7, 11, 20, false, false).compile();
+        RunningLogsGenerator generator = new RunningLogsGenerator(5, 30);
+        generator.generate(2_000, dfa, 42, false);
+        Path path = folder.resolve("logs.bin");
+        generator.saveBinary(path);
+
+        Map<String, String> logs = generator.getRunningLogs();
+        try (BinaryLogsReader reader = BinaryLogsReader.open(path)) {
+            assertEquals(logs.size(), reader.size());
+            assertArrayEquals(dfa.getObservableEvents(), reader.getAlphabet());
+            for (long i = 0; i < reader.size(); i++)
+                assertEquals(logs.get(reader.observation(i)), String.valueOf(reader.label(i)));
+        }
+    }
+
+    @Test
+    void testBalancedGeneration() {
+        CompiledDFA dfa = SimpleDFAConstructor.newInstance()
+                .constructWithDiagnosability(7, 11, 20, false, true).compile();
+        RunningLogsGenerator generator = new RunningLogsGenerator(5, 30);
+        int[] quotas = {500, 300, 300, 200};
+        generator.generateBalanced(quotas, dfa, 42, false);
+
+        int[] counts = new int[quotas.length];
+        for (String label : generator.getRunningLogs().values())
+            counts[Integer.parseInt(label)]++;
+        assertArrayEquals(quotas, counts);
+        // invalid quotas do not discard the generated logs.
+        Map<String, String> logs = new HashMap<>(generator.getRunningLogs());
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.generateBalanced(new int[]{10, 10}, dfa, false));
+        assertEquals(logs, generator.getRunningLogs());
+    }
+
+    @Test
+    void testCheckpointedGeneration(@TempDir Path folder) throws IOException {
+        CompiledDFA dfa = SimpleDFAConstructor.newInstance()
+                .constructWithDiagnosability(7, 11, 20, false, true).compile();
+        RunningLogsGenerator generator = new RunningLogsGenerator(5, 30);
+        Path expected = generator.generateStreaming(3_000, dfa, 42, folder.resolve("expected.txt"));
+
+        Path target = folder.resolve("logs.txt");
+        generator.generateCheckpointed(1_000, dfa, 42, target, 300);
+        assertEquals(1_001, Files.readAllLines(target).size());
+        // simulates logs written after the last checkpoint by an interrupted generation.
+        Files.write(target.resolveSibling("logs.txt.body"), "abcT1\n".getBytes(), StandardOpenOption.APPEND);
+        Files.delete(target);
+
+        // extends the generation, the seed is ignored when resuming.
+        generator.generateCheckpointed(3_000, dfa, 7, target, 300);
+        assertEquals(Files.readAllLines(expected), Files.readAllLines(target));
+
+        CompiledDFA other = SimpleDFAConstructor.newInstance()
+                .constructWithDiagnosability(8, 11, 20, false, true).compile();
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.generateCheckpointed(4_000, other, 42, target, 300));
+        assertTrue(RunningLogsGenerator.deleteCheckpoint(target));
+        try (Stream<Path> files = Files.list(folder)) {
+            assertEquals(2, files.count());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.rovo98.rgodd;
+
+import com.rovo98.rgodd.diagnosability.Diagnoser;
+import com.rovo98.rgodd.diagnosability.NeotypeDiagnoser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimpleDFAConstructorTest {
+    @Test
+    void testConstructingConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                futures.add(executor.submit(() -> {
+                    DFAConstructor constructor = SimpleDFAConstructor.newInstance();
+                    Diagnoser dfaDiagnoser = NeotypeDiagnoser.newInstance();
+                    for (int i = 0; i < 5; i++) {
+                        ConstructedDFA constructed = constructor.construct(11, 30, i % 2 == 0, i % 3 == 0);
+                        DFAConfig dfaConfig = constructed.getDFAConfig();
+                        // the bundled configuration belongs to the constructed root.
+                        assertSame(constructed.getRoot(), dfaConfig.getStatesMap().get(constructed.getRoot().getState()));
+                        CompiledDFA dfa = constructed.compile();
+                        assertEquals(dfaConfig.getStatesMap().size(), dfa.getStateCount());
+                        assertEquals(NeotypeDiagnoser.getInstance(NeotypeDiagnoser.Mode.INT_KEYED).isDiagnosable(dfa),
+                                dfaDiagnoser.isDiagnosable(dfa));
+                    }
+                }));
+            }
+            for (Future<?> f : futures)
+                f.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSeededConstruction() {
+        DFAConstructor constructor = SimpleDFAConstructor.newInstance();
+        for (long seed = 0; seed < 4; seed++) {
+            ConstructedDFA first = constructor.construct(seed, 11, 30, seed % 2 == 0, true);
+            ConstructedDFA second = SimpleDFAConstructor.newInstance().construct(seed, 11, 30, seed % 2 == 0, true);
+            assertSameDFA(first, second);
+            assertEquals(first.getDFAConfig().getName(), second.getDFAConfig().getName());
+        }
+        ConstructedDFA first = constructor.constructWithDiagnosability(7, 11, 20, false, false);
+        ConstructedDFA second = constructor.constructWithDiagnosability(7, 11, 20, false, false);
+        assertSameDFA(first, second);
+    }
+
+    @Test
+    void testConstructingDiagnosable() {
+        DFAConstructor constructor = SimpleDFAConstructor.newInstance();
+        Diagnoser dfaDiagnoser = NeotypeDiagnoser.newInstance();
+        for (long seed = 0; seed < 8; seed++) {
+            boolean extraNormal = seed % 2 == 0;
+            boolean multiFaulty = seed % 4 < 2;
+            ConstructedDFA constructed = constructor.constructDiagnosable(seed, 11, 30, extraNormal, multiFaulty);
+            CompiledDFA dfa = constructed.compile();
+            assertTrue(dfaDiagnoser.isDiagnosable(dfa));
+            assertEquals(multiFaulty, dfa.isMultiFaulty());
+            // every faulty event occurs in the dfa.
+            boolean[] occurred = new boolean[dfa.getFaultTypeCount() + 1];
+            for (int state = 0; state < dfa.getStateCount(); state++)
+                for (int i = 0; i < dfa.outDegree(state); i++)
+                    occurred[dfa.faultTypeOf(dfa.outSymbol(state, i))] = true;
+            for (int f = 1; f < occurred.length; f++)
+                assertTrue(occurred[f]);
+
+            assertSameDFA(constructed, SimpleDFAConstructor.newInstance()
+                    .constructDiagnosable(seed, 11, 30, extraNormal, multiFaulty));
+        }
+    }
+
+    @Test
+    void testConstructingLargeDfa() {
+        ConstructedDFA constructed = SimpleDFAConstructor.newInstance().construct(1L, 50_000, 50_001, true, false);
+        CompiledDFA dfa = constructed.compile();
+        assertTrue(dfa.getStateCount() >= 50_000);
+        // every state is reachable from the root.
+        boolean[] reached = new boolean[dfa.getStateCount()];
+        int[] queue = new int[dfa.getStateCount()];
+        int head = 0, tail = 0;
+        reached[dfa.getRootIndex()] = true;
+        queue[tail++] = dfa.getRootIndex();
+        while (head < tail) {
+            int state = queue[head++];
+            for (int i = 0; i < dfa.outDegree(state); i++) {
+                int next = dfa.next(state, dfa.outSymbol(state, i));
+                if (!reached[next]) {
+                    reached[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        assertEquals(dfa.getStateCount(), tail);
+    }
+
+    @Test
+    void testConstructingWithProfile() {
+        // a profile with only the states range set is the same as the default construction.
+        GenerationProfile defaults = GenerationProfile.builder().states(11, 60).extraNormal(true).multiFaulty(true).build();
+        ConstructedDFA expected = SimpleDFAConstructor.newInstance().construct(5, 11, 60, true, true);
+        ConstructedDFA actual = SimpleDFAConstructor.newInstance().construct(5, defaults);
+        assertSameDFA(expected, actual);
+        assertEquals(expected.getDFAConfig().getName(), actual.getDFAConfig().getName());
+
+        GenerationProfile profile = GenerationProfile.builder().states(500).alphabetSize(60)
+                .faultyComponentSizes(10, 20, 30).outDegree(2, 4).extraNormal(true).extraNormalStates(40).build();
+        assertEquals("x500-500_f60_a60_e3_o2-4_c10-20-30_n40_en1_mf0", profile.getName());
+        ConstructedDFA constructed = SimpleDFAConstructor.newInstance().construct(9, profile);
+        DFAConfig config = constructed.getDFAConfig();
+        assertEquals(500, config.getStateSize());
+        assertEquals(60, config.getFaultyStateSize());
+        assertEquals(540, config.getStatesMap().size());
+        assertEquals(3, config.getUnobservableEvents().length);
+        Set<Character> symbols = new HashSet<>();
+        for (char c : config.getAlphabet())
+            assertTrue(symbols.add(c) && c != 'T');
+        assertEquals(60, symbols.size());
+        assertEquals(540, constructed.compile().getStateCount());
+        assertSameDFA(constructed, SimpleDFAConstructor.newInstance().construct(9, profile));
+
+        assertEquals('A', GenerationProfile.symbolOf(26));
+        assertEquals('U', GenerationProfile.symbolOf(45));
+        assertThrows(IllegalArgumentException.class, () -> GenerationProfile.builder().states(100).alphabetSize(2).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> GenerationProfile.builder().states(100).faultyComponentSizes(1, 5).build());
+        assertThrows(IllegalArgumentException.class, () -> GenerationProfile.builder().states(5).build());
+        assertThrows(IllegalArgumentException.class, () -> GenerationProfile.builder().states(200)
+                .faultEvents(GenerationProfile.MAX_MULTI_FAULTY_FAULT_EVENTS + 1).multiFaulty(true).build());
+        GenerationProfile.builder().states(200).faultEvents(GenerationProfile.MAX_MULTI_FAULTY_FAULT_EVENTS + 1).build();
+    }
+
+    @Test
+    void testConnectingFaultyComponents() {
+        GenerationProfile profile = GenerationProfile.builder().states(300)
+                .faultyComponentSizes(40, 40, 40, 40).multiFaulty(true).build();
+        for (long seed = 0; seed < 10; seed++) {
+            CompiledDFA dfa = SimpleDFAConstructor.newInstance().construct(seed, profile).compile();
+            // the unobservable transitions form no cycle. (kahn's algorithm)
+            int n = dfa.getStateCount();
+            int[] inDegree = new int[n];
+            for (int state = 0; state < n; state++)
+                for (int i = 0; i < dfa.outDegree(state); i++)
+                    if (dfa.faultTypeOf(dfa.outSymbol(state, i)) != 0)
+                        inDegree[dfa.next(state, dfa.outSymbol(state, i))]++;
+            int[] queue = new int[n];
+            int head = 0, tail = 0;
+            for (int state = 0; state < n; state++)
+                if (inDegree[state] == 0)
+                    queue[tail++] = state;
+            while (head < tail) {
+                int state = queue[head++];
+                for (int i = 0; i < dfa.outDegree(state); i++)
+                    if (dfa.faultTypeOf(dfa.outSymbol(state, i)) != 0
+                            && --inDegree[dfa.next(state, dfa.outSymbol(state, i))] == 0)
+                        queue[tail++] = dfa.next(state, dfa.outSymbol(state, i));
+            }
+            assertEquals(n, tail);
+        }
+    }
+
+    // asserts the given two constructed dfas have the same states and transitions.
+    static void assertSameDFA(ConstructedDFA expected, ConstructedDFA actual) {
+        DFAConfig e = expected.getDFAConfig();
+        DFAConfig a = actual.getDFAConfig();
+        assertEquals(expected.getRoot().getState(), actual.getRoot().getState());
+        assertArrayEquals(e.getAlphabet(), a.getAlphabet());
+        assertArrayEquals(e.getUnobservableEvents(), a.getUnobservableEvents());
+        assertEquals(e.getStatesMap().keySet(), a.getStatesMap().keySet());
+        for (Integer state : e.getStatesMap().keySet())
+            assertEquals(e.getStatesMap().get(state).getTransitions(), a.getStatesMap().get(state).getTransitions());
+    }
+}
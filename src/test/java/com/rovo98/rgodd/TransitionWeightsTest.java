@@ -0,0 +1,75 @@
+package com.rovo98.rgodd;
+
+import com.rovo98.rgodd.utils.SeededRandom;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransitionWeightsTest {
+
+    @Test
+    void testProbabilities() {
+        CompiledDFA dfa = SimpleDFAConstructor.newInstance().construct(3, 11, 30, false, false).compile();
+        TransitionWeights weights = TransitionWeights.of(dfa, (state, symbol) -> symbol - 'a' + 1);
+        for (int state = 0; state < dfa.getStateCount(); state++) {
+            int degree = dfa.outDegree(state);
+            double sum = 0;
+            for (int i = 0; i < degree; i++)
+                sum += dfa.symbolOf(dfa.outSymbol(state, i)) - 'a' + 1;
+            for (int i = 0; i < degree; i++)
+                assertEquals((dfa.symbolOf(dfa.outSymbol(state, i)) - 'a' + 1) / sum,
+                        weights.probability(state, i), 1e-9);
+        }
+    }
+
+    @Test
+    void testSampling() {
+        CompiledDFA dfa = SimpleDFAConstructor.newInstance().construct(3, 11, 30, true, true).compile();
+        TransitionWeights weights = TransitionWeights.random(dfa, new SeededRandom(7));
+        SeededRandom r = new SeededRandom(11);
+        int samples = 200_000;
+        for (int state = 0; state < dfa.getStateCount(); state++) {
+            int degree = dfa.outDegree(state);
+            int[] counts = new int[degree];
+            for (int k = 0; k < samples; k++)
+                counts[weights.sample(state, r)]++;
+            for (int i = 0; i < degree; i++)
+                assertEquals(weights.probability(state, i), (double) counts[i] / samples, 0.01);
+        }
+    }
+
+    @Test
+    void testZeroWeights() {
+        CompiledDFA dfa = SimpleDFAConstructor.newInstance().construct(3, 11, 30, false, false).compile();
+        char excluded = dfa.getObservableEvents()[0];
+        // the excluded symbol is never taken, unless it is the only transition of a state.
+        TransitionWeights weights = TransitionWeights.of(dfa, (state, symbol) ->
+                symbol == excluded && dfa.outDegree(dfa.stateIndexOf(state)) > 1 ? 0 : 1);
+        SeededRandom r = new SeededRandom(5);
+        for (int state = 0; state < dfa.getStateCount(); state++) {
+            int degree = dfa.outDegree(state);
+            for (int k = 0; degree > 1 && k < 10_000; k++)
+                assertNotEquals(excluded, dfa.symbolOf(dfa.outSymbol(state, weights.sample(state, r))));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> TransitionWeights.of(dfa, (state, symbol) -> -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> TransitionWeights.of(dfa, (state, symbol) -> 0));
+    }
+
+    @Test
+    void testWeightedGeneration() {
+        CompiledDFA dfa = SimpleDFAConstructor.newInstance().construct(3, 11, 30, false, false).compile();
+        RunningLogsGenerator generator = new RunningLogsGenerator(5, 30);
+        generator.setTransitionWeights(TransitionWeights.random(dfa, new SeededRandom(3)));
+        generator.generate(100, dfa, 3L, false);
+        Map<String, String> logs = generator.getRunningLogs();
+        generator.generate(100, dfa, 3L, false);
+        assertEquals(logs, generator.getRunningLogs());
+
+        CompiledDFA other = SimpleDFAConstructor.newInstance().construct(3, 11, 30, false, false).compile();
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(100, other, 3L, false));
+    }
+}
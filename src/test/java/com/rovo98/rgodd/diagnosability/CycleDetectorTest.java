@@ -0,0 +1,40 @@
+package com.rovo98.rgodd.diagnosability;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CycleDetectorTest {
+    @Test
+    void testFindingMarkedNodeOnCycle() {
+        // 0 -> 1 -> 2 -> 1, 2 -> 3, 3 -> 3
+        int[] offsets = {0, 1, 2, 4, 5};
+        int[] targets = {1, 2, 1, 3, 3};
+        assertEquals(-1, CycleDetector.findMarkedNodeOnCycle(4, offsets, targets,
+                new boolean[]{true, false, false, false}));
+        assertEquals(2, CycleDetector.findMarkedNodeOnCycle(4, offsets, targets,
+                new boolean[]{false, false, true, false}));
+        // self-loop.
+        assertEquals(3, CycleDetector.findMarkedNodeOnCycle(4, offsets, targets,
+                new boolean[]{false, false, false, true}));
+    }
+
+    @Test
+    void testDeepGraph() {
+        // a long chain 0 -> 1 -> ... -> n-1 -> 0, deep enough for a recursive dfs to overflow.
+        int n = 1_000_000;
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[n];
+        for (int i = 0; i < n; i++) {
+            targets[i] = (i + 1) % n;
+            offsets[i + 1] = i + 1;
+        }
+        boolean[] marked = new boolean[n];
+        marked[n / 2] = true;
+        assertEquals(n / 2, CycleDetector.findMarkedNodeOnCycle(n, offsets, targets, marked));
+        // break the cycle.
+        targets[n - 1] = n - 1;
+        offsets[n] = n;
+        assertEquals(-1, CycleDetector.findMarkedNodeOnCycle(n, offsets, targets, marked));
+    }
+}
@@ -0,0 +1,64 @@
+package com.rovo98.rgodd.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryLogsReaderTest {
+
+    @Test
+    void testReadingWrittenLogs(@TempDir Path folder) throws IOException {
+        Path path = folder.resolve("logs.bin");
+        String[] observations = {"abca", "", "ccc", "bacab"};
+        int[] labels = {0, 2, 1, 0};
+        try (BinaryLogsWriter writer = new BinaryLogsWriter(path, new char[]{'a', 'b', 'c'}, 3, 1, 10)) {
+            for (int i = 0; i < observations.length; i++)
+                writer.write(observations[i], labels[i]);
+            assertThrows(IllegalArgumentException.class, () -> writer.write("abd", 0));
+            assertThrows(IllegalArgumentException.class, () -> writer.write("ab", 3));
+        }
+        // the temporary columns are removed.
+        try (Stream<Path> files = Files.list(folder)) {
+            assertEquals(1, files.count());
+        }
+
+        try (BinaryLogsReader reader = BinaryLogsReader.open(path)) {
+            assertEquals(observations.length, reader.size());
+            assertArrayEquals(new char[]{'a', 'b', 'c'}, reader.getAlphabet());
+            assertArrayEquals(new long[]{2, 1, 1}, reader.getStatistics());
+            assertEquals(1, reader.getMinLength());
+            assertEquals(10, reader.getMaxLength());
+            byte[] buffer = new byte[10];
+            for (int i = 0; i < observations.length; i++) {
+                assertEquals(labels[i], reader.label(i));
+                assertEquals(observations[i], reader.observation(i));
+                assertEquals(observations[i].length(), reader.readSymbols(i, buffer, 0));
+                for (int j = 0; j < observations[i].length(); j++) {
+                    assertEquals(observations[i].charAt(j) - 'a', buffer[j]);
+                    assertEquals(observations[i].charAt(j) - 'a', reader.symbol(i, j));
+                }
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.label(observations.length));
+            assertThrows(IndexOutOfBoundsException.class, () -> reader.symbol(0, 4));
+        }
+    }
+
+    @Test
+    void testOpeningInvalidFile(@TempDir Path folder) throws IOException {
+        Path path = folder.resolve("logs.txt");
+        Files.write(path, "Logs size: 1, Normal logs: 1\nabT0\n".getBytes());
+        assertThrows(IOException.class, () -> BinaryLogsReader.open(path));
+
+        // the temporary columns can not be opened, a directory exists with the name of the offsets column.
+        Path target = folder.resolve("logs.bin");
+        Files.createDirectory(folder.resolve("logs.bin.offsets"));
+        assertThrows(IOException.class, () -> new BinaryLogsWriter(target, new char[]{'a'}, 1, 1, 10));
+        assertFalse(Files.exists(folder.resolve("logs.bin.labels")));
+    }
+}
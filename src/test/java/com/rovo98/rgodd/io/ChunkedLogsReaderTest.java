@@ -0,0 +1,81 @@
+package com.rovo98.rgodd.io;
+
+import com.rovo98.rgodd.CompiledDFA;
+import com.rovo98.rgodd.RunningLogsGenerator;
+import com.rovo98.rgodd.SimpleDFAConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkedLogsReaderTest {
+
+    @Test
+    void testReadingWrittenChunks(@TempDir Path folder) throws IOException {
+        Path path = folder.resolve("logs.logz");
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            try (ChunkedLogsWriter writer = new ChunkedLogsWriter(path, 2, 100, executor, 3)) {
+                writer.setHeader("Logs size: 1050");
+                for (int i = 0; i < 1050; i++)
+                    writer.write(Integer.toBinaryString(i).replace('0', 'a').replace('1', 'b'), i % 3 == 0 ? 1 : 0);
+                assertThrows(IllegalArgumentException.class, () -> writer.write("ab", 2));
+            }
+            try (ChunkedLogsReader reader = ChunkedLogsReader.open(path)) {
+                assertEquals(1050, reader.size());
+                assertEquals(11, reader.getChunkCount());
+                assertEquals("Logs size: 1050", reader.getHeader());
+                assertArrayEquals(new long[]{700, 350}, reader.getStatistics());
+                assertEquals(50, reader.getChunkSize(10));
+                for (int chunk = 0; chunk < reader.getChunkCount(); chunk++) {
+                    List<String> logs = reader.readChunk(chunk);
+                    assertEquals(reader.getChunkSize(chunk), logs.size());
+                    int[] statistics = new int[2];
+                    for (int i = 0; i < logs.size(); i++) {
+                        int log = chunk * 100 + i;
+                        assertEquals(Integer.toBinaryString(log).replace('0', 'a').replace('1', 'b')
+                                + (log % 3 == 0 ? "T1" : "T0"), logs.get(i));
+                        statistics[log % 3 == 0 ? 1 : 0]++;
+                    }
+                    assertArrayEquals(statistics, reader.getChunkStatistics(chunk));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSavingChunkedLogs(@TempDir Path folder) throws IOException {
+        CompiledDFA dfa = SimpleDFAConstructor.newInstance()
+                .constructWithDiagnosability(7, 11, 20, false, true).compile();
+        RunningLogsGenerator generator = new RunningLogsGenerator(5, 30);
+        generator.generate(3_000, dfa, 42, false);
+        Path path = folder.resolve("logs.logz");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            generator.saveChunked(path, executor, 2);
+            Map<String, String> logs = new ConcurrentHashMap<>();
+            try (ChunkedLogsReader reader = ChunkedLogsReader.open(path)) {
+                assertTrue(reader.getHeader().startsWith("Logs size: 3000,"));
+                reader.forEachChunk(executor, (chunk, i) -> {
+                    for (String log : chunk) {
+                        int t = log.lastIndexOf('T');
+                        logs.put(log.substring(0, t), log.substring(t + 1));
+                    }
+                });
+            }
+            assertEquals(generator.getRunningLogs(), logs);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
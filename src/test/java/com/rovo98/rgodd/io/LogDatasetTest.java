@@ -0,0 +1,85 @@
+package com.rovo98.rgodd.io;
+
+import com.rovo98.rgodd.CompiledDFA;
+import com.rovo98.rgodd.RunningLogsGenerator;
+import com.rovo98.rgodd.SimpleDFAConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogDatasetTest {
+
+    @Test
+    void testReadingTextAndBinaryLogs(@TempDir Path folder) throws IOException {
+        CompiledDFA dfa = SimpleDFAConstructor.newInstance()
+                .constructWithDiagnosability(7, 11, 20, false, true).compile();
+        RunningLogsGenerator generator = new RunningLogsGenerator(5, 30);
+        Path text = generator.generateStreaming(3_000, dfa, 42, folder.resolve("logs.txt"));
+        generator.generate(3_000, dfa, 42, false);
+        Path binary = folder.resolve("logs.bin");
+        generator.saveBinary(binary);
+        Map<String, String> logs = generator.getRunningLogs();
+
+        for (int opened = 0; opened < 2; opened++) {
+            // the index is built by the first reader, and reused by the second one.
+            try (LogDataset textLogs = LogDataset.open(text);
+                 LogDataset binaryLogs = LogDataset.open(binary)) {
+                assertTrue(textLogs instanceof TextLogsReader);
+                assertTrue(binaryLogs instanceof BinaryLogsReader);
+                assertTrue(Files.exists(folder.resolve("logs.txt" + TextLogsReader.INDEX_SUFFIX)));
+                for (LogDataset dataset : Arrays.asList(textLogs, binaryLogs)) {
+                    assertEquals(logs.size(), dataset.size());
+                    assertEquals(4, dataset.getLabelCount());
+                    for (long i = 0; i < dataset.size(); i++)
+                        assertEquals(logs.get(dataset.observation(i)), String.valueOf(dataset.label(i)));
+                    assertThrows(IndexOutOfBoundsException.class, () -> dataset.label(dataset.size()));
+                }
+                for (int label = 0; label < 4; label++) {
+                    String expected = String.valueOf(label);
+                    long count = logs.values().stream().filter(expected::equals).count();
+                    assertEquals(count, textLogs.indicesOf(label).count());
+                    assertEquals(count, binaryLogs.indicesOf(label).count());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testShuffledBatches(@TempDir Path folder) throws IOException {
+        Path text = folder.resolve("logs.txt");
+        List<String> lines = new ArrayList<>();
+        lines.add("Logs size: 1000, Normal logs: 1000,minLen:1,maxLen:3 observable events:[a,b]");
+        for (int i = 0; i < 1000; i++)
+            lines.add(Integer.toBinaryString(i).replace('0', 'a').replace('1', 'b') + "T0");
+        Files.write(text, lines);
+
+        try (LogDataset dataset = LogDataset.open(text)) {
+            assertEquals(1000, dataset.size());
+            Set<Long> seen = new HashSet<>();
+            Iterator<long[]> batches = dataset.batches(64, new Random(7));
+            int count = 0;
+            while (batches.hasNext()) {
+                long[] batch = batches.next();
+                assertEquals(++count < 16 ? 64 : 1000 % 64, batch.length);
+                for (long i : batch)
+                    assertTrue(seen.add(i));
+            }
+            assertEquals(1000, seen.size());
+        }
+        for (long n = 1; n <= 100; n++) {
+            RandomPermutation permutation = new RandomPermutation(n, new Random(n));
+            Set<Long> values = new HashSet<>();
+            for (long i = 0; i < n; i++) {
+                long value = permutation.get(i);
+                assertTrue(value >= 0 && value < n);
+                assertTrue(values.add(value));
+            }
+        }
+    }
+}